@@ -1,10 +1,17 @@
 package dev.base.workflow.config;
 
+import dev.base.workflow.domain.executor.notification.mail.MailDeliveryMode;
+import dev.base.workflow.model.core.ExecutionBudget;
+import dev.base.workflow.service.execution.cron.MisfirePolicy;
+import dev.base.workflow.service.execution.dispatch.RejectionPolicy;
+import dev.base.workflow.service.execution.result.ResultRetention;
+import dev.base.workflow.service.execution.trigger.KafkaFailurePolicy;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Application-wide configuration properties.
@@ -19,6 +26,25 @@ public class AppConfig {
     private AuthRedirectConfig frontend;
     private CorsConfig cors;
     private SecurityPathsConfig security;
+    private RunStreamConfig stream;
+    private DefinitionCacheConfig definitionCache;
+    private DispatchConfig dispatch;
+    private WebhookConfig webhook;
+    private DedupConfig dedup;
+    private CronConfig cron;
+    private ClusterConfig cluster;
+    private TriggerBootstrapConfig triggerBootstrap;
+    private DistributedQueueConfig distributedQueue;
+    private CancellationConfig cancellation;
+    private ExecutionBudget executionBudget;
+    private NodeResultConfig nodeResults;
+    private PayloadConfig payloads;
+    private RetentionConfig retention;
+    private StatsConfig stats;
+    private KafkaConsumerPoolConfig kafkaConsumerPool;
+    private KafkaTriggerConfig kafkaTriggers;
+    private KafkaAdminConfig kafkaAdmin;
+    private MailDeliveryConfig mailDelivery;
 
     @Data
     public static class JwtConfig {
@@ -45,5 +71,174 @@ public class AppConfig {
         private List<String> publicPaths;
         private List<String> authPaths;
         private List<String> actuatorPaths;
+        private List<String> webhookPaths;
+    }
+
+    @Data
+    public static class RunStreamConfig {
+        private int bufferSize;
+        private long emitterTimeoutMs;
+    }
+
+    @Data
+    public static class DefinitionCacheConfig {
+        private int maxEntries;
+        private long ttlMs;
+        private boolean changeStreamEnabled;
+    }
+
+    @Data
+    public static class DispatchConfig {
+        private int maxConcurrency;
+        private int maxPerOwner;
+        private int maxPerWorkflow;
+        private Map<String, Integer> ownerWeights;
+        private int defaultOwnerWeight;
+        private int queueCapacity;
+        private RejectionPolicy rejectionPolicy;
+        private long blockTimeoutMs;
+        private int spillReloadBatch;
+    }
+
+    @Data
+    public static class WebhookConfig {
+        private int maxBodyBytes;
+        private int maxBatchSize;
+        private boolean allowUnsigned;
+    }
+
+    @Data
+    public static class DedupConfig {
+        private boolean enabled;
+        private long ttlMs;
+        private long expectedKeys;
+        private double falsePositiveRate;
+    }
+
+    @Data
+    public static class CronConfig {
+        private long misfireThresholdMs;
+        private MisfirePolicy misfirePolicy;
+        private long maxJitterMs;
+    }
+
+    @Data
+    public static class ClusterConfig {
+        private boolean enabled;
+        private String instanceId;
+        private long leaseTtlMs;
+        private long heartbeatIntervalMs;
+        private long reconcileIntervalMs;
+        private int virtualNodes;
+    }
+
+    @Data
+    public static class TriggerBootstrapConfig {
+        private boolean enabled;
+        private int parallelism;
+        private long initialBackoffMs;
+        private long maxBackoffMs;
+    }
+
+    @Data
+    public static class DistributedQueueConfig {
+        private boolean enabled;
+        private boolean workerEnabled;
+        private int claimBatchSize;
+        private int maxInFlight;
+        private long leaseTtlMs;
+        private long heartbeatIntervalMs;
+        private long pollIntervalMs;
+        private long reapIntervalMs;
+        private int maxAttempts;
+    }
+
+    @Data
+    public static class CancellationConfig {
+        private long pollIntervalMs;
+    }
+
+    @Data
+    public static class NodeResultConfig {
+        private ResultRetention retention;
+        private int batchSize;
+        private int executedNodeIds;
+    }
+
+    @Data
+    public static class PayloadConfig {
+        private int compressThresholdBytes;
+        private int offloadThresholdBytes;
+        private int maxPayloadBytes;
+        private int previewBytes;
+        private int compressionLevel;
+    }
+
+    @Data
+    public static class RetentionConfig {
+        private int defaultDays;
+        private long archiveIntervalMs;
+        private long payloadSweepIntervalMs;
+        private int maxDaysPerRun;
+        private int topFailureReasons;
+    }
+
+    @Data
+    public static class StatsConfig {
+        private boolean enabled;
+        private long flushIntervalMs;
+        private long bucketSizeMs;
+        private int retentionDays;
+        private int defaultWindowMinutes;
+    }
+
+    @Data
+    public static class KafkaConsumerPoolConfig {
+        private int maxConsumers;
+        private int defaultMaxRecords;
+        private int defaultMaxBytes;
+        private long idleTimeoutMs;
+        private long keepAliveIntervalMs;
+        private long closeTimeoutMs;
+    }
+
+    @Data
+    public static class KafkaTriggerConfig {
+        private String sharedGroup;
+        private long pollTimeoutMs;
+        private long inFlightPollMs;
+        private long initialBackoffMs;
+        private long maxBackoffMs;
+        private double backoffMultiplier;
+        private long closeTimeoutMs;
+        private long producerCloseTimeoutMs;
+        private KafkaFailurePolicy failurePolicy;
+        private int maxRetries;
+        private long retryBackoffMs;
+        private String deadLetterSuffix;
+        private int deadLetterMaxAttempts;
+    }
+
+    @Data
+    public static class KafkaAdminConfig {
+        private int maxClients;
+        private long clientIdleMs;
+        private long metadataRefreshAfterMs;
+        private long metadataTtlMs;
+        private long maintenanceIntervalMs;
+    }
+
+    @Data
+    public static class MailDeliveryConfig {
+        private int queueCapacity;
+        private int sessions;
+        private int batchSize;
+        private int maxAttempts;
+        private long retryBackoffMs;
+        private long sessionIdleMs;
+        private long enqueueTimeoutMs;
+        private long sendTimeoutMs;
+        private long closeTimeoutMs;
+        private MailDeliveryMode defaultMode;
     }
 }
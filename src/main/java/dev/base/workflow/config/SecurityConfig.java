@@ -49,6 +49,7 @@ public class SecurityConfig {
                 auth.requestMatchers(security.getPublicPaths().toArray(String[]::new)).permitAll()
                                 .requestMatchers(security.getAuthPaths().toArray(String[]::new)).permitAll()
                                 .requestMatchers(security.getActuatorPaths().toArray(String[]::new)).permitAll()
+                                .requestMatchers(security.getWebhookPaths().toArray(String[]::new)).permitAll()
                                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                                 .anyRequest().authenticated();
         }
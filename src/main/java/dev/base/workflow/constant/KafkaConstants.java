@@ -11,7 +11,6 @@ public final class KafkaConstants {
 
     // --- Kafka Constants ---
     public static final int KAFKA_TIMEOUT_SECONDS = 10;
-    public static final long KAFKA_CACHE_TTL_MS = 5 * 60 * 1000; // 5 minutes
 
     // --- Kafka Configuration Keys ---
     public static final String CFG_BOOTSTRAP_SERVERS = "bootstrapServers";
@@ -20,6 +19,7 @@ public final class KafkaConstants {
     public static final String CFG_TOPIC_NAME = "topicName";
     public static final String CFG_PARTITIONS = "partitions";
     public static final String CFG_REPLICATION_FACTOR = "replicationFactor";
+    public static final String CFG_TOPICS = "topics";
     public static final String CFG_POLL_TIMEOUT_MS = "pollTimeoutMs";
     public static final String CFG_MESSAGE_TEMPLATE = "message";
     public static final String CFG_MESSAGE_KEY = "messageKey";
@@ -27,6 +27,35 @@ public final class KafkaConstants {
     public static final String CFG_SECURITY_PROTOCOL = "securityProtocol";
     public static final String CFG_CONSUMER_GROUP = "consumerGroup";
     public static final String CFG_SASL_MECHANISM = "saslMechanism";
+    public static final String CFG_MAX_RECORDS = "maxRecords";
+    public static final String CFG_MAX_BYTES = "maxBytes";
+
+    // --- Consumer Pool ---
+    public static final int DEFAULT_POLL_TIMEOUT_MS = 5000;
+    public static final String CONSUMER_GROUP_PREFIX = "workflow-";
+    public static final String TRIGGER_GROUP_PREFIX = "trigger-";
+    public static final String POOL_KEY_SEPARATOR = "|";
+
+    // --- Trigger Failure Handling ---
+    public static final String CFG_FAILURE_POLICY = "failurePolicy";
+    public static final String CFG_MAX_RETRIES = "maxRetries";
+    public static final String CFG_DEAD_LETTER_TOPIC = "deadLetterTopic";
+    public static final String RETRY_KEY_PREFIX = "retry-";
+    public static final String HEADER_DLT_WORKFLOW_ID = "x-dlt-workflow-id";
+    public static final String HEADER_DLT_ORIGINAL_TOPIC = "x-dlt-original-topic";
+    public static final String HEADER_DLT_ORIGINAL_PARTITION = "x-dlt-original-partition";
+    public static final String HEADER_DLT_ORIGINAL_OFFSET = "x-dlt-original-offset";
+    public static final String HEADER_DLT_ORIGINAL_TIMESTAMP = "x-dlt-original-timestamp";
+    public static final String HEADER_DLT_ATTEMPTS = "x-dlt-attempts";
+    public static final String HEADER_DLT_EXCEPTION_CLASS = "x-dlt-exception-class";
+    public static final String HEADER_DLT_EXCEPTION_MESSAGE = "x-dlt-exception-message";
+    public static final String HEADER_DLT_FAILED_AT = "x-dlt-failed-at";
+
+    // --- Exactly-Once Triggers ---
+    public static final String CFG_EXACTLY_ONCE = "exactlyOnce";
+    public static final String KEY_TRANSACTION_ID = "transactionId";
+    public static final String TRANSACTIONAL_ID_PREFIX = "workflow-trigger-tx-";
+    public static final String VAL_READ_COMMITTED = "read_committed";
 
     // --- Kafka Security Config Keys ---
     public static final String CFG_SSL_TRUSTSTORE_LOC = "sslTruststoreLocation";
@@ -0,0 +1,39 @@
+package dev.base.workflow.constant;
+
+/**
+ * Micrometer meter names and tag keys.
+ */
+public final class MetricConstants {
+
+    private MetricConstants() {
+        // Prevent instantiation
+    }
+
+    // --- Tags ---
+    public static final String TAG_POLICY = "policy";
+    public static final String TAG_WORKFLOW_ID = "workflowId";
+    public static final String TAG_TOPIC = "topic";
+    public static final String TAG_PARTITION = "partition";
+
+    // --- Dispatch Metrics ---
+    public static final String METRIC_DISPATCH_QUEUED = "workflow.dispatch.queued";
+    public static final String METRIC_DISPATCH_IN_FLIGHT = "workflow.dispatch.in_flight";
+    public static final String METRIC_DISPATCH_SPILLED_PENDING = "workflow.dispatch.spilled.pending";
+    public static final String METRIC_DISPATCH_SUBMITTED = "workflow.dispatch.submitted";
+    public static final String METRIC_DISPATCH_REJECTED = "workflow.dispatch.rejected";
+    public static final String METRIC_DISPATCH_WAIT = "workflow.dispatch.wait";
+    public static final String METRIC_QUEUE_CLAIMED = "workflow.queue.claimed";
+    public static final String METRIC_QUEUE_REQUEUED = "workflow.queue.requeued";
+    public static final String METRIC_QUEUE_PARKED = "workflow.queue.parked";
+    public static final String METRIC_QUEUE_HELD = "workflow.queue.held";
+
+    // --- Trigger Dedup Metrics ---
+    public static final String METRIC_DEDUP_DUPLICATES = "workflow.dedup.duplicates";
+    public static final String METRIC_DEDUP_FALSE_POSITIVES = "workflow.dedup.false_positives";
+
+    // --- Kafka Trigger Metrics ---
+    public static final String METRIC_KAFKA_TRIGGER_LAG = "workflow.kafka.trigger.lag";
+    public static final String METRIC_KAFKA_TRIGGER_RECORDS = "workflow.kafka.trigger.records";
+    public static final String METRIC_KAFKA_TRIGGER_IN_FLIGHT = "workflow.kafka.trigger.in_flight";
+    public static final String METRIC_KAFKA_TRIGGER_POLL_TO_COMMIT = "workflow.kafka.trigger.poll_to_commit";
+}
@@ -17,15 +17,17 @@ public final class WorkflowConstants {
     public static final String LOG_CREATED_RUN = "Created new WorkflowRun: {}";
     public static final String LOG_STOPPED_RUN = "Stopped WorkflowRun: {}";
     public static final String LOG_SKIPPING_STOPPED = "Skipping execution - Run {} is STOPPED";
-    public static final String LOG_INTERRUPTING_THREAD = "Interrupting execution thread: {}";
+    public static final String LOG_CANCELLING_EXECUTION = "Cancelling execution: {}";
 
     // --- Response Keys ---
     public static final String KEY_RUN_ID = "runId";
     public static final String KEY_WORKFLOW_ID = "workflowId";
     public static final String KEY_WORKFLOW_NAME = "workflowName";
     public static final String KEY_CURRENT_NODE_ID = "currentNodeId";
+    public static final String KEY_TRIGGER_INPUT = "triggerInput";
     public static final String KEY_OUTPUT = "output";
     public static final String KEY_EXECUTED_NODES = "executedNodes";
+    public static final String KEY_EXECUTED_NODE_COUNT = "executedNodeCount";
     public static final String KEY_SKIPPED = "skipped";
     public static final String KEY_REASON = "reason";
     public static final String KEY_SUCCESS = "success";
@@ -38,6 +40,7 @@ public final class WorkflowConstants {
     // --- Default Values ---
     public static final String DEFAULT_NULL = "null";
     public static final String DEFAULT_VERSION = "1.0.0";
+    public static final String DEFAULT_OWNER_ID = "shared";
     public static final String REASON_RUN_STOPPED = "Run was stopped";
     public static final String MSG_WORKFLOW_STOPPED = "Workflow stopped";
     public static final String MSG_EXECUTOR_FOR = "Node executor for ";
@@ -54,6 +57,19 @@ public final class WorkflowConstants {
     public static final String HTTP_METHOD_PUT = "PUT";
     public static final String HTTP_METHOD_DELETE = "DELETE";
 
+    // --- Trigger Dedup Constants ---
+    public static final String CFG_DEDUP_KEY = "dedupKey";
+    public static final String DEDUP_KEY_SEPARATOR = "|";
+
+    // --- Webhook Constants ---
+    public static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String CFG_WEBHOOK_SECRET = "secret";
+    public static final String CFG_WEBHOOK_TOKEN = "token";
+    public static final String HEADER_WEBHOOK_SIGNATURE = "X-Webhook-Signature";
+    public static final String HEADER_WEBHOOK_TOKEN = "X-Webhook-Token";
+    public static final String WEBHOOK_SIGNATURE_PREFIX = "sha256=";
+    public static final String HMAC_SHA256 = "HmacSHA256";
+
     // --- Provider Constants ---
     public static final String PROVIDER_HTTP = "http";
     public static final String NAME_HTTP = "HTTP/REST API";
@@ -70,6 +86,7 @@ public final class WorkflowConstants {
     public static final String CFG_BODY = "body";
     public static final String CFG_TO = "to";
     public static final String CFG_SUBJECT = "subject";
+    public static final String CFG_DELIVERY_MODE = "deliveryMode";
     public static final String CFG_MAPPING = "mapping";
     public static final String CFG_CRON = "cron";
     public static final String CFG_METHOD = "method";
@@ -101,6 +118,69 @@ public final class WorkflowConstants {
     public static final String KEY_WEBHOOK_URL = "webhookUrl";
     public static final String KEY_CHANNEL = "channel";
 
+    // --- Mongo Collections & Fields ---
+    public static final String COLLECTION_WORKFLOWS = "workflows";
+    public static final String FIELD_MONGO_ID = "_id";
+    public static final String FIELD_WORKFLOW_ID = "workflowId";
+    public static final String FIELD_EXPIRE_AT = "expireAt";
+    public static final String FIELD_HEARTBEAT_AT = "heartbeatAt";
+    public static final String FIELD_LEASE_EXPIRES_AT = "leaseExpiresAt";
+    public static final String FIELD_FENCING_TOKEN = "fencingToken";
+    public static final String FIELD_SEQUENCE = "seq";
+    public static final String COLLECTION_CLUSTER_COUNTERS = "cluster_counters";
+    public static final String COUNTER_FENCING_TOKEN = "fencingToken";
+    public static final String FIELD_STATUS = "status";
+    public static final String FIELD_ACTIVE = "active";
+    public static final String FIELD_NODES = "nodes";
+    public static final String FIELD_NODES_TYPE = "nodes.nodeType";
+    public static final String VAR_NODE = "node";
+    public static final String VAR_NODE_TYPE = "$$node.nodeType";
+    public static final String KEY_ACTIVATED = "activated";
+    public static final String KEY_FAILED = "failed";
+    public static final String KEY_BOOTSTRAP_ATTEMPTS = "attempts";
+    public static final String FIELD_ENQUEUED_AT = "enqueuedAt";
+    public static final String FIELD_SPILLED_AT = "spilledAt";
+    public static final String FIELD_CLAIMED_BY = "claimedBy";
+    public static final String FIELD_CLAIM_TOKEN = "claimToken";
+    public static final String FIELD_ATTEMPTS = "attempts";
+    public static final String FIELD_ERROR = "error";
+    public static final String CFG_DELAY_MS = "delayMs";
+    public static final String KEY_TRUNCATED = "truncated";
+    public static final String KEY_ORIGINAL_BYTES = "originalBytes";
+    public static final String KEY_PREVIEW = "preview";
+    public static final String KEY_OFFLOADED = "offloaded";
+    public static final String KEY_PAYLOAD_ID = "payloadId";
+    public static final String FIELD_FILENAME = "filename";
+    public static final String COLLECTION_GRIDFS_FILES = "fs.files";
+    public static final String FIELD_METADATA_EXPIRE_AT = "metadata.expireAt";
+    public static final String FIELD_STARTED_AT = "startedAt";
+    public static final String FIELD_COMPLETED_AT = "completedAt";
+    public static final String FIELD_DAY = "day";
+    public static final String FIELD_ARCHIVED_THROUGH = "archivedThrough";
+    public static final String COLLECTION_ARCHIVE_STATE = "archive_state";
+    public static final String ARCHIVE_STATE_EXECUTIONS = "executions";
+    public static final String ARCHIVER_OWNER_KEY = "execution-archiver";
+    public static final String SUMMARY_ID_SEPARATOR = ":";
+    public static final String REASON_OTHER = "other";
+    public static final int MIN_RETENTION_DAYS = 2;
+    public static final int MAX_FAILURE_REASON_LENGTH = 200;
+    public static final int MAX_TRACKED_FAILURE_REASONS = 1000;
+    public static final String STAGE_INDEX_STATS = "$indexStats";
+    public static final String SYSTEM_COLLECTION_PREFIX = "system.";
+    public static final String FIELD_KEY = "key";
+    public static final String FIELD_SPEC = "spec";
+    public static final String FIELD_ACCESSES = "accesses";
+    public static final String FIELD_OPS = "ops";
+    public static final String FIELD_SINCE = "since";
+    public static final String FIELD_PARTIAL_FILTER_EXPRESSION = "partialFilterExpression";
+    public static final String FIELD_NODE_ID = "nodeId";
+    public static final String FIELD_BUCKET_START = "bucketStart";
+    public static final String FIELD_COUNT = "count";
+    public static final String FIELD_ERRORS = "errors";
+    public static final String FIELD_TOTAL_DURATION_MS = "totalDurationMs";
+    public static final String FIELD_LATENCY = "latency";
+    public static final String FIELD_PATH_SEPARATOR = ".";
+
     // --- Default Mapping Fields ---
     public static final String DEFAULT_FIELD_NEW = "newField";
     public static final String DEFAULT_FIELD_OLD = "oldField";
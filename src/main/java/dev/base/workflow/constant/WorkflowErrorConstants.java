@@ -15,6 +15,7 @@ public final class WorkflowErrorConstants {
     public static final String ERR_EXECUTION_CANCELLED = "Workflow execution was cancelled";
     public static final String ERR_STOPPED_BY_USER = "Stopped by user";
     public static final String ERR_NO_EXECUTOR = "No executor registered for nodeType: ";
+    public static final String ERR_DELAY_MS_INVALID = "Delay node requires a non-negative 'delayMs'";
 
     // --- Validation Errors ---
     public static final String ERR_VALIDATION_NOT_MAP = "Validation failed: input is not a Map";
@@ -27,6 +28,12 @@ public final class WorkflowErrorConstants {
     public static final String ERR_KAFKA_TOPIC_PRODUCER = "Kafka topic is required for producer";
     public static final String ERR_KAFKA_TOPIC_CONSUMER = "Kafka topic is required for consumer";
 
+    // --- Webhook Errors ---
+    public static final String ERR_WEBHOOK_NOT_CONFIGURED = "Workflow has no webhook trigger: ";
+    public static final String ERR_WEBHOOK_INVALID_JSON = "Webhook payload is not valid JSON";
+    public static final String ERR_WEBHOOK_BATCH_NOT_ARRAY = "Webhook batch payload must be a JSON array";
+    public static final String ERR_WEBHOOK_BATCH_TOO_LARGE = "Webhook batch exceeds maximum size of ";
+
     // --- Adapter Errors ---
     public static final String ERR_HTTP_URL_MISSING = "HTTP adapter requires 'url' in configuration";
     public static final String ERR_HTTP_URL_EMPTY = "HTTP adapter 'url' cannot be empty";
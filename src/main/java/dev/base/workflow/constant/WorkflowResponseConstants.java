@@ -14,5 +14,6 @@ public final class WorkflowResponseConstants {
     public static final String MSG_WORKFLOW_DELETED = "Workflow deleted successfully";
     public static final String MSG_WORKFLOW_EXECUTED = "Workflow executed successfully";
     public static final String MSG_WORKFLOW_STOPPED = "Workflow stopped successfully";
+    public static final String MSG_WEBHOOK_ACCEPTED = "Webhook accepted";
 
 }
@@ -2,13 +2,17 @@ package dev.base.workflow.controller;
 
 import dev.base.workflow.model.dto.ApiResponse;
 import dev.base.workflow.service.integration.KafkaAdminService;
+import dev.base.workflow.util.StringUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -58,16 +62,11 @@ public class KafkaController {
      */
     @PostMapping("/topics/create")
     public ApiResponse<Map<String, Object>> createTopic(@RequestBody Map<String, Object> request) {
-        String topicName = (String) request.get(CFG_TOPIC_NAME);
-        int partitions = request.containsKey(CFG_PARTITIONS)
-                ? ((Number) request.get(CFG_PARTITIONS)).intValue()
-                : 1;
-        short replicationFactor = request.containsKey(CFG_REPLICATION_FACTOR)
-                ? ((Number) request.get(CFG_REPLICATION_FACTOR)).shortValue()
-                : 1;
+        NewTopic topic = toNewTopic(request);
 
-        log.info("Creating Kafka topic: {} with {} partitions", topicName, partitions);
-        Map<String, Object> result = kafkaAdminService.createTopic(request, topicName, partitions, replicationFactor);
+        log.info("Creating Kafka topic: {} with {} partitions", topic.name(), topic.numPartitions());
+        Map<String, Object> result = kafkaAdminService.createTopic(request, topic.name(), topic.numPartitions(),
+                topic.replicationFactor());
 
         if (Boolean.TRUE.equals(result.get(KEY_SUCCESS))) {
             return ApiResponse.success(result, "Topic created successfully");
@@ -75,4 +74,48 @@ public class KafkaController {
             return ApiResponse.error((String) result.get(KEY_ERROR));
         }
     }
+
+    /**
+     * Create several topics in one admin request; one result per topic.
+     */
+    @PostMapping("/topics/create-batch")
+    @SuppressWarnings("unchecked")
+    public ApiResponse<List<Map<String, Object>>> createTopics(@RequestBody Map<String, Object> request) {
+        List<NewTopic> topics = ((List<Map<String, Object>>) request.getOrDefault(CFG_TOPICS, List.of())).stream()
+                .map(this::toNewTopic)
+                .toList();
+
+        log.info("Creating {} Kafka topics on: {}", topics.size(), request.get(CFG_BOOTSTRAP_SERVERS));
+        List<Map<String, Object>> results = kafkaAdminService.createTopics(request, topics);
+        long created = results.stream().filter(result -> Boolean.TRUE.equals(result.get(KEY_SUCCESS))).count();
+        return ApiResponse.success(results, StringUtils.concat("Created ", created, " of ", topics.size(), " topics"));
+    }
+
+    /**
+     * Partition count and replication factor of existing topics; unknown
+     * topics are left out.
+     */
+    @PostMapping("/topics/describe")
+    @SuppressWarnings("unchecked")
+    public ApiResponse<Map<String, Map<String, Object>>> describeTopics(@RequestBody Map<String, Object> request) {
+        List<String> topics = (List<String>) request.getOrDefault(CFG_TOPICS, List.of());
+        Map<String, Map<String, Object>> summaries = new LinkedHashMap<>();
+        kafkaAdminService.describeTopics(request, topics).forEach((name, description) -> summaries.put(name, Map.of(
+                CFG_PARTITIONS, description.partitions().size(),
+                CFG_REPLICATION_FACTOR, description.partitions().isEmpty()
+                        ? 0
+                        : description.partitions().get(0).replicas().size())));
+        return ApiResponse.success(summaries);
+    }
+
+    private NewTopic toNewTopic(Map<String, Object> request) {
+        String topicName = (String) request.get(CFG_TOPIC_NAME);
+        int partitions = request.containsKey(CFG_PARTITIONS)
+                ? ((Number) request.get(CFG_PARTITIONS)).intValue()
+                : 1;
+        short replicationFactor = request.containsKey(CFG_REPLICATION_FACTOR)
+                ? ((Number) request.get(CFG_REPLICATION_FACTOR)).shortValue()
+                : 1;
+        return new NewTopic(topicName, partitions, replicationFactor);
+    }
 }
@@ -0,0 +1,46 @@
+package dev.base.workflow.controller;
+
+import dev.base.workflow.model.dto.ApiResponse;
+import dev.base.workflow.model.dto.WebhookAccepted;
+import dev.base.workflow.service.execution.trigger.WebhookIngressService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static dev.base.workflow.constant.WorkflowResponseConstants.MSG_WEBHOOK_ACCEPTED;
+
+/**
+ * Public ingress for WEBHOOK-triggered workflows.
+ * Authenticated per workflow (HMAC signature or token from the trigger node),
+ * not by user session. Responds 202 as soon as the event is queued.
+ */
+@RestController
+@RequestMapping("/api/webhooks")
+@RequiredArgsConstructor
+public class WebhookController {
+
+    private final WebhookIngressService webhookIngressService;
+
+    @PostMapping("/{workflowId}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ApiResponse<WebhookAccepted> receive(@PathVariable String workflowId,
+            @RequestHeader HttpHeaders headers, InputStream body) {
+        return ApiResponse.success(webhookIngressService.accept(workflowId, headers, body), MSG_WEBHOOK_ACCEPTED);
+    }
+
+    @PostMapping("/{workflowId}/batch")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ApiResponse<List<WebhookAccepted>> receiveBatch(@PathVariable String workflowId,
+            @RequestHeader HttpHeaders headers, InputStream body) {
+        return ApiResponse.success(webhookIngressService.acceptBatch(workflowId, headers, body), MSG_WEBHOOK_ACCEPTED);
+    }
+}
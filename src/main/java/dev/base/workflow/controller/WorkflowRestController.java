@@ -1,8 +1,13 @@
 package dev.base.workflow.controller;
 
 import dev.base.workflow.model.dto.ApiResponse;
+import dev.base.workflow.model.dto.DispatchStats;
 import dev.base.workflow.model.dto.ExecuteWorkflowRequest;
+import dev.base.workflow.model.dto.IndexUsage;
+import dev.base.workflow.model.dto.KafkaTriggerLag;
+import dev.base.workflow.model.dto.WorkflowStats;
 import dev.base.workflow.model.dto.WorkflowStatusResponse;
+import dev.base.workflow.mongo.collection.ExecutionDailySummary;
 import dev.base.workflow.mongo.collection.NodeExecutionResult;
 import dev.base.workflow.mongo.collection.WorkflowDefinition;
 import dev.base.workflow.mongo.collection.WorkflowExecution;
@@ -10,7 +15,9 @@ import dev.base.workflow.mongo.collection.WorkflowRun;
 import dev.base.workflow.service.WorkflowService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -68,6 +75,25 @@ public class WorkflowRestController {
         return ApiResponse.success(workflowService.getExecutionHistory(id));
     }
 
+    @GetMapping("/{id}/executions/daily")
+    public ApiResponse<List<ExecutionDailySummary>> getDailySummaries(@PathVariable String id) {
+        return ApiResponse.success(workflowService.getDailySummaries(id));
+    }
+
+    @GetMapping("/{id}/stats")
+    public ApiResponse<WorkflowStats> getWorkflowStats(@PathVariable String id,
+            @RequestParam(required = false) Integer windowMinutes) {
+        return ApiResponse.success(workflowService.getWorkflowStats(id, windowMinutes));
+    }
+
+    /**
+     * Committed vs log-end offsets of the workflow's Kafka trigger group.
+     */
+    @GetMapping("/{id}/kafka/lag")
+    public ApiResponse<KafkaTriggerLag> getKafkaLag(@PathVariable String id) {
+        return ApiResponse.success(workflowService.getKafkaLag(id));
+    }
+
     @GetMapping("/{id}/runs")
     public ApiResponse<List<WorkflowRun>> getWorkflowRuns(@PathVariable String id) {
         return ApiResponse.success(workflowService.getWorkflowRuns(id));
@@ -83,6 +109,41 @@ public class WorkflowRestController {
         return ApiResponse.success(workflowService.getNodeExecutionResults(runId));
     }
 
+    @GetMapping("/payloads/{payloadId}")
+    public ApiResponse<Object> getPayload(@PathVariable String payloadId) {
+        return ApiResponse.success(workflowService.getPayload(payloadId));
+    }
+
+    /**
+     * Live node/execution deltas for a run (Server-Sent Events).
+     * Clients load /nodes once, then apply deltas from this stream.
+     */
+    @GetMapping(value = "/runs/{runId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRun(@PathVariable String runId) {
+        return workflowService.streamRun(runId);
+    }
+
+    /**
+     * Current execution permits and queue lengths per owner and workflow.
+     */
+    @GetMapping("/dispatch/stats")
+    public ApiResponse<DispatchStats> getDispatchStats() {
+        return ApiResponse.success(workflowService.getDispatchStats());
+    }
+
+    /**
+     * Lag of every Kafka trigger consuming on this instance.
+     */
+    @GetMapping("/kafka/lag")
+    public ApiResponse<List<KafkaTriggerLag>> getKafkaLag() {
+        return ApiResponse.success(workflowService.getKafkaLag());
+    }
+
+    @GetMapping("/indexes/usage")
+    public ApiResponse<List<IndexUsage>> getIndexUsage() {
+        return ApiResponse.success(workflowService.getIndexUsage());
+    }
+
     @PostMapping("/{id}/stop")
     public ApiResponse<Void> stopWorkflow(@PathVariable String id) {
         workflowService.stopWorkflow(id);
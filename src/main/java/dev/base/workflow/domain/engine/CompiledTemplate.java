@@ -0,0 +1,125 @@
+package dev.base.workflow.domain.engine;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.common.CompositeStringExpression;
+import org.springframework.expression.common.LiteralExpression;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@code ${...}} template parsed once into literal chunks and SpEL
+ * expressions, rendered many times.
+ *
+ * Rendering appends the segments to one {@link StringBuilder} sized from the
+ * previous render, so a message costs no re-parse and usually no buffer
+ * growth. Strings and scalars are appended as text; maps, collections and
+ * other objects are streamed into the buffer as JSON. A template consisting
+ * of a single expression renders its value the same way.
+ */
+class CompiledTemplate {
+
+    private static final int EXPRESSION_LENGTH_ESTIMATE = 16;
+
+    private final List<Object> segments;
+    private final ObjectMapper objectMapper;
+    private volatile int expectedLength;
+
+    private CompiledTemplate(List<Object> segments, ObjectMapper objectMapper, int expectedLength) {
+        this.segments = segments;
+        this.objectMapper = objectMapper;
+        this.expectedLength = expectedLength;
+    }
+
+    /**
+     * @param parsed result of parsing the template with a template parser context
+     */
+    static CompiledTemplate of(Expression parsed, ObjectMapper objectMapper) {
+        Expression[] parts = parsed instanceof CompositeStringExpression composite
+                ? composite.getExpressions()
+                : new Expression[] { parsed };
+        List<Object> segments = new ArrayList<>(parts.length);
+        int expectedLength = 0;
+        for (Expression part : parts) {
+            if (part instanceof LiteralExpression literal) {
+                segments.add(literal.getExpressionString());
+                expectedLength += literal.getExpressionString().length();
+            } else {
+                segments.add(part);
+                expectedLength += EXPRESSION_LENGTH_ESTIMATE;
+            }
+        }
+        return new CompiledTemplate(List.copyOf(segments), objectMapper, expectedLength);
+    }
+
+    String render(EvaluationContext context) {
+        StringBuilder out = new StringBuilder(expectedLength);
+        for (Object segment : segments) {
+            if (segment instanceof String literal) {
+                out.append(literal);
+            } else {
+                appendValue(out, ((Expression) segment).getValue(context));
+            }
+        }
+        expectedLength = out.length();
+        return out.toString();
+    }
+
+    private void appendValue(StringBuilder out, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum<?>) {
+            out.append(value);
+            return;
+        }
+        int mark = out.length();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(new BuilderWriter(out))) {
+            objectMapper.writeValue(generator, value);
+        } catch (IOException | RuntimeException e) {
+            // Not serialisable: fall back to toString() like a plain SpEL template
+            out.setLength(mark);
+            out.append(value);
+        }
+    }
+
+    /**
+     * Lets the JSON generator write straight into the render buffer.
+     */
+    private static final class BuilderWriter extends Writer {
+        private final StringBuilder out;
+
+        BuilderWriter(StringBuilder out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            out.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) {
+            out.append(text, offset, offset + length);
+        }
+
+        @Override
+        public void write(int c) {
+            out.append((char) c);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
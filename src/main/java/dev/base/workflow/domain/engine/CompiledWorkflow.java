@@ -0,0 +1,94 @@
+package dev.base.workflow.domain.engine;
+
+import dev.base.workflow.model.core.Edge;
+import dev.base.workflow.mongo.collection.NodeDefinition;
+import dev.base.workflow.mongo.collection.WorkflowDefinition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index-based view of a workflow graph: nodes are numbered in definition
+ * order and edges are grouped by source, so the engine and the analyzer do
+ * not rebuild lookup maps per step. Edges pointing at unknown nodes are kept
+ * aside in {@link #getDanglingEdges()}.
+ */
+public final class CompiledWorkflow {
+
+    private final List<NodeDefinition> nodes = new ArrayList<>();
+    private final Map<String, Integer> indexById = new HashMap<>();
+    private final List<List<Edge>> outgoing = new ArrayList<>();
+    private final List<Edge> danglingEdges = new ArrayList<>();
+
+    private CompiledWorkflow() {
+    }
+
+    public static CompiledWorkflow compile(WorkflowDefinition workflow) {
+        CompiledWorkflow compiled = new CompiledWorkflow();
+        if (workflow.getNodes() != null) {
+            workflow.getNodes().forEach(compiled::addNode);
+        }
+        if (workflow.getEdges() != null) {
+            workflow.getEdges().forEach(compiled::addEdge);
+        }
+        return compiled;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public NodeDefinition nodeAt(int index) {
+        return nodes.get(index);
+    }
+
+    /**
+     * Node index, or -1 when the id is unknown.
+     */
+    public int indexOf(String nodeId) {
+        Integer index = nodeId != null ? indexById.get(nodeId) : null;
+        return index != null ? index : -1;
+    }
+
+    public NodeDefinition getNode(String nodeId) {
+        int index = indexOf(nodeId);
+        return index >= 0 ? nodes.get(index) : null;
+    }
+
+    public List<Edge> outgoing(int index) {
+        return Collections.unmodifiableList(outgoing.get(index));
+    }
+
+    public List<Edge> outgoing(String nodeId) {
+        int index = indexOf(nodeId);
+        return index >= 0 ? outgoing(index) : List.of();
+    }
+
+    public List<Edge> getDanglingEdges() {
+        return Collections.unmodifiableList(danglingEdges);
+    }
+
+    private void addNode(NodeDefinition node) {
+        // Later duplicates win, matching the previous map-based lookup
+        Integer existing = indexById.get(node.getId());
+        if (existing != null) {
+            nodes.set(existing, node);
+            return;
+        }
+        indexById.put(node.getId(), nodes.size());
+        nodes.add(node);
+        outgoing.add(new ArrayList<>());
+    }
+
+    private void addEdge(Edge edge) {
+        int from = indexOf(edge.getFrom());
+        if (from < 0 || indexOf(edge.getTo()) < 0) {
+            danglingEdges.add(edge);
+            return;
+        }
+        outgoing.get(from).add(edge);
+    }
+}
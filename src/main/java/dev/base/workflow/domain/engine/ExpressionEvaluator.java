@@ -5,10 +5,15 @@ import dev.base.workflow.model.core.ExecutionContext;
 import org.springframework.context.expression.MapAccessor;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import static dev.base.workflow.constant.WorkflowConstants.EXPR_VAR_CTX;
 import static dev.base.workflow.constant.WorkflowConstants.EXPR_VAR_INPUT;
 
@@ -25,8 +30,15 @@ import static dev.base.workflow.constant.WorkflowConstants.EXPR_VAR_INPUT;
 @Component
 public class ExpressionEvaluator {
 
+    private static final int MAX_COMPILED_TEMPLATES = 10_000;
+    private static final TemplateParserContext TEMPLATE_CONTEXT = new TemplateParserContext("${", "}");
+
     private final ExpressionParser parser = new SpelExpressionParser();
+    // Cached template expressions are evaluated often enough to be worth compiling to bytecode
+    private final ExpressionParser templateParser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, ExpressionEvaluator.class.getClassLoader()));
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, CompiledTemplate> compiledTemplates = new ConcurrentHashMap<>();
 
     /**
      * Evaluates a boolean SpEL expression.
@@ -49,19 +61,32 @@ public class ExpressionEvaluator {
      *
      * Example:
      * "Order ${input.id} created with data ${input}"
+     *
+     * Templates are compiled once and cached, so repeated sends of the same
+     * node only evaluate its expressions (see {@link CompiledTemplate}).
      */
     public String parseTemplate(String template, Object input, ExecutionContext ctx) {
         if (template == null) {
             return null;
         }
+        return compileTemplate(template).render(buildContext(input, ctx));
+    }
 
-        StandardEvaluationContext context = buildContext(input, ctx);
-
-        Object value = parser
-                .parseExpression(template, new TemplateParserContext("${", "}"))
-                .getValue(context, Object.class); // IMPORTANT: Object, not String
-
-        return stringify(value);
+    /**
+     * Cached compiled form of a template. Past {@link #MAX_COMPILED_TEMPLATES}
+     * distinct templates (e.g. generated ones) new templates are compiled per
+     * call instead of growing the cache.
+     */
+    private CompiledTemplate compileTemplate(String template) {
+        CompiledTemplate compiled = compiledTemplates.get(template);
+        if (compiled != null) {
+            return compiled;
+        }
+        compiled = CompiledTemplate.of(templateParser.parseExpression(template, TEMPLATE_CONTEXT), objectMapper);
+        if (compiledTemplates.size() < MAX_COMPILED_TEMPLATES) {
+            compiledTemplates.putIfAbsent(template, compiled);
+        }
+        return compiled;
     }
 
     /**
@@ -74,24 +99,4 @@ public class ExpressionEvaluator {
         context.setVariable(EXPR_VAR_CTX, ctx);
         return context;
     }
-
-    /**
-     * Converts any object to String safely
-     */
-    private String stringify(Object value) {
-        if (value == null) {
-            return "";
-        }
-        if (value instanceof String s) {
-            return s;
-        }
-
-        try {
-            // JSON for Map / List / POJO
-            return objectMapper.writeValueAsString(value);
-        } catch (Exception e) {
-            // Fallback to toString()
-            return String.valueOf(value);
-        }
-    }
-}
\ No newline at end of file
+}
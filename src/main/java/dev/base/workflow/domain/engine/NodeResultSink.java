@@ -0,0 +1,25 @@
+package dev.base.workflow.domain.engine;
+
+import dev.base.workflow.mongo.collection.NodeExecutionResult;
+
+/**
+ * Receives node results as the engine produces them, so a run never holds
+ * more than the sink chooses to buffer.
+ */
+@FunctionalInterface
+public interface NodeResultSink {
+
+    /**
+     * Sink that keeps nothing.
+     */
+    NodeResultSink DISCARD = result -> {
+    };
+
+    void accept(NodeExecutionResult result);
+
+    /**
+     * Write out anything buffered; called when the run ends, successfully or not.
+     */
+    default void flush() {
+    }
+}
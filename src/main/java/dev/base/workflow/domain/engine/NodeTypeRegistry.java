@@ -36,6 +36,10 @@ public class NodeTypeRegistry {
         return executor;
     }
 
+    public boolean isRegistered(String nodeType) {
+        return registry.containsKey(nodeType);
+    }
+
     public Map<String, NodeExecutor> getAll() {
         return Map.copyOf(registry);
     }
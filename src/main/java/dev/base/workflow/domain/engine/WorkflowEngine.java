@@ -1,13 +1,20 @@
 package dev.base.workflow.domain.engine;
 
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.domain.event.NodeCompletedEvent;
+import dev.base.workflow.exception.ExecutionBudgetExceededException;
+import dev.base.workflow.exception.ExecutionCancelledException;
 import dev.base.workflow.exception.WorkflowException;
+import dev.base.workflow.model.core.CancellationToken;
 import dev.base.workflow.model.core.Edge;
+import dev.base.workflow.model.core.ExecutionBudget;
 import dev.base.workflow.model.core.ExecutionContext;
 import dev.base.workflow.mongo.collection.NodeDefinition;
 import dev.base.workflow.mongo.collection.NodeExecutionResult;
 import dev.base.workflow.mongo.collection.WorkflowDefinition;
 import dev.base.workflow.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
@@ -21,10 +28,15 @@ public class WorkflowEngine {
 
     private final NodeTypeRegistry registry;
     private final ExpressionEvaluator evaluator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppConfig appConfig;
 
-    public WorkflowEngine(NodeTypeRegistry registry, ExpressionEvaluator evaluator) {
+    public WorkflowEngine(NodeTypeRegistry registry, ExpressionEvaluator evaluator,
+            ApplicationEventPublisher eventPublisher, AppConfig appConfig) {
         this.registry = registry;
         this.evaluator = evaluator;
+        this.eventPublisher = eventPublisher;
+        this.appConfig = appConfig;
     }
 
     public WorkflowRunResult run(WorkflowDefinition workflow, Object initialInput) {
@@ -32,32 +44,65 @@ public class WorkflowEngine {
     }
 
     public WorkflowRunResult run(WorkflowDefinition workflow, Object initialInput, String runId) {
-        Map<String, NodeDefinition> nodeMap = mapNodes(workflow.getNodes());
-        Map<String, List<Edge>> graph = mapEdges(workflow.getEdges());
-        ExecutionContext context = createExecutionContext(workflow, runId);
+        return run(workflow, initialInput, runId, null, new CancellationToken(), NodeResultSink.DISCARD);
+    }
+
+    /**
+     * Run the workflow, handing each node result to {@code resultSink} as
+     * soon as the node finishes. Stops with {@link ExecutionCancelledException}
+     * before the next node once {@code cancellationToken} is cancelled, or
+     * with {@link ExecutionBudgetExceededException} once the workflow's
+     * {@link ExecutionBudget} is used up. Callbacks registered through
+     * {@link ExecutionContext#onFinish} run when the run ends either way.
+     * Node results, and the events published for them, carry {@code executionId}.
+     */
+    public WorkflowRunResult run(WorkflowDefinition workflow, Object initialInput, String runId, String executionId,
+            CancellationToken cancellationToken, NodeResultSink resultSink) {
+        ExecutionContext context = createExecutionContext(workflow, initialInput, runId, cancellationToken);
+        boolean succeeded = false;
+        try {
+            WorkflowRunResult result = runNodes(workflow, initialInput, runId, executionId, context, resultSink);
+            succeeded = true;
+            return result;
+        } finally {
+            context.finish(succeeded);
+        }
+    }
+
+    private WorkflowRunResult runNodes(WorkflowDefinition workflow, Object initialInput, String runId,
+            String executionId, ExecutionContext context, NodeResultSink resultSink) {
+        CompiledWorkflow graph = CompiledWorkflow.compile(workflow);
+        BudgetTracker budget = new BudgetTracker(resolveBudget(workflow));
 
         Queue<ExecutionItem> queue = initializeQueue(workflow, initialInput);
         Object lastOutput = initialInput;
-        List<String> executedNodeIds = new ArrayList<>();
-        List<NodeExecutionResult> nodeResults = new ArrayList<>();
-
-        int safetyCounter = 0;
-        final int MAX_STEPS = 1000;
+        int trackedIds = appConfig.getNodeResults().getExecutedNodeIds();
+        Deque<String> executedNodeIds = new ArrayDeque<>(Math.min(trackedIds, 64));
+        int executedNodeCount = 0;
 
         while (!queue.isEmpty()) {
-            checkMaxSteps(++safetyCounter, MAX_STEPS);
+            context.getCancellationToken().throwIfCancelled();
+            budget.charge(queue.size());
 
             ExecutionItem item = queue.poll();
-            NodeDefinition node = nodeMap.get(item.nodeId);
+            NodeDefinition node = graph.getNode(item.nodeId);
 
             if (node == null)
                 continue;
 
-            executedNodeIds.add(node.getId());
+            executedNodeCount++;
+            if (trackedIds > 0) {
+                if (executedNodeIds.size() == trackedIds) {
+                    executedNodeIds.removeFirst();
+                }
+                executedNodeIds.addLast(node.getId());
+            }
             context.put(KEY_CURRENT_NODE_ID, node.getId());
 
-            NodeExecutionResult result = executeNodeWithMonitoring(node, item.executionData, context, runId);
-            nodeResults.add(result);
+            NodeExecutionResult result = executeNodeWithMonitoring(node, item.executionData, context, runId,
+                    executionId);
+            publishNodeCompleted(workflow, runId, result);
+            resultSink.accept(result);
 
             if (result.getStatus() == NodeExecutionResult.Status.SUCCESS) {
                 lastOutput = result.getExecutionDetails();
@@ -67,16 +112,20 @@ public class WorkflowEngine {
             }
         }
 
-        return new WorkflowRunResult(lastOutput, executedNodeIds, nodeResults);
+        return new WorkflowRunResult(lastOutput, new ArrayList<>(executedNodeIds), executedNodeCount);
     }
 
-    private ExecutionContext createExecutionContext(WorkflowDefinition workflow, String runId) {
-        ExecutionContext context = new ExecutionContext();
+    private ExecutionContext createExecutionContext(WorkflowDefinition workflow, Object initialInput, String runId,
+            CancellationToken cancellationToken) {
+        ExecutionContext context = new ExecutionContext(cancellationToken);
         context.put(KEY_WORKFLOW_ID, workflow.getId());
         context.put(KEY_WORKFLOW_NAME, workflow.getName());
         if (runId != null) {
             context.put(KEY_RUN_ID, runId);
         }
+        if (initialInput != null) {
+            context.put(KEY_TRIGGER_INPUT, initialInput);
+        }
         return context;
     }
 
@@ -88,39 +137,46 @@ public class WorkflowEngine {
         return queue;
     }
 
-    private void checkMaxSteps(int counter, int maxSteps) {
-        if (counter > maxSteps) {
-            throw new WorkflowException(
-                    StringUtils.format("Workflow execution exceeded max steps ({}). Possible infinite loop.",
-                            maxSteps));
-        }
+    private ExecutionBudget resolveBudget(WorkflowDefinition workflow) {
+        ExecutionBudget defaults = appConfig.getExecutionBudget();
+        return workflow.getBudget() != null ? workflow.getBudget().withDefaults(defaults) : defaults;
     }
 
     private NodeExecutionResult executeNodeWithMonitoring(NodeDefinition node, Object input, ExecutionContext context,
-            String runId) {
+            String runId, String executionId) {
         long startTime = System.currentTimeMillis();
         NodeExecutionResult result;
 
         try {
             result = executeNode(node, input, context);
+        } catch (ExecutionCancelledException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error executing node {}: {}", node.getId(), e.getMessage(), e);
             throw new WorkflowException(StringUtils.format("Error executing node {}: {}", node.getId(), e.getMessage()),
                     e);
         }
 
-        enrichResultWithMetrics(result, runId, input, startTime);
+        enrichResultWithMetrics(result, runId, executionId, startTime);
         return result;
     }
 
-    private void enrichResultWithMetrics(NodeExecutionResult result, String runId, Object input, long startTime) {
+    private void enrichResultWithMetrics(NodeExecutionResult result, String runId, String executionId,
+            long startTime) {
         result.setRunId(runId);
+        result.setExecutionId(executionId);
         result.setDuration(System.currentTimeMillis() - startTime);
         result.setCompletedAt(java.time.LocalDateTime.now());
         result.setStartedAt(result.getCompletedAt().minusNanos(result.getDuration() * 1000000));
     }
 
-    private void processSuccess(NodeExecutionResult result, NodeDefinition node, Map<String, List<Edge>> graph,
+    private void publishNodeCompleted(WorkflowDefinition workflow, String runId, NodeExecutionResult result) {
+        if (runId != null) {
+            eventPublisher.publishEvent(new NodeCompletedEvent(this, workflow.getId(), runId, result));
+        }
+    }
+
+    private void processSuccess(NodeExecutionResult result, NodeDefinition node, CompiledWorkflow graph,
             ExecutionContext context, Queue<ExecutionItem> queue) {
         List<String> nextNodes = result.getNextNodes();
         if (CollectionUtils.isEmpty(nextNodes)) {
@@ -132,20 +188,6 @@ public class WorkflowEngine {
         }
     }
 
-    private Map<String, NodeDefinition> mapNodes(List<NodeDefinition> nodes) {
-        Map<String, NodeDefinition> nodeMap = new HashMap<>();
-        for (NodeDefinition node : nodes)
-            nodeMap.put(node.getId(), node);
-        return nodeMap;
-    }
-
-    private Map<String, List<Edge>> mapEdges(List<Edge> edges) {
-        Map<String, List<Edge>> graph = new HashMap<>();
-        for (Edge e : edges)
-            graph.computeIfAbsent(e.getFrom(), k -> new ArrayList<>()).add(e);
-        return graph;
-    }
-
     private NodeExecutionResult executeNode(NodeDefinition node, Object input,
             ExecutionContext context) {
         var executor = registry.resolve(node.getNodeType());
@@ -153,9 +195,9 @@ public class WorkflowEngine {
         return executor.execute(node, input, context);
     }
 
-    private List<String> determineNextNodes(NodeDefinition node, Object data, Map<String, List<Edge>> graph,
+    private List<String> determineNextNodes(NodeDefinition node, Object data, CompiledWorkflow graph,
             ExecutionContext context) {
-        List<Edge> outgoing = graph.get(node.getId());
+        List<Edge> outgoing = graph.outgoing(node.getId());
         if (CollectionUtils.isEmpty(outgoing))
             return Collections.emptyList();
 
@@ -168,6 +210,36 @@ public class WorkflowEngine {
         return nextIds;
     }
 
+    /**
+     * Charges one step per node; limits are checked between nodes.
+     */
+    private static class BudgetTracker {
+        final ExecutionBudget budget;
+        final long startedAtNanos = System.nanoTime();
+        int steps;
+
+        BudgetTracker(ExecutionBudget budget) {
+            this.budget = budget;
+        }
+
+        void charge(int pendingNodes) {
+            if (++steps > budget.getMaxSteps()) {
+                throw exceeded("steps", budget.getMaxSteps());
+            }
+            if ((System.nanoTime() - startedAtNanos) / 1_000_000 > budget.getMaxDurationMs()) {
+                throw exceeded("duration ms", budget.getMaxDurationMs());
+            }
+            if (pendingNodes > budget.getMaxPendingNodes()) {
+                throw exceeded("pending nodes", budget.getMaxPendingNodes());
+            }
+        }
+
+        ExecutionBudgetExceededException exceeded(String limit, Object max) {
+            return new ExecutionBudgetExceededException(
+                    StringUtils.format("Workflow execution exceeded its budget of {} {}", max, limit));
+        }
+    }
+
     private static class ExecutionItem {
         String nodeId;
         Object executionData;
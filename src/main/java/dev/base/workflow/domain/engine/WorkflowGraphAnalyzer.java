@@ -0,0 +1,178 @@
+package dev.base.workflow.domain.engine;
+
+import dev.base.workflow.exception.InvalidWorkflowException;
+import dev.base.workflow.model.core.Edge;
+import dev.base.workflow.mongo.collection.NodeDefinition;
+import dev.base.workflow.mongo.collection.WorkflowDefinition;
+import dev.base.workflow.util.StringUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Static checks run when a workflow is saved.
+ *
+ * Reports nodes without an executor, edges to unknown nodes, nodes the start
+ * node cannot reach, and cycles that can never be left. Cycles are found as
+ * strongly connected components (Tarjan); a component is rejected when none
+ * of its internal edges carries a condition, since nothing can then break
+ * the loop. Conditional loops are allowed and bounded at runtime by the
+ * {@link dev.base.workflow.model.core.ExecutionBudget}.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkflowGraphAnalyzer {
+
+    private final NodeTypeRegistry registry;
+
+    /**
+     * @throws InvalidWorkflowException listing every problem found
+     */
+    public void validate(WorkflowDefinition workflow) {
+        List<String> problems = analyze(workflow);
+        if (!problems.isEmpty()) {
+            throw new InvalidWorkflowException(problems);
+        }
+    }
+
+    public List<String> analyze(WorkflowDefinition workflow) {
+        CompiledWorkflow graph = CompiledWorkflow.compile(workflow);
+        List<String> problems = new ArrayList<>();
+        checkExecutors(graph, problems);
+        graph.getDanglingEdges().forEach(edge -> problems.add(
+                StringUtils.format("Edge {} -> {} references an unknown node", edge.getFrom(), edge.getTo())));
+        checkReachability(graph, workflow.getStartNodeId(), problems);
+        for (List<Integer> component : stronglyConnectedComponents(graph)) {
+            if (isUnconditionalCycle(graph, component)) {
+                problems.add(StringUtils.format("Nodes {} form a cycle without any conditional edge",
+                        component.stream().map(index -> graph.nodeAt(index).getId()).toList()));
+            }
+        }
+        return problems;
+    }
+
+    private void checkExecutors(CompiledWorkflow graph, List<String> problems) {
+        for (int i = 0; i < graph.size(); i++) {
+            NodeDefinition node = graph.nodeAt(i);
+            if (node.getNodeType() == null || !registry.isRegistered(node.getNodeType())) {
+                problems.add(StringUtils.format("Node {} has no executor for type {}", node.getId(), node.getNodeType()));
+            }
+        }
+    }
+
+    private void checkReachability(CompiledWorkflow graph, String startNodeId, List<String> problems) {
+        if (startNodeId == null) {
+            return;
+        }
+        int start = graph.indexOf(startNodeId);
+        if (start < 0) {
+            problems.add(StringUtils.format("Start node {} does not exist", startNodeId));
+            return;
+        }
+        BitSet reached = reachableFrom(graph, start);
+        for (int i = reached.nextClearBit(0); i < graph.size(); i = reached.nextClearBit(i + 1)) {
+            problems.add(StringUtils.format("Node {} is unreachable from the start node", graph.nodeAt(i).getId()));
+        }
+    }
+
+    private BitSet reachableFrom(CompiledWorkflow graph, int start) {
+        BitSet reached = new BitSet(graph.size());
+        Deque<Integer> pending = new ArrayDeque<>(List.of(start));
+        reached.set(start);
+        while (!pending.isEmpty()) {
+            for (Edge edge : graph.outgoing(pending.pop())) {
+                int next = graph.indexOf(edge.getTo());
+                if (!reached.get(next)) {
+                    reached.set(next);
+                    pending.push(next);
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * A component is a cycle when it has several nodes or a self-loop.
+     */
+    private boolean isUnconditionalCycle(CompiledWorkflow graph, List<Integer> component) {
+        BitSet members = new BitSet(graph.size());
+        component.forEach(members::set);
+        boolean cyclic = component.size() > 1;
+        for (int index : component) {
+            for (Edge edge : graph.outgoing(index)) {
+                int target = graph.indexOf(edge.getTo());
+                if (members.get(target) && edge.getCondition() != null && !edge.getCondition().isBlank()) {
+                    return false;
+                }
+                cyclic |= target == index;
+            }
+        }
+        return cyclic;
+    }
+
+    private List<List<Integer>> stronglyConnectedComponents(CompiledWorkflow graph) {
+        Tarjan tarjan = new Tarjan(graph);
+        for (int i = 0; i < graph.size(); i++) {
+            if (tarjan.index[i] < 0) {
+                tarjan.visit(i);
+            }
+        }
+        return tarjan.components;
+    }
+
+    /**
+     * Recursive Tarjan; depth is bounded by the node count of a single workflow.
+     */
+    private static final class Tarjan {
+        final CompiledWorkflow graph;
+        final int[] index;
+        final int[] lowLink;
+        final BitSet onStack;
+        final Deque<Integer> stack = new ArrayDeque<>();
+        final List<List<Integer>> components = new ArrayList<>();
+        int counter;
+
+        Tarjan(CompiledWorkflow graph) {
+            this.graph = graph;
+            this.index = new int[graph.size()];
+            this.lowLink = new int[graph.size()];
+            this.onStack = new BitSet(graph.size());
+            Arrays.fill(index, -1);
+        }
+
+        void visit(int node) {
+            index[node] = lowLink[node] = counter++;
+            stack.push(node);
+            onStack.set(node);
+            for (Edge edge : graph.outgoing(node)) {
+                int next = graph.indexOf(edge.getTo());
+                if (index[next] < 0) {
+                    visit(next);
+                    lowLink[node] = Math.min(lowLink[node], lowLink[next]);
+                } else if (onStack.get(next)) {
+                    lowLink[node] = Math.min(lowLink[node], index[next]);
+                }
+            }
+            if (lowLink[node] == index[node]) {
+                popComponent(node);
+            }
+        }
+
+        void popComponent(int root) {
+            List<Integer> component = new ArrayList<>();
+            int member;
+            do {
+                member = stack.pop();
+                onStack.clear(member);
+                component.add(member);
+            } while (member != root);
+            components.add(component);
+        }
+    }
+}
@@ -6,11 +6,16 @@ import lombok.NoArgsConstructor;
 
 import java.util.List;
 
+/**
+ * Output of a run. {@code executedNodeIds} holds only the most recent node
+ * ids (see {@code app.node-results.executed-node-ids}); {@code executedNodeCount}
+ * counts every step.
+ */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class WorkflowRunResult {
     private Object output;
     private List<String> executedNodeIds;
-    private List<dev.base.workflow.mongo.collection.NodeExecutionResult> nodeResults;
+    private int executedNodeCount;
 }
@@ -0,0 +1,20 @@
+package dev.base.workflow.domain.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * Published when the set of live instances changes (or this instance loses
+ * its lease), so trigger ownership can be rebalanced.
+ */
+@Getter
+public class ClusterMembershipChangedEvent extends ApplicationEvent {
+    private final Set<String> members;
+
+    public ClusterMembershipChangedEvent(Object source, Set<String> members) {
+        super(source);
+        this.members = members;
+    }
+}
@@ -0,0 +1,22 @@
+package dev.base.workflow.domain.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * All cron fires that came due in the same engine tick, published together.
+ */
+@Getter
+public class CronBatchEvent extends ApplicationEvent {
+    private final List<CronFire> fires;
+
+    public CronBatchEvent(Object source, List<CronFire> fires) {
+        super(source);
+        this.fires = fires;
+    }
+
+    public record CronFire(String workflowId, String runId, long scheduledAtMs) {
+    }
+}
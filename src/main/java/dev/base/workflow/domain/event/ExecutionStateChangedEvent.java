@@ -0,0 +1,30 @@
+package dev.base.workflow.domain.event;
+
+import dev.base.workflow.model.core.ExecutionStatus;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published whenever a WorkflowExecution record changes status.
+ */
+@Getter
+public class ExecutionStateChangedEvent extends ApplicationEvent {
+    private final String workflowId;
+    private final String runId;
+    private final String executionId;
+    private final ExecutionStatus status;
+    private final String error;
+    // Wall time of a finished execution; null while it is running
+    private final Long durationMs;
+
+    public ExecutionStateChangedEvent(Object source, String workflowId, String runId, String executionId,
+            ExecutionStatus status, String error, Long durationMs) {
+        super(source);
+        this.workflowId = workflowId;
+        this.runId = runId;
+        this.executionId = executionId;
+        this.status = status;
+        this.error = error;
+        this.durationMs = durationMs;
+    }
+}
@@ -0,0 +1,22 @@
+package dev.base.workflow.domain.event;
+
+import dev.base.workflow.mongo.collection.NodeExecutionResult;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by the engine as soon as a node finishes, before the run ends.
+ */
+@Getter
+public class NodeCompletedEvent extends ApplicationEvent {
+    private final String workflowId;
+    private final String runId;
+    private final NodeExecutionResult result;
+
+    public NodeCompletedEvent(Object source, String workflowId, String runId, NodeExecutionResult result) {
+        super(source);
+        this.workflowId = workflowId;
+        this.runId = runId;
+        this.result = result;
+    }
+}
@@ -1,35 +1,92 @@
 package dev.base.workflow.domain.event;
 
-import dev.base.workflow.service.WorkflowService;
+import dev.base.workflow.service.cluster.ClusterMembershipService;
+import dev.base.workflow.service.execution.dispatch.DispatchTask;
+import dev.base.workflow.service.execution.dispatch.ExecutionDispatcher;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hands trigger events to the {@link ExecutionDispatcher} so the publishing
+ * thread (cron scheduler, Kafka poll loop) never runs a workflow inline.
+ *
+ * Cron fires are submitted from virtual threads: admission may wait for
+ * queue space (BLOCK policy) or touch Mongo (dedup, distributed queue), and
+ * the single cron engine thread must keep firing other schedules meanwhile.
+ * A fire is dropped while the previous fire of the same workflow is still
+ * waiting to be admitted, like a misfire, and when this instance no longer
+ * owns the workflow (e.g. its lease lapsed before the schedule was removed).
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class WorkflowEventListener {
 
-    private final WorkflowService workflowService;
+    private final ExecutionDispatcher dispatcher;
+    private final ClusterMembershipService membershipService;
+
+    private final ExecutorService cronHandoffExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> admittingCronFires = ConcurrentHashMap.newKeySet();
 
     @EventListener
-    public void handleScheduledEvent(WorkflowScheduledEvent event) {
-        log.info("Received scheduled event for workflow: {} with runId: {}", event.getWorkflowId(), event.getRunId());
-        try {
-            workflowService.executeWorkflowWithRun(event.getWorkflowId(), null, event.getRunId());
-        } catch (Exception e) {
-            log.error("Failed to execute scheduled workflow: {}", event.getWorkflowId(), e);
+    public void handleCronBatch(CronBatchEvent event) {
+        log.debug("Received {} cron fires", event.getFires().size());
+        for (CronBatchEvent.CronFire fire : event.getFires()) {
+            if (!membershipService.isOwner(fire.workflowId())) {
+                log.warn("Skipping cron fire for workflow {}: not owned by this instance", fire.workflowId());
+                continue;
+            }
+            if (!admittingCronFires.add(fire.workflowId())) {
+                log.warn("Skipping cron fire for workflow {}: previous fire still waiting for the dispatcher",
+                        fire.workflowId());
+                continue;
+            }
+            DispatchTask task = DispatchTask.builder()
+                    .workflowId(fire.workflowId())
+                    .runId(fire.runId())
+                    .build();
+            cronHandoffExecutor.execute(() -> {
+                try {
+                    submit(task);
+                } finally {
+                    admittingCronFires.remove(fire.workflowId());
+                }
+            });
         }
     }
 
     @EventListener
     public void handleTriggerEvent(WorkflowTriggerEvent event) {
         log.info("Received trigger event for workflow: {} type: {}", event.getWorkflowId(), event.getTriggerType());
+        submit(DispatchTask.builder()
+                .workflowId(event.getWorkflowId())
+                .input(event.getInput())
+                .triggerType(event.getTriggerType())
+                .idempotencyKey(event.getIdempotencyKey())
+                .pinned(event.isPinned())
+                .completion(event.getCompletion())
+                .build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cronHandoffExecutor.shutdownNow();
+    }
+
+    private void submit(DispatchTask task) {
         try {
-            workflowService.executeWorkflowByTrigger(event.getWorkflowId(), event.getInput(), event.getTriggerType());
+            dispatcher.submit(task);
         } catch (Exception e) {
-            log.error("Failed to execute triggered workflow: {}", event.getWorkflowId(), e);
+            log.error("Failed to dispatch workflow: {}", task.getWorkflowId(), e);
+            task.getCompletion().completeExceptionally(e);
         }
     }
 }
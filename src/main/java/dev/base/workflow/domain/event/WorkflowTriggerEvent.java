@@ -4,16 +4,37 @@ import dev.base.workflow.mongo.collection.WorkflowRun;
 import lombok.Getter;
 import org.springframework.context.ApplicationEvent;
 
+import java.util.concurrent.CompletableFuture;
+
 @Getter
 public class WorkflowTriggerEvent extends ApplicationEvent {
     private final String workflowId;
     private final Object input;
     private final WorkflowRun.TriggerType triggerType;
 
+    /** Overrides the dedup key derived from the input (e.g. for retries of the same record). */
+    private final String idempotencyKey;
+
+    /**
+     * Run on this instance, skipping dedup and the distributed queue, and
+     * complete only once the execution has finished (exactly-once triggers).
+     */
+    private final boolean pinned;
+
+    /** Completed by the dispatcher once the triggered execution is done (or spilled/rejected). */
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
     public WorkflowTriggerEvent(Object source, String workflowId, Object input, WorkflowRun.TriggerType triggerType) {
+        this(source, workflowId, input, triggerType, null, false);
+    }
+
+    public WorkflowTriggerEvent(Object source, String workflowId, Object input, WorkflowRun.TriggerType triggerType,
+                                String idempotencyKey, boolean pinned) {
         super(source);
         this.workflowId = workflowId;
         this.input = input;
         this.triggerType = triggerType;
+        this.idempotencyKey = idempotencyKey;
+        this.pinned = pinned;
     }
 }
@@ -0,0 +1,51 @@
+package dev.base.workflow.domain.executor.controlflow;
+
+import dev.base.workflow.domain.engine.NodeExecutor;
+import dev.base.workflow.model.core.ExecutionContext;
+import dev.base.workflow.model.nodetype.ControlFlowNodeType;
+import dev.base.workflow.model.nodetype.NodeType;
+import dev.base.workflow.mongo.collection.NodeDefinition;
+import dev.base.workflow.mongo.collection.NodeExecutionResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static dev.base.workflow.constant.WorkflowConstants.CFG_DELAY_MS;
+import static dev.base.workflow.constant.WorkflowErrorConstants.ERR_DELAY_MS_INVALID;
+
+/**
+ * Pauses the execution for {@code delayMs} and passes its input through.
+ * The wait ends early when the execution is cancelled.
+ */
+@Component
+@Slf4j
+public class DelayExecutor implements NodeExecutor {
+
+    @Override
+    public NodeType getSupportedNodeType() {
+        return ControlFlowNodeType.DELAY;
+    }
+
+    @Override
+    public void validate(NodeDefinition node) {
+        Map<String, Object> config = node.getConfig();
+        if (config == null || !(config.get(CFG_DELAY_MS) instanceof Number delay) || delay.longValue() < 0) {
+            throw new IllegalArgumentException(ERR_DELAY_MS_INVALID);
+        }
+    }
+
+    @Override
+    public NodeExecutionResult execute(NodeDefinition node, Object input, ExecutionContext ctx) {
+        long delayMs = ((Number) node.getConfig().get(CFG_DELAY_MS)).longValue();
+        log.debug("Delaying node {} for {} ms", node.getId(), delayMs);
+        ctx.getCancellationToken().sleep(Duration.ofMillis(delayMs));
+        return NodeExecutionResult.success(node.getId(), input);
+    }
+
+    @Override
+    public Map<String, Object> getDefaultConfig() {
+        return Map.of(CFG_DELAY_MS, 1000);
+    }
+}
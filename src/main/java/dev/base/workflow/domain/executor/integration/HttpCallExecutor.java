@@ -1,6 +1,7 @@
 package dev.base.workflow.domain.executor.integration;
 
 import dev.base.workflow.domain.engine.NodeExecutor;
+import dev.base.workflow.exception.ExecutionCancelledException;
 import dev.base.workflow.model.core.ExecutionContext;
 import dev.base.workflow.model.node.details.HttpExecutionDetails;
 import dev.base.workflow.model.nodetype.IntegrationNodeType;
@@ -16,6 +17,8 @@ import org.springframework.web.client.RestClient;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static dev.base.workflow.constant.WorkflowConstants.*;
 
@@ -28,6 +31,7 @@ import static dev.base.workflow.constant.WorkflowConstants.*;
 public class HttpCallExecutor implements NodeExecutor {
 
     private final RestClient restClient;
+    private final ExecutorService requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     public HttpCallExecutor(RestClient.Builder restClientBuilder) {
         this.restClient = restClientBuilder
@@ -62,7 +66,9 @@ public class HttpCallExecutor implements NodeExecutor {
 
         try {
             Map<String, String> requestHeaders = extractHeaders(config);
-            String responseBody = performRequest(url, method, body, config);
+            // Run on its own thread so cancellation can abandon (and interrupt) a blocked request
+            String responseBody = ctx.getCancellationToken().await(
+                    requestExecutor.submit(() -> performRequest(url, method, body, config)));
 
             return NodeExecutionResult.success(node.getId(), HttpExecutionDetails.builder()
                     .status(200) // Placeholder
@@ -73,6 +79,8 @@ public class HttpCallExecutor implements NodeExecutor {
                     .response(responseBody)
                     .build());
 
+        } catch (ExecutionCancelledException e) {
+            throw e;
         } catch (Exception e) {
             log.error("HTTP request failed", e);
             return NodeExecutionResult.success(node.getId(), HttpExecutionDetails.builder()
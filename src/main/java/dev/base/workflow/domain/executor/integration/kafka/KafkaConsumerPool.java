@@ -0,0 +1,138 @@
+package dev.base.workflow.domain.executor.integration.kafka;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.model.core.ExecutionContext;
+import dev.base.workflow.util.StringUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static dev.base.workflow.constant.KafkaConstants.*;
+
+/**
+ * Long-lived consumers for CONSUMER-mode Kafka nodes, one per
+ * (cluster, group, topic).
+ *
+ * A consumer joins its group once and stays assigned between executions, so
+ * a node costs one fetch instead of a group join and rebalance. While idle,
+ * a consumer is polled with its partitions paused to keep its membership.
+ * A workflow run leases the consumer until the run ends; offsets are then
+ * committed on success or rewound on failure (see {@link PooledConsumer}).
+ * Consumers idle longer than {@code idle-timeout-ms} are closed, and at
+ * {@code max-consumers} the least recently used idle one makes room.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaConsumerPool {
+
+    private final KafkaPropertiesBuilder propertiesBuilder;
+    private final AppConfig appConfig;
+
+    private final Map<String, PooledConsumer> consumers = new ConcurrentHashMap<>();
+
+    /**
+     * Lease the consumer for the node's cluster, group and topic until the
+     * run ends. Empty if another run still holds it after {@code timeout}.
+     */
+    Optional<PooledConsumer> acquire(Map<String, Object> config, String group, String topic, int maxRecords,
+            ExecutionContext context, Duration timeout) throws InterruptedException {
+        String key = StringUtils.concat(config.get(CFG_BOOTSTRAP_SERVERS), POOL_KEY_SEPARATOR, group,
+                POOL_KEY_SEPARATOR, topic);
+        while (true) {
+            if (!consumers.containsKey(key)) {
+                ensureCapacity();
+            }
+            PooledConsumer pooled = consumers.computeIfAbsent(key, k -> create(config, group, topic, maxRecords));
+            if (pooled.isHeldBy(context)) {
+                return Optional.of(pooled);
+            }
+            if (!pooled.tryLease(context, timeout)) {
+                return Optional.empty();
+            }
+            if (!pooled.isClosed()) {
+                context.onFinish(pooled::endLease);
+                return Optional.of(pooled);
+            }
+            // Evicted while we waited; the next pass creates a fresh consumer
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.kafka-consumer-pool.keep-alive-interval-ms}")
+    public void maintain() {
+        long idleTimeoutMs = appConfig.getKafkaConsumerPool().getIdleTimeoutMs();
+        consumers.forEach((key, pooled) -> {
+            if (!pooled.tryLeaseIdle()) {
+                return;
+            }
+            try {
+                if (System.currentTimeMillis() - pooled.getLastUsedAtMs() > idleTimeoutMs) {
+                    evict(key, pooled);
+                } else {
+                    pooled.keepAlive();
+                }
+            } catch (WakeupException e) {
+                // Left over from a cancelled run; the next poll proceeds normally
+            } catch (Exception e) {
+                log.warn("Keep-alive failed for pooled consumer {}, closing it", key, e);
+                evict(key, pooled);
+            } finally {
+                pooled.releaseIdle();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        consumers.forEach(this::evict);
+    }
+
+    private PooledConsumer create(Map<String, Object> config, String group, String topic, int maxRecords) {
+        Properties properties = propertiesBuilder.buildConsumerProperties(config, group);
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.max(1, maxRecords));
+        log.info("Opening pooled Kafka consumer for topic {} in group {}", topic, group);
+        return new PooledConsumer(new KafkaConsumer<>(properties), topic);
+    }
+
+    /**
+     * Close the least recently used idle consumer when the pool is full.
+     */
+    private void ensureCapacity() {
+        if (consumers.size() < appConfig.getKafkaConsumerPool().getMaxConsumers()) {
+            return;
+        }
+        consumers.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().getLastUsedAtMs()))
+                .filter(entry -> entry.getValue().tryLeaseIdle())
+                .findFirst()
+                .ifPresent(entry -> {
+                    evict(entry.getKey(), entry.getValue());
+                    entry.getValue().releaseIdle();
+                });
+    }
+
+    /**
+     * Caller holds the consumer's lease, or the pool is shutting down.
+     */
+    private void evict(String key, PooledConsumer pooled) {
+        consumers.remove(key, pooled);
+        try {
+            pooled.close(Duration.ofMillis(appConfig.getKafkaConsumerPool().getCloseTimeoutMs()));
+            log.info("Closed pooled Kafka consumer {}", key);
+        } catch (Exception e) {
+            log.warn("Failed to close pooled Kafka consumer {}", key, e);
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package dev.base.workflow.domain.executor.integration.kafka;
 
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.exception.ExecutionCancelledException;
+import dev.base.workflow.model.core.CancellationToken;
+import dev.base.workflow.model.core.ExecutionContext;
 import dev.base.workflow.mongo.collection.NodeDefinition;
 import dev.base.workflow.mongo.collection.NodeExecutionResult;
 import dev.base.workflow.util.StringUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.WakeupException;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
-import java.util.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static dev.base.workflow.constant.KafkaConstants.*;
 import static dev.base.workflow.constant.WorkflowConstants.*;
@@ -20,63 +25,92 @@ import static dev.base.workflow.constant.WorkflowErrorConstants.ERR_KAFKA_TOPIC_
 /**
  * Handles Kafka Consumer operations.
  * Single Responsibility: Only handles message consumption from Kafka topics.
+ *
+ * Consumers come from the {@link KafkaConsumerPool}; without an explicit
+ * group a node gets a stable group derived from its workflow and node id,
+ * so it resumes from its committed offsets. Offsets are committed only
+ * after the workflow run succeeds.
  */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class KafkaConsumerService {
 
-    private final KafkaPropertiesBuilder propertiesBuilder;
+    private final KafkaConsumerPool consumerPool;
+    private final AppConfig appConfig;
 
     /**
      * Consumes messages from a Kafka topic.
      *
      * @param node   The node definition
      * @param config Kafka configuration
+     * @param ctx    Execution context; cancelling it wakes up a pending poll
      * @return NodeExecutionResult with consumed messages
      */
-    public NodeExecutionResult consume(NodeDefinition node, Map<String, Object> config) {
+    public NodeExecutionResult consume(NodeDefinition node, Map<String, Object> config, ExecutionContext ctx) {
         String topic = (String) config.get(CFG_TOPIC);
         if (topic == null || topic.isBlank()) {
             throw new IllegalArgumentException(ERR_KAFKA_TOPIC_CONSUMER);
         }
+        Duration pollTimeout = Duration.ofMillis(intConfig(config, CFG_POLL_TIMEOUT_MS, DEFAULT_POLL_TIMEOUT_MS));
+        int maxRecords = intConfig(config, CFG_MAX_RECORDS, appConfig.getKafkaConsumerPool().getDefaultMaxRecords());
+        long maxBytes = intConfig(config, CFG_MAX_BYTES, appConfig.getKafkaConsumerPool().getDefaultMaxBytes());
 
-        String consumerGroup = (String) config.getOrDefault(CFG_CONSUMER_GROUP,
-                StringUtils.concat("workflow-consumer-", UUID.randomUUID()));
-        int pollTimeout = config.containsKey(CFG_POLL_TIMEOUT_MS)
-                ? ((Number) config.get(CFG_POLL_TIMEOUT_MS)).intValue()
-                : 5000;
-
-        Properties properties = propertiesBuilder.buildConsumerProperties(config, consumerGroup);
-
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(properties)) {
-            consumer.subscribe(Collections.singletonList(topic));
-
-            log.info("Polling Kafka topic: {} for {} ms", topic, pollTimeout);
-
-            ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(pollTimeout));
-
-            List<Map<String, Object>> messages = new ArrayList<>();
-            for (ConsumerRecord<String, String> record : records) {
-                messages.add(Map.of(
-                        CFG_KEY, record.key() != null ? record.key() : "",
-                        CFG_VALUE, record.value(),
-                        KEY_PARTITION, record.partition(),
-                        KEY_OFFSET, record.offset(),
-                        KEY_TIMESTAMP, record.timestamp()));
-            }
-
+        try {
+            Optional<PooledConsumer> consumer = consumerPool.acquire(config, consumerGroup(node, config, ctx), topic,
+                    maxRecords, ctx, pollTimeout);
+            List<Map<String, Object>> messages = consumer.isPresent()
+                    ? poll(consumer.get(), topic, pollTimeout, maxRecords, maxBytes, ctx)
+                    : List.of();
             log.info("Consumed {} messages from Kafka topic: {}", messages.size(), topic);
-
             return NodeExecutionResult.success(node.getId(), Map.of(
                     KEY_STATUS, "consumed",
                     CFG_TOPIC, topic,
                     KEY_MESSAGE_COUNT, messages.size(),
                     KEY_MESSAGES, messages));
-
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionCancelledException(e.getMessage());
+        } catch (ExecutionCancelledException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to consume from Kafka", e);
             throw new RuntimeException(StringUtils.concat("Failed to consume from Kafka: ", e.getMessage()), e);
         }
     }
+
+    private List<Map<String, Object>> poll(PooledConsumer consumer, String topic, Duration timeout, int maxRecords,
+            long maxBytes, ExecutionContext ctx) {
+        log.info("Polling Kafka topic: {} for up to {} ms", topic, timeout.toMillis());
+        CancellationToken.Registration registration = ctx.getCancellationToken().onCancel(consumer::wakeup);
+        try {
+            return consumer.poll(timeout, maxRecords, maxBytes).stream().map(this::toMessage).toList();
+        } catch (WakeupException e) {
+            ctx.getCancellationToken().throwIfCancelled();
+            // A wakeup left over from an earlier cancelled run
+            return List.of();
+        } finally {
+            registration.close();
+        }
+    }
+
+    private Map<String, Object> toMessage(ConsumerRecord<String, String> record) {
+        return Map.of(
+                CFG_KEY, record.key() != null ? record.key() : "",
+                CFG_VALUE, record.value(),
+                KEY_PARTITION, record.partition(),
+                KEY_OFFSET, record.offset(),
+                KEY_TIMESTAMP, record.timestamp());
+    }
+
+    private String consumerGroup(NodeDefinition node, Map<String, Object> config, ExecutionContext ctx) {
+        String group = (String) config.get(CFG_CONSUMER_GROUP);
+        return group != null && !group.isBlank()
+                ? group
+                : StringUtils.concat(CONSUMER_GROUP_PREFIX, ctx.get(KEY_WORKFLOW_ID), "-", node.getId());
+    }
+
+    private int intConfig(Map<String, Object> config, String key, int defaultValue) {
+        return config.get(key) instanceof Number value ? value.intValue() : defaultValue;
+    }
 }
@@ -1,5 +1,6 @@
 package dev.base.workflow.domain.executor.integration.kafka;
 
+import dev.base.workflow.config.AppConfig;
 import dev.base.workflow.domain.engine.NodeExecutor;
 import dev.base.workflow.model.core.ExecutionContext;
 import dev.base.workflow.model.nodetype.IntegrationNodeType;
@@ -38,6 +39,7 @@ public class KafkaExecutor implements NodeExecutor {
 
     private final KafkaProducerService producerService;
     private final KafkaConsumerService consumerService;
+    private final AppConfig appConfig;
 
     @Override
     public NodeType getSupportedNodeType() {
@@ -58,7 +60,7 @@ public class KafkaExecutor implements NodeExecutor {
 
         return switch (mode.toUpperCase()) {
             case MODE_PRODUCER -> producerService.produce(node, input, config, ctx);
-            case MODE_CONSUMER -> consumerService.consume(node, config);
+            case MODE_CONSUMER -> consumerService.consume(node, config, ctx);
             default ->
                 throw new IllegalArgumentException(
                         StringUtils.concat("Invalid Kafka mode: ", mode, ". Must be PRODUCER or CONSUMER"));
@@ -73,8 +75,10 @@ public class KafkaExecutor implements NodeExecutor {
                 CFG_KAFKA_MODE, MODE_PRODUCER,
                 CFG_TOPIC, "",
                 CFG_MESSAGE_TEMPLATE, "{}",
-                CFG_CONSUMER_GROUP, "workflow-consumer-group",
-                CFG_POLL_TIMEOUT_MS, 5000);
+                CFG_CONSUMER_GROUP, "",
+                CFG_POLL_TIMEOUT_MS, DEFAULT_POLL_TIMEOUT_MS,
+                CFG_MAX_RECORDS, appConfig.getKafkaConsumerPool().getDefaultMaxRecords(),
+                CFG_MAX_BYTES, appConfig.getKafkaConsumerPool().getDefaultMaxBytes());
     }
 
     @Override
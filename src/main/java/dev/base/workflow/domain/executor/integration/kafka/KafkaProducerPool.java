@@ -0,0 +1,74 @@
+package dev.base.workflow.domain.executor.integration.kafka;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.util.HashUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared producers, one per distinct set of producer properties.
+ *
+ * {@link KafkaProducer} is thread-safe and batches sends from all callers,
+ * so reusing one per cluster avoids a connection handshake and metadata
+ * fetch on every message.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaProducerPool {
+
+    private final KafkaPropertiesBuilder propertiesBuilder;
+    private final AppConfig appConfig;
+
+    private final Map<String, KafkaProducer<String, String>> producers = new ConcurrentHashMap<>();
+
+    public KafkaProducer<String, String> producerFor(Map<String, Object> config) {
+        Properties properties = propertiesBuilder.buildProducerProperties(config);
+        return producers.computeIfAbsent(keyOf(properties), key -> create(properties));
+    }
+
+    /**
+     * Close and forget the producer for this config, e.g. after a fatal error.
+     */
+    public void evict(Map<String, Object> config) {
+        KafkaProducer<String, String> producer = producers.remove(keyOf(propertiesBuilder.buildProducerProperties(config)));
+        if (producer != null) {
+            close(producer);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Closing {} pooled Kafka producers", producers.size());
+        producers.values().forEach(this::close);
+        producers.clear();
+    }
+
+    private KafkaProducer<String, String> create(Properties properties) {
+        log.info("Creating pooled Kafka producer for: {}", properties.get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
+        return new KafkaProducer<>(properties);
+    }
+
+    private String keyOf(Properties properties) {
+        return HashUtils.sha256Hex(new TreeMap<>(properties).toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void close(KafkaProducer<String, String> producer) {
+        try {
+            producer.close(Duration.ofMillis(appConfig.getKafkaTriggers().getProducerCloseTimeoutMs()));
+        } catch (Exception e) {
+            log.warn("Failed to close pooled Kafka producer", e);
+        }
+    }
+}
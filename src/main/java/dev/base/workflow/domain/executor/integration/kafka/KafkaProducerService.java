@@ -1,6 +1,7 @@
 package dev.base.workflow.domain.executor.integration.kafka;
 
 import dev.base.workflow.domain.engine.ExpressionEvaluator;
+import dev.base.workflow.exception.ExecutionCancelledException;
 import dev.base.workflow.model.core.ExecutionContext;
 import dev.base.workflow.mongo.collection.NodeDefinition;
 import dev.base.workflow.mongo.collection.NodeExecutionResult;
@@ -12,10 +13,10 @@ import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.Map;
-import java.util.Properties;
+import java.util.Optional;
 import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 
 import static dev.base.workflow.constant.KafkaConstants.*;
 import static dev.base.workflow.constant.WorkflowConstants.KEY_STATUS;
@@ -25,13 +26,18 @@ import static dev.base.workflow.constant.WorkflowErrorConstants.ERR_KAFKA_TOPIC_
  * Handles Kafka Producer operations.
  * Single Responsibility: Only handles message production to Kafka topics.
  * Supports expression evaluation in message body using ${...} syntax.
+ * Producers are pooled; runs started by an exactly-once Kafka trigger
+ * produce inside the trigger record's transaction.
  */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class KafkaProducerService {
 
-    private final KafkaPropertiesBuilder propertiesBuilder;
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(10);
+
+    private final KafkaProducerPool producerPool;
+    private final KafkaTransactionManager transactionManager;
     private final ExpressionEvaluator evaluator;
 
     /**
@@ -63,9 +69,8 @@ public class KafkaProducerService {
         String message = evaluator.parseTemplate(messageTemplate, input, ctx);
         log.debug("Kafka message after expression evaluation: {}", message);
 
-        Properties props = propertiesBuilder.buildProducerProperties(config);
-
-        try (KafkaProducer<String, String> producer = new KafkaProducer<>(props)) {
+        try {
+            KafkaProducer<String, String> producer = producerFor(config, ctx);
             ProducerRecord<String, String> record = new ProducerRecord<>(topic, message);
 
             // Optional: message key for partitioning
@@ -75,7 +80,7 @@ public class KafkaProducerService {
             }
 
             Future<RecordMetadata> future = producer.send(record);
-            RecordMetadata metadata = future.get(10, TimeUnit.SECONDS);
+            RecordMetadata metadata = ctx.getCancellationToken().await(future, SEND_TIMEOUT);
 
             log.info("Kafka message sent to topic: {} partition: {} offset: {}",
                     metadata.topic(), metadata.partition(), metadata.offset());
@@ -87,9 +92,28 @@ public class KafkaProducerService {
                     KEY_OFFSET, metadata.offset(),
                     KEY_TIMESTAMP, metadata.timestamp()));
 
+        } catch (ExecutionCancelledException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to send Kafka message", e);
             throw new RuntimeException(StringUtils.concat("Failed to produce message to Kafka: ", e.getMessage()), e);
         }
     }
+
+    /**
+     * Executions of an exactly-once trigger send through the trigger record's
+     * transaction, so the output commits together with the record's offset.
+     */
+    private KafkaProducer<String, String> producerFor(Map<String, Object> config, ExecutionContext ctx) {
+        Optional<KafkaTransaction> transaction = transactionManager.current(ctx);
+        if (transaction.isEmpty()) {
+            return producerPool.producerFor(config);
+        }
+        String bootstrapServers = (String) config.getOrDefault(CFG_BOOTSTRAP_SERVERS, DEFAULT_BOOTSTRAP_SERVERS);
+        if (!transaction.get().bootstrapServers().equals(bootstrapServers)) {
+            throw new IllegalStateException(StringUtils.concat("Exactly-once output must go to the trigger's cluster ",
+                    transaction.get().bootstrapServers(), ", not ", bootstrapServers));
+        }
+        return transaction.get().producer();
+    }
 }
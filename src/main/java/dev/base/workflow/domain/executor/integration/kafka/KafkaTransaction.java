@@ -0,0 +1,16 @@
+package dev.base.workflow.domain.executor.integration.kafka;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * An open Kafka transaction bound to one trigger record: output sent through
+ * {@code producer} becomes visible together with the commit of
+ * {@code source}/{@code offset}, or not at all.
+ *
+ * @param id              handle passed to the execution in the trigger input
+ * @param bootstrapServers cluster the producer writes to
+ */
+public record KafkaTransaction(String id, KafkaProducer<String, String> producer, String bootstrapServers,
+                               TopicPartition source, long offset) {
+}
@@ -0,0 +1,146 @@
+package dev.base.workflow.domain.executor.integration.kafka;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.model.core.ExecutionContext;
+import dev.base.workflow.util.StringUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static dev.base.workflow.constant.KafkaConstants.*;
+import static dev.base.workflow.constant.WorkflowConstants.KEY_TRIGGER_INPUT;
+
+/**
+ * Transactional producers for exactly-once Kafka triggers.
+ *
+ * Every source partition of a trigger group gets its own producer with a
+ * {@code transactional.id} derived from (group, topic, partition). When the
+ * partition moves to another instance, the new owner's
+ * {@code initTransactions} fences this producer, so a zombie can no longer
+ * commit output or offsets for it. A transaction spans one trigger record:
+ * the workflow's Kafka output and the record's offset commit together.
+ * Executions find their transaction through the {@code transactionId} in
+ * the trigger input.
+ *
+ * Callers must not begin a second transaction on a partition before the
+ * first one is committed or aborted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaTransactionManager {
+
+    private final KafkaPropertiesBuilder propertiesBuilder;
+    private final AppConfig appConfig;
+
+    private final Map<String, KafkaProducer<String, String>> producers = new ConcurrentHashMap<>();
+    private final Map<String, KafkaTransaction> open = new ConcurrentHashMap<>();
+
+    public KafkaTransaction begin(Map<String, Object> config, String groupId, TopicPartition source, long offset) {
+        String bootstrapServers = (String) config.getOrDefault(CFG_BOOTSTRAP_SERVERS, DEFAULT_BOOTSTRAP_SERVERS);
+        String transactionalId = StringUtils.concat(TRANSACTIONAL_ID_PREFIX, groupId, POOL_KEY_SEPARATOR,
+                source.topic(), POOL_KEY_SEPARATOR, source.partition());
+        String producerKey = StringUtils.concat(bootstrapServers, POOL_KEY_SEPARATOR, transactionalId);
+        KafkaProducer<String, String> producer = producers.computeIfAbsent(producerKey,
+                key -> create(config, transactionalId));
+        try {
+            producer.beginTransaction();
+        } catch (RuntimeException e) {
+            evict(producerKey, producer);
+            throw e;
+        }
+        KafkaTransaction transaction = new KafkaTransaction(UUID.randomUUID().toString(), producer,
+                bootstrapServers, source, offset);
+        open.put(transaction.id(), transaction);
+        return transaction;
+    }
+
+    /**
+     * The transaction of the trigger record this execution was started for, if any.
+     */
+    public Optional<KafkaTransaction> current(ExecutionContext ctx) {
+        if (!(ctx.get(KEY_TRIGGER_INPUT) instanceof Map<?, ?> input) || input.get(KEY_TRANSACTION_ID) == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(open.get(input.get(KEY_TRANSACTION_ID).toString()));
+    }
+
+    /**
+     * Commit the transaction's output together with the offset after the source record.
+     */
+    public void commit(KafkaTransaction transaction, ConsumerGroupMetadata groupMetadata) {
+        try {
+            transaction.producer().sendOffsetsToTransaction(
+                    Map.of(transaction.source(), new OffsetAndMetadata(transaction.offset() + 1)), groupMetadata);
+            transaction.producer().commitTransaction();
+            open.remove(transaction.id());
+        } catch (RuntimeException e) {
+            abort(transaction);
+            throw e;
+        }
+    }
+
+    /**
+     * Discard the transaction's output. A producer that cannot abort (fenced,
+     * or in a fatal state) is closed and recreated on next use.
+     */
+    public void abort(KafkaTransaction transaction) {
+        open.remove(transaction.id());
+        try {
+            transaction.producer().abortTransaction();
+        } catch (Exception e) {
+            log.warn("Could not abort Kafka transaction on {}, discarding its producer", transaction.source(), e);
+            producers.entrySet().removeIf(entry -> entry.getValue() == transaction.producer());
+            close(transaction.producer());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Closing {} transactional Kafka producers", producers.size());
+        producers.values().forEach(this::close);
+        producers.clear();
+    }
+
+    private KafkaProducer<String, String> create(Map<String, Object> config, String transactionalId) {
+        Properties properties = propertiesBuilder.buildProducerProperties(config);
+        properties.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionalId);
+        properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+        log.info("Creating transactional Kafka producer {}", transactionalId);
+        KafkaProducer<String, String> producer = new KafkaProducer<>(properties);
+        try {
+            producer.initTransactions();
+        } catch (RuntimeException e) {
+            close(producer);
+            throw e;
+        }
+        return producer;
+    }
+
+    private void evict(String producerKey, KafkaProducer<String, String> producer) {
+        if (producers.remove(producerKey, producer)) {
+            close(producer);
+        }
+    }
+
+    private void close(KafkaProducer<String, String> producer) {
+        try {
+            producer.close(Duration.ofMillis(appConfig.getKafkaTriggers().getProducerCloseTimeoutMs()));
+        } catch (Exception e) {
+            log.warn("Failed to close transactional Kafka producer", e);
+        }
+    }
+}
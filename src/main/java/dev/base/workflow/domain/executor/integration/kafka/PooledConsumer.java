@@ -0,0 +1,160 @@
+package dev.base.workflow.domain.executor.integration.kafka;
+
+import dev.base.workflow.model.core.ExecutionContext;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One subscribed consumer in the {@link KafkaConsumerPool}.
+ *
+ * Access is serialised by a lease held by one workflow run at a time.
+ * Records handed out during a lease are committed when the lease ends
+ * successfully; otherwise the consumer seeks back to the first record it
+ * handed out, so the next lease sees them again.
+ */
+@Slf4j
+class PooledConsumer {
+
+    private final KafkaConsumer<String, String> consumer;
+    private final String topic;
+    private final Semaphore lease = new Semaphore(1);
+    private final Map<TopicPartition, Long> firstTaken = new HashMap<>();
+    private final Map<TopicPartition, OffsetAndMetadata> pendingCommit = new HashMap<>();
+    private volatile ExecutionContext holder;
+    private volatile long lastUsedAtMs = System.currentTimeMillis();
+    private volatile boolean closed;
+    private boolean subscribed;
+
+    PooledConsumer(KafkaConsumer<String, String> consumer, String topic) {
+        this.consumer = consumer;
+        this.topic = topic;
+    }
+
+    boolean isHeldBy(ExecutionContext context) {
+        return holder == context;
+    }
+
+    /**
+     * Lease for the run owning {@code context}.
+     */
+    boolean tryLease(ExecutionContext context, Duration timeout) throws InterruptedException {
+        if (!lease.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        holder = context;
+        return true;
+    }
+
+    /**
+     * Lease without a run, for keep-alive and eviction; never waits.
+     */
+    boolean tryLeaseIdle() {
+        return lease.tryAcquire();
+    }
+
+    /**
+     * Commit or rewind what this lease took, park the partitions and release.
+     */
+    void endLease(boolean succeeded) {
+        try {
+            if (succeeded && !pendingCommit.isEmpty()) {
+                consumer.commitSync(pendingCommit);
+            } else if (!succeeded) {
+                firstTaken.forEach(consumer::seek);
+            }
+            consumer.pause(consumer.assignment());
+        } catch (Exception e) {
+            log.error("Failed to settle offsets for topic {}", topic, e);
+        } finally {
+            firstTaken.clear();
+            pendingCommit.clear();
+            lastUsedAtMs = System.currentTimeMillis();
+            holder = null;
+            lease.release();
+        }
+    }
+
+    void releaseIdle() {
+        lease.release();
+    }
+
+    /**
+     * Poll within the bounds (the first record is always taken, however
+     * large). Records beyond them are not handed out: their partitions are
+     * sought back so the next poll returns them again.
+     */
+    List<ConsumerRecord<String, String>> poll(Duration timeout, int maxRecords, long maxBytes) {
+        if (!subscribed) {
+            consumer.subscribe(List.of(topic));
+            subscribed = true;
+        }
+        consumer.resume(consumer.paused());
+        List<ConsumerRecord<String, String>> taken = take(consumer.poll(timeout), maxRecords, maxBytes);
+        for (ConsumerRecord<String, String> record : taken) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            firstTaken.putIfAbsent(partition, record.offset());
+            pendingCommit.put(partition, new OffsetAndMetadata(record.offset() + 1));
+        }
+        return taken;
+    }
+
+    /**
+     * Keep group membership while idle: a poll with every partition paused
+     * fetches nothing, and anything fetched from partitions assigned by a
+     * rebalance during the poll is sought back.
+     */
+    void keepAlive() {
+        consumer.pause(consumer.assignment());
+        take(consumer.poll(Duration.ZERO), 0, 0);
+        consumer.pause(consumer.assignment());
+    }
+
+    void wakeup() {
+        consumer.wakeup();
+    }
+
+    void close(Duration timeout) {
+        closed = true;
+        consumer.close(timeout);
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    long getLastUsedAtMs() {
+        return lastUsedAtMs;
+    }
+
+    private List<ConsumerRecord<String, String>> take(ConsumerRecords<String, String> records, int maxRecords,
+            long maxBytes) {
+        List<ConsumerRecord<String, String>> taken = new ArrayList<>();
+        Map<TopicPartition, Long> rewindTo = new HashMap<>();
+        long bytes = 0;
+        for (ConsumerRecord<String, String> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            long size = Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
+            if (rewindTo.containsKey(partition) || taken.size() >= maxRecords
+                    || (!taken.isEmpty() && bytes + size > maxBytes)) {
+                rewindTo.putIfAbsent(partition, record.offset());
+                continue;
+            }
+            taken.add(record);
+            bytes += size;
+        }
+        rewindTo.forEach(consumer::seek);
+        return taken;
+    }
+}
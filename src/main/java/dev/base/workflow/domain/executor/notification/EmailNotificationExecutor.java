@@ -1,6 +1,10 @@
 package dev.base.workflow.domain.executor.notification;
 
+import dev.base.workflow.config.AppConfig;
 import dev.base.workflow.domain.engine.NodeExecutor;
+import dev.base.workflow.domain.executor.notification.mail.MailDeliveryMode;
+import dev.base.workflow.domain.executor.notification.mail.MailDeliveryService;
+import dev.base.workflow.exception.ExecutionCancelledException;
 import dev.base.workflow.model.core.ExecutionContext;
 import dev.base.workflow.model.nodetype.NodeType;
 import dev.base.workflow.model.nodetype.NotificationNodeType;
@@ -10,10 +14,11 @@ import dev.base.workflow.util.StringUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static dev.base.workflow.constant.WorkflowConstants.*;
 
@@ -22,7 +27,8 @@ import static dev.base.workflow.constant.WorkflowConstants.*;
 @RequiredArgsConstructor
 public class EmailNotificationExecutor implements NodeExecutor {
 
-    private final JavaMailSender mailSender;
+    private final MailDeliveryService mailDelivery;
+    private final AppConfig appConfig;
     private final dev.base.workflow.domain.engine.ExpressionEvaluator evaluator;
 
     @Override
@@ -56,16 +62,30 @@ public class EmailNotificationExecutor implements NodeExecutor {
             message.setSubject(subject);
             message.setText(body);
 
-            mailSender.send(message);
+            MailDeliveryMode mode = deliveryMode(config);
+            CompletableFuture<Void> delivered = mailDelivery.submit(message);
+            if (mode == MailDeliveryMode.ASYNC) {
+                log.info("Email queued for: {}", to);
+                return NodeExecutionResult.success(node.getId(), Map.of(KEY_STATUS, "queued", CFG_TO, to));
+            }
+            ctx.getCancellationToken().await(delivered,
+                    Duration.ofMillis(appConfig.getMailDelivery().getSendTimeoutMs()));
             log.info("Email sent successfully to: {}", to);
 
             return NodeExecutionResult.success(node.getId(), Map.of(KEY_STATUS, "sent", CFG_TO, to));
+        } catch (ExecutionCancelledException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to send email", e);
             throw new RuntimeException(StringUtils.concat("Failed to send email: ", e.getMessage()));
         }
     }
 
+    private MailDeliveryMode deliveryMode(Map<String, Object> config) {
+        Object mode = config.get(CFG_DELIVERY_MODE);
+        return mode != null ? MailDeliveryMode.valueOf(mode.toString()) : appConfig.getMailDelivery().getDefaultMode();
+    }
+
     @Override
     public Map<String, Object> getDefaultConfig() {
         return Map.of(
@@ -0,0 +1,11 @@
+package dev.base.workflow.domain.executor.notification.mail;
+
+/**
+ * When an EMAIL node completes.
+ */
+public enum MailDeliveryMode {
+    /** Once the SMTP server has accepted the message. */
+    SYNC,
+    /** Once the message is queued; delivery failures are only logged. */
+    ASYNC
+}
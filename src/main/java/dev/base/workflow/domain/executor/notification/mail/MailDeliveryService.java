@@ -0,0 +1,213 @@
+package dev.base.workflow.domain.executor.notification.mail;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.util.StringUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queued SMTP delivery for EMAIL nodes.
+ *
+ * Messages go into a bounded queue drained by {@code sessions} worker
+ * threads. Each worker keeps its own SMTP connection open (see
+ * {@link SmtpSession}), takes up to {@code batch-size} messages at a time
+ * and sends messages to the same recipients back to back, in queue order.
+ * Transient failures (connection drops, 4xx replies) reconnect and retry
+ * with exponential backoff; rejected recipients and failed logins fail the
+ * message at once. A connection unused for {@code session-idle-ms} is
+ * closed. When the queue stays full for {@code enqueue-timeout-ms},
+ * {@link #submit} fails instead of blocking the workflow.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MailDeliveryService {
+
+    private final JavaMailSender mailSender;
+    private final AppConfig appConfig;
+
+    private BlockingQueue<MailJob> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean accepting;
+
+    @PostConstruct
+    public void start() {
+        AppConfig.MailDeliveryConfig config = appConfig.getMailDelivery();
+        queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        accepting = true;
+        for (int i = 0; i < config.getSessions(); i++) {
+            SmtpSession session = new SmtpSession(mailSender);
+            // Platform threads: Jakarta Mail blocks on the socket inside synchronized methods,
+            // which would pin the carrier of a virtual thread
+            workers.add(Thread.ofPlatform().daemon().name("mail-session-" + i).start(() -> runWorker(session)));
+        }
+        log.info("Mail delivery started with {} SMTP sessions, queue capacity {}", config.getSessions(),
+                config.getQueueCapacity());
+    }
+
+    /**
+     * Queue a message. The future completes once the SMTP server accepted it,
+     * or exceptionally once delivery gave up. Cancelling it before delivery
+     * drops the message.
+     *
+     * @throws RejectedExecutionException when the queue stays full or delivery is stopping
+     */
+    public CompletableFuture<Void> submit(SimpleMailMessage message) {
+        if (!accepting) {
+            throw new RejectedExecutionException("Mail delivery is shutting down");
+        }
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        message.copyTo(new MimeMailMessage(mimeMessage));
+        MailJob job = new MailJob(mimeMessage, recipientsOf(message), new CompletableFuture<>());
+        try {
+            if (!queue.offer(job, appConfig.getMailDelivery().getEnqueueTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException(StringUtils.concat("Mail queue is full (",
+                        queue.size(), " messages waiting)"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing mail", e);
+        }
+        return job.delivered();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Stop accepting mail, give the workers {@code close-timeout-ms} to send
+     * what is queued, then fail whatever is left.
+     */
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        long deadline = System.currentTimeMillis() + appConfig.getMailDelivery().getCloseTimeoutMs();
+        try {
+            while (!queue.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            workers.forEach(Thread::interrupt);
+            for (Thread worker : workers) {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<MailJob> undelivered = new ArrayList<>();
+        queue.drainTo(undelivered);
+        if (!undelivered.isEmpty()) {
+            log.warn("Mail delivery stopped with {} messages undelivered", undelivered.size());
+        }
+        undelivered.forEach(job -> job.delivered().completeExceptionally(
+                new IllegalStateException("Mail delivery stopped before the message was sent")));
+    }
+
+    private void runWorker(SmtpSession session) {
+        AppConfig.MailDeliveryConfig config = appConfig.getMailDelivery();
+        List<MailJob> batch = new ArrayList<>(config.getBatchSize());
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                MailJob first = queue.poll(config.getSessionIdleMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    session.close();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, config.getBatchSize() - 1);
+                deliver(session, batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            batch.forEach(job -> job.delivered().completeExceptionally(
+                    new IllegalStateException("Mail delivery stopped before the message was sent")));
+            session.close();
+        }
+    }
+
+    /**
+     * Messages to the same recipients go out together, in the order queued.
+     */
+    private void deliver(SmtpSession session, List<MailJob> batch) throws InterruptedException {
+        Map<String, List<MailJob>> byRecipients = new LinkedHashMap<>();
+        batch.forEach(job -> byRecipients.computeIfAbsent(job.recipients(), key -> new ArrayList<>()).add(job));
+        for (List<MailJob> jobs : byRecipients.values()) {
+            for (MailJob job : jobs) {
+                deliver(session, job);
+            }
+        }
+    }
+
+    private void deliver(SmtpSession session, MailJob job) throws InterruptedException {
+        AppConfig.MailDeliveryConfig config = appConfig.getMailDelivery();
+        for (int attempt = 1; !job.delivered().isDone(); attempt++) {
+            try {
+                session.send(job.message());
+                job.delivered().complete(null);
+                log.debug("Email delivered to {}", job.recipients());
+            } catch (MessagingException | RuntimeException e) {
+                session.close();
+                if (!isTransient(e) || attempt >= config.getMaxAttempts()) {
+                    log.error("Giving up on email to {} after {} attempts", job.recipients(), attempt, e);
+                    job.delivered().completeExceptionally(e);
+                    return;
+                }
+                long delayMs = config.getRetryBackoffMs() << (attempt - 1);
+                log.warn("Email to {} failed (attempt {}), retrying in {} ms: {}", job.recipients(), attempt,
+                        delayMs, e.getMessage());
+                Thread.sleep(delayMs);
+            }
+        }
+    }
+
+    /**
+     * Bad credentials and rejected recipients will fail again; anything else
+     * (dropped connection, timeout, 4xx reply) may not.
+     */
+    private boolean isTransient(Exception e) {
+        if (e instanceof AuthenticationFailedException) {
+            return false;
+        }
+        if (e instanceof SendFailedException failed) {
+            return failed.getInvalidAddresses() == null || failed.getInvalidAddresses().length == 0;
+        }
+        return e instanceof MessagingException || e instanceof MailSendException;
+    }
+
+    private String recipientsOf(SimpleMailMessage message) {
+        TreeSet<String> recipients = new TreeSet<>();
+        for (String[] addresses : new String[][] { message.getTo(), message.getCc(), message.getBcc() }) {
+            if (addresses != null) {
+                recipients.addAll(List.of(addresses));
+            }
+        }
+        return String.join(",", recipients);
+    }
+
+    private record MailJob(MimeMessage message, String recipients, CompletableFuture<Void> delivered) {
+    }
+}
@@ -0,0 +1,81 @@
+package dev.base.workflow.domain.executor.notification.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+
+/**
+ * One SMTP connection kept open across messages, so the handshake, STARTTLS
+ * and login are paid once per connection rather than once per email.
+ * Used by a single delivery worker; not thread-safe.
+ *
+ * Senders other than {@link JavaMailSenderImpl} expose no transport and are
+ * called per message.
+ */
+@Slf4j
+class SmtpSession {
+
+    private static final String PROP_TRANSPORT_PROTOCOL = "mail.transport.protocol";
+    private static final String DEFAULT_PROTOCOL = "smtp";
+
+    private final JavaMailSender mailSender;
+    private Transport transport;
+
+    SmtpSession(JavaMailSender mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    void send(MimeMessage message) throws MessagingException {
+        if (!(mailSender instanceof JavaMailSenderImpl sender)) {
+            mailSender.send(message);
+            return;
+        }
+        if (transport == null) {
+            transport = connect(sender);
+        }
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+        transport.sendMessage(message, message.getAllRecipients());
+    }
+
+    /**
+     * Drop the connection; the next send opens a new one.
+     */
+    void close() {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection", e);
+        }
+        transport = null;
+    }
+
+    /**
+     * Same resolution as {@link JavaMailSenderImpl}: the configured protocol,
+     * else {@code mail.transport.protocol}, else SMTP.
+     */
+    private String protocolOf(JavaMailSenderImpl sender) {
+        if (sender.getProtocol() != null) {
+            return sender.getProtocol();
+        }
+        String configured = sender.getSession().getProperty(PROP_TRANSPORT_PROTOCOL);
+        return configured != null ? configured : DEFAULT_PROTOCOL;
+    }
+
+    private Transport connect(JavaMailSenderImpl sender) throws MessagingException {
+        Transport connected = sender.getSession().getTransport(protocolOf(sender));
+        connected.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+        log.debug("Opened SMTP connection to {}:{}", sender.getHost(), sender.getPort());
+        return connected;
+    }
+}
@@ -0,0 +1,11 @@
+package dev.base.workflow.exception;
+
+import dev.base.workflow.util.StringUtils;
+import org.springframework.http.HttpStatus;
+
+public class DispatchRejectedException extends ApplicationException {
+    public DispatchRejectedException(String workflowId, String reason) {
+        super(StringUtils.concat("Execution rejected for workflow ", workflowId, ": ", reason),
+                HttpStatus.TOO_MANY_REQUESTS, "DISPATCH_REJECTED");
+    }
+}
@@ -0,0 +1,7 @@
+package dev.base.workflow.exception;
+
+public class ExecutionBudgetExceededException extends WorkflowException {
+    public ExecutionBudgetExceededException(String message) {
+        super(message);
+    }
+}
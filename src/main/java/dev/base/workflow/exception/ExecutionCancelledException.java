@@ -0,0 +1,9 @@
+package dev.base.workflow.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ExecutionCancelledException extends ApplicationException {
+    public ExecutionCancelledException(String reason) {
+        super(reason, HttpStatus.CONFLICT, "EXECUTION_CANCELLED");
+    }
+}
@@ -0,0 +1,16 @@
+package dev.base.workflow.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+@Getter
+public class InvalidWorkflowException extends ApplicationException {
+    private final List<String> problems;
+
+    public InvalidWorkflowException(List<String> problems) {
+        super("Invalid workflow: " + String.join("; ", problems), HttpStatus.BAD_REQUEST, "INVALID_WORKFLOW");
+        this.problems = List.copyOf(problems);
+    }
+}
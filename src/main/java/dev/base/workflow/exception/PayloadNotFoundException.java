@@ -0,0 +1,10 @@
+package dev.base.workflow.exception;
+
+import dev.base.workflow.util.StringUtils;
+import org.springframework.http.HttpStatus;
+
+public class PayloadNotFoundException extends ApplicationException {
+    public PayloadNotFoundException(String payloadId) {
+        super(StringUtils.concat("Payload not found: ", payloadId), HttpStatus.NOT_FOUND, "PAYLOAD_NOT_FOUND");
+    }
+}
@@ -0,0 +1,11 @@
+package dev.base.workflow.exception;
+
+import dev.base.workflow.util.StringUtils;
+import org.springframework.http.HttpStatus;
+
+public class PayloadTooLargeException extends ApplicationException {
+    public PayloadTooLargeException(long limitBytes) {
+        super(StringUtils.concat("Request body exceeds limit of ", limitBytes, " bytes"),
+                HttpStatus.PAYLOAD_TOO_LARGE, "PAYLOAD_TOO_LARGE");
+    }
+}
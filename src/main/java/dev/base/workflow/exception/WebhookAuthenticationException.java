@@ -0,0 +1,11 @@
+package dev.base.workflow.exception;
+
+import dev.base.workflow.util.StringUtils;
+import org.springframework.http.HttpStatus;
+
+public class WebhookAuthenticationException extends ApplicationException {
+    public WebhookAuthenticationException(String workflowId) {
+        super(StringUtils.concat("Webhook authentication failed for workflow: ", workflowId),
+                HttpStatus.UNAUTHORIZED, "WEBHOOK_UNAUTHORIZED");
+    }
+}
@@ -0,0 +1,130 @@
+package dev.base.workflow.model.core;
+
+import dev.base.workflow.exception.ExecutionCancelledException;
+import dev.base.workflow.exception.WorkflowException;
+import dev.base.workflow.util.StringUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static dev.base.workflow.constant.WorkflowErrorConstants.ERR_EXECUTION_CANCELLED;
+
+/**
+ * Cooperative cancellation signal for one workflow execution.
+ *
+ * The engine checks it between nodes; executors check it at their own
+ * blocking points and register abort hooks (closing a consumer, cancelling
+ * a request) that run as soon as the token is cancelled, whichever thread
+ * the work is on.
+ */
+public class CancellationToken {
+
+    private final CountDownLatch signal = new CountDownLatch(1);
+    private final List<Runnable> callbacks = new CopyOnWriteArrayList<>();
+    private volatile String reason;
+
+    /**
+     * Handle for an abort hook; closing it unregisters the hook.
+     */
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public void cancel(String reason) {
+        synchronized (this) {
+            if (isCancelled()) {
+                return;
+            }
+            this.reason = reason;
+            signal.countDown();
+        }
+        callbacks.forEach(CancellationToken::runQuietly);
+    }
+
+    public boolean isCancelled() {
+        return signal.getCount() == 0;
+    }
+
+    public String getReason() {
+        return reason != null ? reason : ERR_EXECUTION_CANCELLED;
+    }
+
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new ExecutionCancelledException(getReason());
+        }
+    }
+
+    /**
+     * Run {@code callback} on cancellation, immediately if already cancelled.
+     */
+    public Registration onCancel(Runnable callback) {
+        synchronized (this) {
+            if (!isCancelled()) {
+                callbacks.add(callback);
+                return () -> callbacks.remove(callback);
+            }
+        }
+        runQuietly(callback);
+        return () -> { };
+    }
+
+    /**
+     * Sleep that returns early with {@link ExecutionCancelledException} on cancellation.
+     */
+    public void sleep(Duration duration) {
+        try {
+            if (signal.await(duration.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ExecutionCancelledException(getReason());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionCancelledException(getReason());
+        }
+    }
+
+    /**
+     * Wait for {@code future}, cancelling it (with interruption) if the token is cancelled first.
+     */
+    public <T> T await(Future<T> future) {
+        return await(future, null);
+    }
+
+    public <T> T await(Future<T> future, Duration timeout) {
+        Registration registration = onCancel(() -> future.cancel(true));
+        try {
+            return timeout == null ? future.get() : future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (CancellationException e) {
+            throw new ExecutionCancelledException(getReason());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ExecutionCancelledException(getReason());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new WorkflowException(StringUtils.format("Timed out after {} ms", timeout.toMillis()), e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause
+                    ? cause
+                    : new WorkflowException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            registration.close();
+        }
+    }
+
+    private static void runQuietly(Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException ignored) {
+            // Abort hooks are best effort; the cancellation flag is already set
+        }
+    }
+}
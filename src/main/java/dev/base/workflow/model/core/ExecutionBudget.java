@@ -0,0 +1,31 @@
+package dev.base.workflow.model.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resource limits for a single execution. Set per workflow to override the
+ * application defaults; unset fields fall back to the defaults.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionBudget {
+    private Integer maxSteps;        // node executions
+    private Long maxDurationMs;      // wall-clock time
+    private Integer maxPendingNodes; // queued branches, each holding its input in memory
+
+    /**
+     * This budget with unset fields taken from {@code defaults}.
+     */
+    public ExecutionBudget withDefaults(ExecutionBudget defaults) {
+        return ExecutionBudget.builder()
+                .maxSteps(maxSteps != null ? maxSteps : defaults.getMaxSteps())
+                .maxDurationMs(maxDurationMs != null ? maxDurationMs : defaults.getMaxDurationMs())
+                .maxPendingNodes(maxPendingNodes != null ? maxPendingNodes : defaults.getMaxPendingNodes())
+                .build();
+    }
+}
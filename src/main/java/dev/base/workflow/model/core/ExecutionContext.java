@@ -1,7 +1,10 @@
 package dev.base.workflow.model.core;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Shared state across the workflow execution.
@@ -9,6 +12,16 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ExecutionContext {
 
     private final Map<String, Object> context = new ConcurrentHashMap<>();
+    private final CancellationToken cancellationToken;
+    private final List<Consumer<Boolean>> finishCallbacks = new CopyOnWriteArrayList<>();
+
+    public ExecutionContext() {
+        this(new CancellationToken());
+    }
+
+    public ExecutionContext(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
 
     public void put(String key, Object value) {
         context.put(key, value);
@@ -21,5 +34,24 @@ public class ExecutionContext {
     public Map<String, Object> getAll() {
         return context;
     }
-}
 
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Run the callback when the workflow run ends; it receives whether the run
+     * succeeded. Used to settle resources held across nodes (e.g. Kafka offsets).
+     */
+    public void onFinish(Consumer<Boolean> callback) {
+        finishCallbacks.add(callback);
+    }
+
+    /**
+     * Called once by the engine when the run ends.
+     */
+    public void finish(boolean succeeded) {
+        finishCallbacks.forEach(callback -> callback.accept(succeeded));
+        finishCallbacks.clear();
+    }
+}
@@ -0,0 +1,27 @@
+package dev.base.workflow.model.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stored form of a large payload: deflated inline, or deflated in GridFS
+ * under the SHA-256 of its JSON so identical payloads are stored once.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayloadRef {
+    private Encoding encoding;
+    private byte[] data;       // DEFLATE only
+    private String payloadId;  // GRIDFS only
+    private int originalBytes;
+    private int storedBytes;
+
+    public enum Encoding {
+        DEFLATE, // Compressed bytes embedded in the document
+        GRIDFS   // Compressed bytes offloaded to GridFS
+    }
+}
@@ -0,0 +1,48 @@
+package dev.base.workflow.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Point-in-time view of the execution dispatcher: permits in use and queue
+ * lengths per owner and per workflow.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchStats {
+    private int maxConcurrency;
+    private int inFlight;
+    private int maxPerOwner;
+    private int maxPerWorkflow;
+    private List<OwnerStats> owners;
+    private List<WorkflowStats> workflows;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OwnerStats {
+        private String ownerId;
+        private int weight;
+        private int inFlight;
+        private int queued;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WorkflowStats {
+        private String workflowId;
+        private String ownerId;
+        private int inFlight;
+        private int queued;
+        private int spilled;
+    }
+}
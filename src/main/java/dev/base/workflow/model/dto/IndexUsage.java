@@ -0,0 +1,26 @@
+package dev.base.workflow.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Access count of one index since {@code since} (server start or index
+ * creation), as reported by {@code $indexStats} on the queried member.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexUsage {
+    private String collection;
+    private String name;
+    private Map<String, Object> key;
+    private boolean partial;
+    private long accesses;
+    private Date since;
+}
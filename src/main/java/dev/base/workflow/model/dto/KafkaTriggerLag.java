@@ -0,0 +1,36 @@
+package dev.base.workflow.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Backlog of a Kafka trigger's consumer group: committed offsets against
+ * log-end offsets, per partition of the trigger topic.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KafkaTriggerLag {
+    private String workflowId;
+    private String groupId;
+    private String topic;
+    private long totalLag;
+    private List<PartitionLag> partitions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PartitionLag {
+        private int partition;
+        /** -1 when the group has not committed on this partition yet. */
+        private long committedOffset;
+        private long logEndOffset;
+        private long lag;
+    }
+}
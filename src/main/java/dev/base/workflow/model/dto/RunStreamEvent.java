@@ -0,0 +1,37 @@
+package dev.base.workflow.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Delta pushed to live run monitors over SSE.
+ * Carries a summary only - full node details stay behind the /nodes endpoint.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RunStreamEvent {
+
+    private Type type;
+    private String runId;
+    private String executionId;
+    private String nodeId;
+    private String status;
+    private Long durationMs;
+    private String error;
+    private Long droppedEvents;
+    private LocalDateTime timestamp;
+
+    public enum Type {
+        NODE_COMPLETED,
+        EXECUTION_STATE,
+        EVENTS_DROPPED
+    }
+}
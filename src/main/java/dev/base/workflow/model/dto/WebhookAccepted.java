@@ -0,0 +1,25 @@
+package dev.base.workflow.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Returned by the webhook ingress once an event is queued; the execution
+ * record with this id appears when the dispatcher starts the run. In a
+ * batch, events the dispatcher turned away come back with
+ * {@code accepted=false}, no execution id and the reason.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WebhookAccepted {
+    private String workflowId;
+    private String executionId;
+    private boolean accepted;
+    private String error;
+}
@@ -0,0 +1,41 @@
+package dev.base.workflow.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Latency, throughput and failure rate of a workflow and each of its nodes
+ * over a recent window, served from the stats rollups.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowStats {
+    private String workflowId;
+    private int windowMinutes;
+    private Date from;
+    private StatsSummary executions;
+    private List<StatsSummary> nodes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StatsSummary {
+        private String nodeId;
+        private long count;
+        private long errors;
+        private double errorRate;
+        private double throughputPerMinute;
+        private long avgDurationMs;
+        private long p50DurationMs;
+        private long p95DurationMs;
+        private long p99DurationMs;
+    }
+}
@@ -0,0 +1,30 @@
+package dev.base.workflow.mongo.collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Lease held by a live engine instance. The fencing token is unique per
+ * lease acquisition and increases monotonically across the cluster.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "cluster_members")
+public class ClusterMember {
+
+    @Id
+    private String instanceId;
+
+    private long fencingToken;
+    private Date joinedAt;
+    private Date heartbeatAt;
+    private Date leaseExpiresAt;
+}
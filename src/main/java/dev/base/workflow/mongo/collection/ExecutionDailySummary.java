@@ -0,0 +1,54 @@
+package dev.base.workflow.mongo.collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compact per-workflow, per-day rollup of finished executions, kept after
+ * the executions themselves have expired. The id is
+ * {@code workflowId:yyyy-MM-dd}, so re-archiving a day overwrites it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "execution_daily_summaries")
+@CompoundIndex(name = "workflow_day", def = "{'workflowId': 1, 'day': -1}")
+public class ExecutionDailySummary {
+
+    @Id
+    private String id;
+
+    private String workflowId;
+    private String day;
+
+    private long total;
+    private long completed;
+    private long failed;
+    private long cancelled;
+
+    private long avgDurationMs;
+    private long p50DurationMs;
+    private long p95DurationMs;
+    private long p99DurationMs;
+    private long maxDurationMs;
+
+    private List<FailureReason> failureReasons;
+    private Date archivedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FailureReason {
+        private String reason;
+        private long count;
+    }
+}
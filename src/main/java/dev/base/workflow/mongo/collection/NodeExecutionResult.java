@@ -6,6 +6,7 @@ import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
 
 @Data
@@ -31,6 +32,10 @@ public class NodeExecutionResult {
     private LocalDateTime completedAt;
     private long duration;
 
+    // Same as the owning execution's, so both expire together
+    @Indexed(expireAfter = "0s")
+    private Date expireAt;
+
     public enum Status {
         SUCCESS,
         FAILURE,
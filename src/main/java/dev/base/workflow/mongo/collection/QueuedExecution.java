@@ -0,0 +1,51 @@
+package dev.base.workflow.mongo.collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * An execution request waiting in (or leased from) the distributed queue.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "execution_queue")
+@CompoundIndexes({
+        @CompoundIndex(name = "status_enqueued_at", def = "{'status': 1, 'enqueuedAt': 1}"),
+        @CompoundIndex(name = "status_lease_expires_at", def = "{'status': 1, 'leaseExpiresAt': 1}")
+})
+public class QueuedExecution {
+
+    @Id
+    private String id;
+
+    private String workflowId;
+    private String runId;
+    private Object input;
+    private WorkflowRun.TriggerType triggerType;
+    private String executionId;
+
+    private Status status;
+    private String claimedBy;
+    @Indexed(sparse = true)
+    private String claimToken;
+    private Date leaseExpiresAt;
+    private Date enqueuedAt;
+    private int attempts;
+
+    public enum Status {
+        PENDING, // Waiting for a worker
+        CLAIMED, // Leased by a worker until leaseExpiresAt
+        FAILED   // Lease expired max-attempts times; kept for inspection, never claimed again
+    }
+}
@@ -0,0 +1,33 @@
+package dev.base.workflow.mongo.collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A dispatch task parked in Mongo because its workflow queue was full.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "dispatch_spill")
+@CompoundIndex(name = "workflow_spilled_at", def = "{'workflowId': 1, 'spilledAt': 1}")
+public class SpilledTrigger {
+
+    @Id
+    private String id;
+
+    private String workflowId;
+    private String runId;
+    private Object input;
+    private WorkflowRun.TriggerType triggerType;
+    private String executionId;
+    private LocalDateTime spilledAt;
+}
@@ -0,0 +1,28 @@
+package dev.base.workflow.mongo.collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Idempotency key of an admitted trigger. Removed by a TTL index on
+ * {@code expireAt} once the dedup window has passed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "trigger_keys")
+public class TriggerKey {
+
+    @Id
+    private String key;
+
+    private String workflowId;
+    private Date expireAt;
+}
@@ -1,6 +1,7 @@
 package dev.base.workflow.mongo.collection;
 
 import dev.base.workflow.model.core.Edge;
+import dev.base.workflow.model.core.ExecutionBudget;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -9,12 +10,14 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import static dev.base.workflow.constant.WorkflowConstants.COLLECTION_WORKFLOWS;
+
 /**
  * Complete workflow definition with nodes and edges.
  * Stored as a document in MongoDB.
  */
 @Data
-@Document(collection = "workflows")
+@Document(collection = COLLECTION_WORKFLOWS)
 public class WorkflowDefinition {
 
     @Id
@@ -34,6 +37,12 @@ public class WorkflowDefinition {
     private boolean active = true;
     private int version = 1;
 
+    // Optional per-workflow overrides of app.execution-budget
+    private ExecutionBudget budget;
+
+    // Days of execution history to keep; overrides app.retention.default-days
+    private Integer retentionDays;
+
     /**
      * Get node by ID
      */
@@ -3,10 +3,13 @@ package dev.base.workflow.mongo.collection;
 import dev.base.workflow.model.core.ExecutionStatus;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.Date;
 
 /**
  * Represents a single execution of a workflow.
@@ -14,26 +17,41 @@ import java.time.LocalDateTime;
  */
 @Data
 @Document(collection = "workflow_executions")
+@CompoundIndexes({
+        @CompoundIndex(name = "workflow_started_at", def = "{'workflowId': 1, 'startedAt': -1}"),
+        @CompoundIndex(name = "run_started_at", def = "{'runId': 1, 'startedAt': -1}"),
+        @CompoundIndex(name = "running_by_workflow", def = "{'status': 1, 'workflowId': 1}",
+                partialFilter = "{'status': 'RUNNING'}")
+})
 public class WorkflowExecution {
 
     @Id
     private String id;
 
-    @Indexed
     private String workflowId;
 
     /**
      * Links this execution to its parent WorkflowRun (session).
      * All executions from the same "Run" click share the same runId.
      */
-    @Indexed
     private String runId;
 
     private ExecutionStatus status;
     private LocalDateTime startedAt;
+    @Indexed
     private LocalDateTime completedAt;
     private Object result;
     private String error;
     private Object input;
+    /**
+     * Most recent node ids only; {@link #executedNodeCount} counts every step.
+     */
     private java.util.List<String> executedNodes;
+    private int executedNodeCount;
+
+    /**
+     * Removal time for the TTL index, set from the workflow's retention policy.
+     */
+    @Indexed(expireAfter = "0s")
+    private Date expireAt;
 }
@@ -5,7 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -20,12 +21,16 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "workflow_runs")
+@CompoundIndexes({
+        @CompoundIndex(name = "workflow_start_time", def = "{'workflowId': 1, 'startTime': -1}"),
+        @CompoundIndex(name = "active_by_workflow", def = "{'status': 1, 'workflowId': 1}",
+                partialFilter = "{'status': 'ACTIVE'}")
+})
 public class WorkflowRun {
 
     @Id
     private String id;
 
-    @Indexed
     private String workflowId;
 
     /**
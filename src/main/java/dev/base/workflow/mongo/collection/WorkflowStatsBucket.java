@@ -0,0 +1,37 @@
+package dev.base.workflow.mongo.collection;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Rollup of executions (node id null) or node runs of one workflow within one
+ * time bucket. Instances add their deltas with {@code $inc}, so a bucket
+ * holds the cluster-wide totals. Latency counts are keyed by
+ * {@link dev.base.workflow.util.LatencyHistogram} bucket index.
+ */
+@Data
+@Document(collection = "workflow_stats")
+@CompoundIndex(name = "workflow_bucket_start", def = "{'workflowId': 1, 'bucketStart': -1}")
+public class WorkflowStatsBucket {
+
+    @Id
+    private String id;
+
+    private String workflowId;
+    private String nodeId;
+    private Date bucketStart;
+
+    private long count;
+    private long errors;
+    private long totalDurationMs;
+    private Map<String, Long> latency;
+
+    @Indexed(expireAfter = "0s")
+    private Date expireAt;
+}
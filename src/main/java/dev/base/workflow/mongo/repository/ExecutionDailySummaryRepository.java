@@ -0,0 +1,13 @@
+package dev.base.workflow.mongo.repository;
+
+import dev.base.workflow.mongo.collection.ExecutionDailySummary;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExecutionDailySummaryRepository extends MongoRepository<ExecutionDailySummary, String> {
+
+    List<ExecutionDailySummary> findByWorkflowIdOrderByDayDesc(String workflowId);
+}
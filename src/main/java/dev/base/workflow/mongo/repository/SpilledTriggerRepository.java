@@ -0,0 +1,11 @@
+package dev.base.workflow.mongo.repository;
+
+import dev.base.workflow.mongo.collection.SpilledTrigger;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SpilledTriggerRepository extends MongoRepository<SpilledTrigger, String> {
+
+    long countByWorkflowId(String workflowId);
+}
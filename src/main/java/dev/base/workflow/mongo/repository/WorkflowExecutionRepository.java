@@ -6,6 +6,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface WorkflowExecutionRepository extends MongoRepository<WorkflowExecution, String> {
@@ -16,6 +17,13 @@ public interface WorkflowExecutionRepository extends MongoRepository<WorkflowExe
 
     List<WorkflowExecution> findByWorkflowIdAndStatus(String workflowId, ExecutionStatus status);
 
+    boolean existsByWorkflowIdAndStatus(String workflowId, ExecutionStatus status);
+
+    /**
+     * Latest execution only; served by the workflowId/startedAt index without a sort.
+     */
+    Optional<WorkflowExecution> findFirstByWorkflowIdOrderByStartedAtDesc(String workflowId);
+
     /**
      * Find all executions belonging to a specific run (session).
      */
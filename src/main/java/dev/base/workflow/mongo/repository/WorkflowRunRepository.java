@@ -20,6 +20,8 @@ public interface WorkflowRunRepository extends MongoRepository<WorkflowRun, Stri
      */
     Optional<WorkflowRun> findFirstByWorkflowIdAndStatus(String workflowId, WorkflowRun.RunStatus status);
 
+    boolean existsByWorkflowIdAndStatus(String workflowId, WorkflowRun.RunStatus status);
+
     /**
      * Find all runs with a specific status (useful for cleaning up duplicates).
      */
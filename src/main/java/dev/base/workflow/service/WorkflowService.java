@@ -1,15 +1,26 @@
 package dev.base.workflow.service;
 
 import dev.base.workflow.model.core.ExecutionStatus;
+import dev.base.workflow.model.dto.DispatchStats;
+import dev.base.workflow.model.dto.IndexUsage;
+import dev.base.workflow.model.dto.KafkaTriggerLag;
+import dev.base.workflow.model.dto.WorkflowStats;
+import dev.base.workflow.mongo.collection.ExecutionDailySummary;
 import dev.base.workflow.mongo.collection.NodeExecutionResult;
 import dev.base.workflow.mongo.collection.WorkflowDefinition;
 import dev.base.workflow.mongo.collection.WorkflowExecution;
 import dev.base.workflow.mongo.collection.WorkflowRun;
 import dev.base.workflow.service.execution.WorkflowExecutionService;
+import dev.base.workflow.service.execution.dispatch.ExecutionDispatcher;
+import dev.base.workflow.service.execution.trigger.KafkaTriggerManager;
 import dev.base.workflow.service.management.WorkflowManagementService;
+import dev.base.workflow.service.monitoring.RunStreamService;
+import dev.base.workflow.service.monitoring.stats.WorkflowStatsService;
 import dev.base.workflow.service.query.WorkflowQueryService;
+import dev.base.workflow.service.storage.MongoIndexManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -19,6 +30,9 @@ import java.util.List;
  * - WorkflowExecutionService: execute, stop
  * - WorkflowManagementService: save, load, delete
  * - WorkflowQueryService: history, status
+ * - RunStreamService: live run monitoring
+ * - ExecutionDispatcher: queue and concurrency stats
+ * - KafkaTriggerManager: Kafka trigger consumer lag
  */
 @Service
 @RequiredArgsConstructor
@@ -27,6 +41,11 @@ public class WorkflowService {
     private final WorkflowExecutionService executionService;
     private final WorkflowManagementService managementService;
     private final WorkflowQueryService queryService;
+    private final RunStreamService runStreamService;
+    private final ExecutionDispatcher executionDispatcher;
+    private final MongoIndexManager indexManager;
+    private final WorkflowStatsService statsService;
+    private final KafkaTriggerManager kafkaTriggerManager;
 
     // --- Execution Delegation ---
 
@@ -82,6 +101,14 @@ public class WorkflowService {
         return queryService.getNodeExecutionResults(runId);
     }
 
+    public List<ExecutionDailySummary> getDailySummaries(String workflowId) {
+        return queryService.getDailySummaries(workflowId);
+    }
+
+    public Object getPayload(String payloadId) {
+        return queryService.getPayload(payloadId);
+    }
+
     public boolean isWorkflowRunning(String workflowId) {
         return queryService.isWorkflowRunning(workflowId);
     }
@@ -89,4 +116,30 @@ public class WorkflowService {
     public ExecutionStatus getWorkflowExecutionStatus(String workflowId) {
         return queryService.getWorkflowExecutionStatus(workflowId);
     }
+
+    // --- Monitoring Delegation ---
+
+    public SseEmitter streamRun(String runId) {
+        return runStreamService.subscribe(runId);
+    }
+
+    public DispatchStats getDispatchStats() {
+        return executionDispatcher.getStats();
+    }
+
+    public WorkflowStats getWorkflowStats(String workflowId, Integer windowMinutes) {
+        return statsService.getStats(workflowId, windowMinutes);
+    }
+
+    public List<IndexUsage> getIndexUsage() {
+        return indexManager.indexUsage();
+    }
+
+    public KafkaTriggerLag getKafkaLag(String workflowId) {
+        return kafkaTriggerManager.getLag(workflowId);
+    }
+
+    public List<KafkaTriggerLag> getKafkaLag() {
+        return kafkaTriggerManager.getLag();
+    }
 }
@@ -0,0 +1,196 @@
+package dev.base.workflow.service.cluster;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.domain.event.ClusterMembershipChangedEvent;
+import dev.base.workflow.mongo.collection.ClusterMember;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Lease-based cluster membership and trigger ownership.
+ *
+ * Every instance holds a lease document in {@code cluster_members}, renewed by
+ * heartbeat and tagged with a fencing token drawn from a cluster-wide counter.
+ * Workflows are sharded across live members with a consistent-hash ring.
+ * An instance that cannot renew its lease within the TTL fences itself and
+ * owns nothing until it re-joins with a fresh token, so a partitioned node
+ * stops firing triggers before another node takes them over.
+ *
+ * When clustering is disabled this instance owns every workflow.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterMembershipService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppConfig appConfig;
+
+    private volatile String instanceId;
+    private volatile long fencingToken;
+    private volatile long lastRenewedAtMs;
+    private volatile ConsistentHashRing ring = new ConsistentHashRing(Set.of(), 0);
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void join() {
+        if (!isEnabled()) {
+            return;
+        }
+        String configuredId = appConfig.getCluster().getInstanceId();
+        instanceId = configuredId == null || configuredId.isBlank()
+                ? UUID.randomUUID().toString()
+                : configuredId;
+        acquireLease();
+        refreshMembers();
+    }
+
+    /**
+     * Whether this instance should activate triggers for the workflow.
+     */
+    public boolean isOwner(String workflowId) {
+        if (!isEnabled()) {
+            return true;
+        }
+        return !isFenced() && instanceId != null && instanceId.equals(ring.ownerOf(workflowId));
+    }
+
+    public boolean isEnabled() {
+        return appConfig.getCluster().isEnabled();
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    /**
+     * Whether the lease taken under this fencing token is still ours: not
+     * replaced by a re-join and renewed within the TTL. Ownership decided
+     * under an older token must not be acted on.
+     */
+    public boolean holdsLease(long token) {
+        if (!isEnabled()) {
+            return true;
+        }
+        return token == fencingToken && !isFenced();
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.heartbeat-interval-ms}")
+    public void heartbeat() {
+        if (!isEnabled() || instanceId == null) {
+            return;
+        }
+        try {
+            if (!renewLease()) {
+                log.warn("Lease for instance {} was lost, re-joining with a new fencing token", instanceId);
+                acquireLease();
+            }
+            refreshMembers();
+        } catch (Exception e) {
+            log.error("Cluster heartbeat failed for instance {}", instanceId, e);
+            if (isFenced()) {
+                publishChange(Set.of());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (isEnabled() && instanceId != null) {
+            mongoTemplate.remove(ownLease(), ClusterMember.class);
+            log.info("Instance {} left the cluster", instanceId);
+        }
+    }
+
+    private void acquireLease() {
+        fencingToken = nextFencingToken();
+        Date now = new Date();
+        mongoTemplate.save(ClusterMember.builder()
+                .instanceId(instanceId)
+                .fencingToken(fencingToken)
+                .joinedAt(now)
+                .heartbeatAt(now)
+                .leaseExpiresAt(leaseExpiry(now))
+                .build());
+        lastRenewedAtMs = now.getTime();
+        log.info("Instance {} joined the cluster with fencing token {}", instanceId, fencingToken);
+    }
+
+    /**
+     * Extend the lease only if it still carries our fencing token.
+     */
+    private boolean renewLease() {
+        Date now = new Date();
+        Update update = new Update().set(FIELD_HEARTBEAT_AT, now).set(FIELD_LEASE_EXPIRES_AT, leaseExpiry(now));
+        boolean renewed = mongoTemplate.updateFirst(ownLease(), update, ClusterMember.class).getModifiedCount() > 0;
+        if (renewed) {
+            lastRenewedAtMs = now.getTime();
+        }
+        return renewed;
+    }
+
+    private void refreshMembers() {
+        Date now = new Date();
+        mongoTemplate.remove(new Query(where(FIELD_LEASE_EXPIRES_AT).lt(now)), ClusterMember.class);
+        Set<String> live = mongoTemplate.find(new Query(where(FIELD_LEASE_EXPIRES_AT).gte(now)), ClusterMember.class)
+                .stream()
+                .map(ClusterMember::getInstanceId)
+                .collect(Collectors.toSet());
+        if (!live.equals(ring.members())) {
+            ring = new ConsistentHashRing(live, appConfig.getCluster().getVirtualNodes());
+            log.info("Cluster membership changed: {}", live);
+            publishChange(live);
+        }
+    }
+
+    private long nextFencingToken() {
+        Document counter = mongoTemplate.findAndModify(
+                new Query(where(FIELD_MONGO_ID).is(COUNTER_FENCING_TOKEN)),
+                new Update().inc(FIELD_SEQUENCE, 1L),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class, COLLECTION_CLUSTER_COUNTERS);
+        return ((Number) counter.get(FIELD_SEQUENCE)).longValue();
+    }
+
+    /**
+     * Whether this instance failed to renew its lease within the TTL. A
+     * fenced instance owns nothing; this check needs no round-trip to Mongo.
+     */
+    public boolean isFenced() {
+        return isEnabled() && System.currentTimeMillis() - lastRenewedAtMs > appConfig.getCluster().getLeaseTtlMs();
+    }
+
+    private Query ownLease() {
+        return new Query(where(FIELD_MONGO_ID).is(instanceId).and(FIELD_FENCING_TOKEN).is(fencingToken));
+    }
+
+    private Date leaseExpiry(Date now) {
+        return new Date(now.getTime() + appConfig.getCluster().getLeaseTtlMs());
+    }
+
+    private void publishChange(Set<String> members) {
+        eventPublisher.publishEvent(new ClusterMembershipChangedEvent(this, members));
+    }
+}
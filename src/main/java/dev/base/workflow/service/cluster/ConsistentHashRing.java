@@ -0,0 +1,40 @@
+package dev.base.workflow.service.cluster;
+
+import dev.base.workflow.util.HashUtils;
+import dev.base.workflow.util.StringUtils;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring. Each member is placed at several virtual
+ * points so load stays even and a join/leave only moves ~1/n of the keys.
+ */
+final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+    private final Set<String> members;
+
+    ConsistentHashRing(Set<String> members, int virtualNodes) {
+        this.members = Set.copyOf(members);
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(HashUtils.hash64(StringUtils.concat(member, "#", i)), member);
+            }
+        }
+    }
+
+    String ownerOf(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = points.ceilingEntry(HashUtils.hash64(key));
+        return (entry != null ? entry : points.firstEntry()).getValue();
+    }
+
+    Set<String> members() {
+        return members;
+    }
+}
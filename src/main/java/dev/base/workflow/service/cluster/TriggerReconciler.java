@@ -0,0 +1,91 @@
+package dev.base.workflow.service.cluster;
+
+import dev.base.workflow.domain.event.ClusterMembershipChangedEvent;
+import dev.base.workflow.mongo.collection.WorkflowRun;
+import dev.base.workflow.mongo.repository.WorkflowRunRepository;
+import dev.base.workflow.service.execution.trigger.TriggerActivator;
+import dev.base.workflow.service.management.WorkflowDefinitionCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converges local triggers onto cluster ownership: activates triggers of
+ * workflows that have an ACTIVE run and a trigger owned here (see
+ * {@link TriggerActivator#ownsAnyTrigger}) and deactivates everything else.
+ * Runs on membership changes and periodically, which also picks up runs
+ * kicked off or stopped through another instance.
+ *
+ * Ownership is computed under the current fencing token; activation stops
+ * as soon as that lease is lost or replaced by a re-join, and the
+ * membership change of the re-join reconciles again under the new token.
+ * A fenced instance only stops its local triggers, without reading Mongo,
+ * which is likely what it cannot reach.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TriggerReconciler {
+
+    private final ClusterMembershipService membershipService;
+    private final WorkflowRunRepository runRepository;
+    private final WorkflowDefinitionCache definitionCache;
+    private final TriggerActivator triggerActivator;
+
+    @EventListener
+    public void onMembershipChanged(ClusterMembershipChangedEvent event) {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.reconcile-interval-ms}")
+    public void reconcilePeriodically() {
+        if (membershipService.isEnabled()) {
+            reconcile();
+        }
+    }
+
+    public synchronized void reconcile() {
+        if (membershipService.isFenced()) {
+            Set<String> active = triggerActivator.activeWorkflowIds();
+            if (!active.isEmpty()) {
+                log.warn("Lease lapsed, stopping triggers of {} workflows", active.size());
+                active.forEach(triggerActivator::deactivate);
+            }
+            return;
+        }
+        long fencingToken = membershipService.getFencingToken();
+        Map<String, String> owned = ownedActiveRuns();
+        triggerActivator.activeWorkflowIds().stream()
+                .filter(workflowId -> !owned.containsKey(workflowId))
+                .forEach(triggerActivator::deactivate);
+
+        for (Map.Entry<String, String> entry : owned.entrySet()) {
+            if (!membershipService.holdsLease(fencingToken)) {
+                log.warn("Lease with fencing token {} lost while reconciling, not activating further triggers",
+                        fencingToken);
+                return;
+            }
+            definitionCache.getActive(entry.getKey())
+                    .ifPresent(workflow -> triggerActivator.activate(workflow, entry.getValue()));
+        }
+        log.debug("Reconciled triggers: {} owned workflows with active runs", owned.size());
+    }
+
+    private Map<String, String> ownedActiveRuns() {
+        Map<String, String> owned = new HashMap<>();
+        for (WorkflowRun run : runRepository.findByStatus(WorkflowRun.RunStatus.ACTIVE)) {
+            if (!owned.containsKey(run.getWorkflowId())) {
+                definitionCache.getActive(run.getWorkflowId())
+                        .filter(triggerActivator::ownsAnyTrigger)
+                        .ifPresent(workflow -> owned.put(workflow.getId(), run.getId()));
+            }
+        }
+        return owned;
+    }
+}
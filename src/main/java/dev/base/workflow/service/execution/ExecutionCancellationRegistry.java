@@ -0,0 +1,67 @@
+package dev.base.workflow.service.execution;
+
+import dev.base.workflow.model.core.CancellationToken;
+import dev.base.workflow.model.core.ExecutionStatus;
+import dev.base.workflow.mongo.collection.WorkflowExecution;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Cancellation tokens of the executions running on this instance.
+ *
+ * A stop request cancels local tokens directly and marks the execution
+ * records CANCELLED; other instances pick that up by polling the status of
+ * the executions they run, so a stop issued anywhere reaches the owner.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionCancellationRegistry {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, CancellationToken> tokens = new ConcurrentHashMap<>();
+
+    public CancellationToken register(String executionId) {
+        return tokens.computeIfAbsent(executionId, id -> new CancellationToken());
+    }
+
+    public void unregister(String executionId) {
+        tokens.remove(executionId);
+    }
+
+    /**
+     * Cancel a local execution; returns false when it does not run here.
+     */
+    public boolean cancel(String executionId, String reason) {
+        CancellationToken token = tokens.get(executionId);
+        if (token == null) {
+            return false;
+        }
+        log.info(LOG_CANCELLING_EXECUTION, executionId);
+        token.cancel(reason);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.cancellation.poll-interval-ms}")
+    public void pollRemoteCancellations() {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        Query cancelled = new Query(where(FIELD_MONGO_ID).in(tokens.keySet())
+                .and(FIELD_STATUS).is(ExecutionStatus.CANCELLED));
+        cancelled.fields().include(FIELD_MONGO_ID).include(FIELD_ERROR);
+        mongoTemplate.find(cancelled, WorkflowExecution.class)
+                .forEach(execution -> cancel(execution.getId(), execution.getError()));
+    }
+}
@@ -1,14 +1,18 @@
 package dev.base.workflow.service.execution;
 
+import dev.base.workflow.domain.engine.NodeResultSink;
 import dev.base.workflow.domain.engine.WorkflowEngine;
+import dev.base.workflow.exception.ExecutionCancelledException;
 import dev.base.workflow.exception.WorkflowNotFoundException;
+import dev.base.workflow.model.core.CancellationToken;
 import dev.base.workflow.mongo.collection.WorkflowDefinition;
 import dev.base.workflow.mongo.collection.WorkflowExecution;
 import dev.base.workflow.mongo.collection.WorkflowRun;
-import dev.base.workflow.mongo.repository.WorkflowDefinitionRepository;
 import dev.base.workflow.service.execution.helper.WorkflowExecutionHelper;
 import dev.base.workflow.service.execution.helper.WorkflowRunHelper;
+import dev.base.workflow.service.execution.result.NodeResultStore;
 import dev.base.workflow.service.execution.trigger.KafkaTriggerManager;
+import dev.base.workflow.service.management.WorkflowDefinitionCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -16,7 +20,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static dev.base.workflow.constant.WorkflowConstants.*;
 import static dev.base.workflow.constant.WorkflowErrorConstants.ERR_STOPPED_BY_USER;
@@ -31,20 +34,19 @@ import static dev.base.workflow.constant.WorkflowErrorConstants.ERR_STOPPED_BY_U
 public class WorkflowExecutionService {
 
     private final WorkflowEngine workflowEngine;
-    private final WorkflowDefinitionRepository workflowRepository;
+    private final WorkflowDefinitionCache definitionCache;
     private final WorkflowScheduler workflowScheduler;
     private final KafkaTriggerManager kafkaTriggerManager;
     private final WorkflowRunHelper runHelper;
     private final WorkflowExecutionHelper executionHelper;
-
-    // Track running workflow threads for cancellation
-    private final Map<String, Thread> runningExecutions = new ConcurrentHashMap<>();
+    private final ExecutionCancellationRegistry cancellationRegistry;
+    private final NodeResultStore nodeResultStore;
 
     /**
      * Execute a workflow by ID (creates a new Run for MANUAL triggers)
      */
     public Object executeWorkflow(String workflowId, Object input) {
-        return executeWorkflow(workflowId, input, null, WorkflowRun.TriggerType.MANUAL);
+        return executeWorkflow(workflowId, input, null, WorkflowRun.TriggerType.MANUAL, null);
     }
 
     /**
@@ -52,7 +54,7 @@ public class WorkflowExecutionService {
      */
     @Transactional
     public void executeWorkflowWithRun(String workflowId, Object input, String runId) {
-        executeWorkflow(workflowId, input, runId, null);
+        executeWorkflow(workflowId, input, runId, null, null);
     }
 
     /**
@@ -74,14 +76,23 @@ public class WorkflowExecutionService {
      */
     @Transactional
     public void executeWorkflowByTrigger(String workflowId, Object input, WorkflowRun.TriggerType triggerType) {
-        executeWorkflow(workflowId, input, null, triggerType);
+        executeWorkflowByTrigger(workflowId, input, triggerType, null);
+    }
+
+    /**
+     * Execute a triggered workflow under an execution id assigned at ingestion time
+     */
+    @Transactional
+    public void executeWorkflowByTrigger(String workflowId, Object input, WorkflowRun.TriggerType triggerType,
+            String executionId) {
+        executeWorkflow(workflowId, input, null, triggerType, executionId);
     }
 
     /**
      * Core execution logic
      */
     private Object executeWorkflow(String workflowId, Object input, String existingRunId,
-            WorkflowRun.TriggerType triggerType) {
+            WorkflowRun.TriggerType triggerType, String executionId) {
         log.info(LOG_STARTING_EXECUTION, workflowId);
         WorkflowDefinition workflow = resolveWorkflow(workflowId);
 
@@ -90,47 +101,52 @@ public class WorkflowExecutionService {
             return Map.of(KEY_SKIPPED, true, KEY_REASON, REASON_RUN_STOPPED);
         }
 
-        return runWorkflowLogic(workflow, input, run, triggerType);
+        return runWorkflowLogic(workflow, input, run, triggerType, executionId);
     }
 
     private WorkflowDefinition resolveWorkflow(String workflowId) {
-        return workflowRepository.findByIdAndActiveTrue(workflowId)
+        return definitionCache.getActive(workflowId)
                 .orElseThrow(() -> new WorkflowNotFoundException(workflowId));
     }
 
     private Object runWorkflowLogic(WorkflowDefinition workflow, Object input, WorkflowRun run,
-            WorkflowRun.TriggerType triggerType) {
-        WorkflowExecution execution = executionHelper.createExecution(workflow.getId(), run.getId());
-        runningExecutions.put(execution.getId(), Thread.currentThread());
+            WorkflowRun.TriggerType triggerType, String executionId) {
+        WorkflowExecution execution = executionHelper.createExecution(workflow, run.getId(), executionId, input);
+        CancellationToken cancellationToken = cancellationRegistry.register(execution.getId());
+        NodeResultSink resultSink = nodeResultStore.open(execution);
         boolean failed = false;
 
         try {
-            var runResult = workflowEngine.run(workflow, input, run.getId());
+            var runResult = workflowEngine.run(workflow, input, run.getId(), execution.getId(), cancellationToken,
+                    resultSink);
+            resultSink.flush();
             executionHelper.completeExecution(execution, runResult);
             runHelper.handleOneTimeWorkflowCompletion(run, workflow, triggerType);
 
             return Map.of(
                     KEY_RUN_ID, run.getId(),
                     KEY_OUTPUT, runResult.getOutput() != null ? runResult.getOutput() : DEFAULT_NULL,
-                    KEY_EXECUTED_NODES, runResult.getExecutedNodeIds());
+                    KEY_EXECUTED_NODES, runResult.getExecutedNodeIds(),
+                    KEY_EXECUTED_NODE_COUNT, runResult.getExecutedNodeCount());
         } catch (Exception e) {
             failed = true;
-            executionHelper.failExecution(execution, e, Thread.currentThread().isInterrupted());
+            resultSink.flush();
+            executionHelper.failExecution(execution, e, e instanceof ExecutionCancelledException);
             throw e;
         } finally {
-            runningExecutions.remove(execution.getId());
+            cancellationRegistry.unregister(execution.getId());
             runHelper.updateRunStats(run, failed);
         }
     }
 
+    /**
+     * Cancel local executions directly; the CANCELLED record reaches the
+     * executions running on other instances via {@link ExecutionCancellationRegistry}.
+     */
     private void cancelRunningExecutions(String workflowId) {
         List<WorkflowExecution> runningExecutionsList = executionHelper.findRunningExecutions(workflowId);
         for (WorkflowExecution execution : runningExecutionsList) {
-            Thread thread = runningExecutions.get(execution.getId());
-            if (thread != null) {
-                log.info(LOG_INTERRUPTING_THREAD, execution.getId());
-                thread.interrupt();
-            }
+            cancellationRegistry.cancel(execution.getId(), ERR_STOPPED_BY_USER);
             executionHelper.cancelExecutionRecord(execution, ERR_STOPPED_BY_USER);
         }
     }
@@ -1,30 +1,28 @@
 package dev.base.workflow.service.execution;
 
 import dev.base.workflow.constant.WorkflowConstants;
-import dev.base.workflow.domain.event.WorkflowScheduledEvent;
 import dev.base.workflow.model.nodetype.TriggerNodeType;
 import dev.base.workflow.mongo.collection.NodeDefinition;
 import dev.base.workflow.mongo.collection.WorkflowDefinition;
+import dev.base.workflow.service.cluster.ClusterMembershipService;
+import dev.base.workflow.service.execution.cron.CronEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.scheduling.TaskScheduler;
-import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
+import java.util.Set;
 
+/**
+ * Registers CRON trigger nodes with the {@link CronEngine}.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WorkflowScheduler {
 
-    private final Map<String, ScheduledFuture<?>> scheduledTasks = new ConcurrentHashMap<>();
-    private final TaskScheduler taskScheduler;
-    private final ApplicationEventPublisher eventPublisher;
+    private final CronEngine cronEngine;
+    private final ClusterMembershipService membershipService;
 
     public void scheduleWorkflow(WorkflowDefinition workflow) {
         String workflowId = workflow.getId();
@@ -74,34 +72,32 @@ public class WorkflowScheduler {
     }
 
     public void unscheduleWorkflow(String workflowId) {
-        ScheduledFuture<?> future = scheduledTasks.remove(workflowId);
-        if (future != null) {
-            future.cancel(false);
-            log.info("Unschedulled workflow {}", workflowId);
+        if (cronEngine.unschedule(workflowId)) {
+            log.info("Unscheduled workflow {}", workflowId);
         }
     }
 
+    /**
+     * Schedule a workflow's cron; an existing schedule for the workflow is replaced.
+     * Skipped when another cluster member owns the workflow.
+     */
     public void scheduleCronTask(String workflowId, String cronExpression, String runId) {
-        // Critical: Cancel existing task to prevent duplicates/orphan threads
-        if (scheduledTasks.containsKey(workflowId)) {
-            log.warn("Workflow {} is already scheduled. Cancelling previous task before rescheduling.", workflowId);
+        if (!membershipService.isOwner(workflowId)) {
+            log.info("Workflow {} is owned by another instance, not scheduling cron here", workflowId);
             unscheduleWorkflow(workflowId);
+            return;
         }
-
-        Runnable task = () -> {
-            log.info("Cron Trigger Fired for workflow: {} with runId: {}", workflowId, runId);
-            eventPublisher.publishEvent(new WorkflowScheduledEvent(this, workflowId, runId));
-        };
-
-        ScheduledFuture<?> future = taskScheduler.schedule(task, new CronTrigger(cronExpression));
-        scheduledTasks.put(workflowId, future);
+        cronEngine.schedule(workflowId, cronExpression, runId);
     }
 
     /**
      * Check if a workflow is currently scheduled
      */
     public boolean isScheduled(String workflowId) {
-        ScheduledFuture<?> future = scheduledTasks.get(workflowId);
-        return future != null && !future.isCancelled() && !future.isDone();
+        return cronEngine.isScheduled(workflowId);
+    }
+
+    public Set<String> getScheduledWorkflowIds() {
+        return cronEngine.scheduledWorkflowIds();
     }
 }
@@ -0,0 +1,247 @@
+package dev.base.workflow.service.execution.cron;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.domain.event.CronBatchEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single-threaded cron engine.
+ *
+ * Next-fire times live in one min-heap, so a fire costs O(log n) regardless
+ * of how many workflows are scheduled. Everything due at the same tick is
+ * published as one {@link CronBatchEvent}. Parsed expressions are cached,
+ * rescheduling marks the old entry cancelled instead of searching the heap,
+ * and each workflow gets a stable jitter offset to spread fires that share a
+ * minute boundary.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CronEngine {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppConfig appConfig;
+
+    private final Map<String, CronExpression> expressionCache = new ConcurrentHashMap<>();
+    private final PriorityQueue<CronEntry> heap = new PriorityQueue<>(Comparator.comparingLong(e -> e.nextFireAtMs));
+    private final Map<String, CronEntry> entries = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private int cancelledInHeap;
+    private Thread engineThread;
+
+    /**
+     * Schedule (or reschedule) a workflow; replaces any existing entry with a
+     * different expression or run, and is a no-op for an identical one.
+     */
+    public void schedule(String workflowId, String cronExpression, String runId) {
+        if (isScheduledAs(workflowId, cronExpression, runId)) {
+            return;
+        }
+        CronExpression expression = expressionCache.computeIfAbsent(cronExpression, CronExpression::parse);
+        CronEntry entry = new CronEntry(workflowId, runId, cronExpression, expression, jitterFor(workflowId));
+        entry.nextFireAtMs = nextFire(entry, System.currentTimeMillis());
+        if (entry.nextFireAtMs < 0) {
+            log.warn("Cron expression '{}' for workflow {} never fires", cronExpression, workflowId);
+            return;
+        }
+        lock.lock();
+        try {
+            cancelLocked(workflowId);
+            entries.put(workflowId, entry);
+            heap.add(entry);
+            ensureStarted();
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean unschedule(String workflowId) {
+        lock.lock();
+        try {
+            return cancelLocked(workflowId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isScheduled(String workflowId) {
+        lock.lock();
+        try {
+            return entries.containsKey(workflowId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Set<String> scheduledWorkflowIds() {
+        lock.lock();
+        try {
+            return Set.copyOf(entries.keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (engineThread != null) {
+            engineThread.interrupt();
+        }
+    }
+
+    private boolean isScheduledAs(String workflowId, String cronExpression, String runId) {
+        lock.lock();
+        try {
+            CronEntry existing = entries.get(workflowId);
+            return existing != null && existing.sameSchedule(cronExpression, runId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<CronBatchEvent.CronFire> fires = awaitDueFires();
+                if (!fires.isEmpty()) {
+                    eventPublisher.publishEvent(new CronBatchEvent(this, fires));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Cron engine failed to publish fires", e);
+            }
+        }
+        log.info("Cron engine stopped");
+    }
+
+    /**
+     * Block until the earliest entry is due, then pop every due entry and
+     * push it back with its next fire time.
+     */
+    private List<CronBatchEvent.CronFire> awaitDueFires() throws InterruptedException {
+        lock.lock();
+        try {
+            long waitMs = millisUntilNextFire();
+            while (waitMs > 0) {
+                changed.await(waitMs, TimeUnit.MILLISECONDS);
+                waitMs = millisUntilNextFire();
+            }
+            return popDue(System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long millisUntilNextFire() {
+        discardCancelledHead();
+        CronEntry head = heap.peek();
+        return head == null ? Long.MAX_VALUE : head.nextFireAtMs - System.currentTimeMillis();
+    }
+
+    /**
+     * Pop every entry due at {@code now} and push it back with its next fire
+     * time; the engine loop passes the wall clock.
+     */
+    List<CronBatchEvent.CronFire> popDue(long now) {
+        lock.lock();
+        try {
+            List<CronBatchEvent.CronFire> fires = new ArrayList<>();
+            long misfireThreshold = appConfig.getCron().getMisfireThresholdMs();
+            while (!heap.isEmpty() && heap.peek().nextFireAtMs <= now) {
+                CronEntry entry = heap.poll();
+                if (entry.cancelled) {
+                    cancelledInHeap--;
+                    continue;
+                }
+                boolean misfired = now - entry.nextFireAtMs > misfireThreshold;
+                if (!misfired || appConfig.getCron().getMisfirePolicy() == MisfirePolicy.FIRE_ONCE) {
+                    fires.add(new CronBatchEvent.CronFire(entry.workflowId, entry.runId, entry.nextFireAtMs));
+                } else {
+                    log.warn("Skipping misfired cron for workflow {} ({} ms late)", entry.workflowId,
+                            now - entry.nextFireAtMs);
+                }
+                reschedule(entry, now);
+            }
+            return fires;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reschedule(CronEntry entry, long now) {
+        entry.nextFireAtMs = nextFire(entry, now);
+        if (entry.nextFireAtMs < 0) {
+            entries.remove(entry.workflowId, entry);
+            return;
+        }
+        heap.add(entry);
+    }
+
+    private boolean cancelLocked(String workflowId) {
+        CronEntry previous = entries.remove(workflowId);
+        if (previous == null) {
+            return false;
+        }
+        previous.cancelled = true;
+        cancelledInHeap++;
+        if (cancelledInHeap > heap.size() / 2) {
+            heap.removeIf(entry -> entry.cancelled);
+            cancelledInHeap = 0;
+        }
+        return true;
+    }
+
+    private void discardCancelledHead() {
+        while (!heap.isEmpty() && heap.peek().cancelled) {
+            heap.poll();
+            cancelledInHeap--;
+        }
+    }
+
+    /**
+     * Next fire strictly after {@code afterMs} (jitter included), or -1 if none.
+     */
+    private long nextFire(CronEntry entry, long afterMs) {
+        ZonedDateTime base = Instant.ofEpochMilli(afterMs - entry.jitterMs).atZone(ZoneId.systemDefault());
+        ZonedDateTime next = entry.expression.next(base);
+        return next == null ? -1 : next.toInstant().toEpochMilli() + entry.jitterMs;
+    }
+
+    /**
+     * Stable per-workflow offset in [0, maxJitterMs).
+     */
+    private long jitterFor(String workflowId) {
+        long maxJitter = appConfig.getCron().getMaxJitterMs();
+        return maxJitter <= 0 ? 0 : Math.floorMod(workflowId.hashCode(), maxJitter);
+    }
+
+    private void ensureStarted() {
+        if (engineThread == null) {
+            engineThread = Thread.ofPlatform().name("cron-engine").daemon(true).start(this::runLoop);
+            log.info("Cron engine started");
+        }
+    }
+}
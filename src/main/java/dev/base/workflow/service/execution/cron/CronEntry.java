@@ -0,0 +1,32 @@
+package dev.base.workflow.service.execution.cron;
+
+import org.springframework.scheduling.support.CronExpression;
+
+import java.util.Objects;
+
+/**
+ * Heap entry for one scheduled workflow. Entries are never removed from the
+ * heap directly; cancelling marks them and the engine discards them lazily.
+ */
+class CronEntry {
+
+    final String workflowId;
+    final String runId;
+    final String expressionText;
+    final CronExpression expression;
+    final long jitterMs;
+    long nextFireAtMs;
+    volatile boolean cancelled;
+
+    CronEntry(String workflowId, String runId, String expressionText, CronExpression expression, long jitterMs) {
+        this.workflowId = workflowId;
+        this.runId = runId;
+        this.expressionText = expressionText;
+        this.expression = expression;
+        this.jitterMs = jitterMs;
+    }
+
+    boolean sameSchedule(String otherExpression, String otherRunId) {
+        return expressionText.equals(otherExpression) && Objects.equals(runId, otherRunId);
+    }
+}
@@ -0,0 +1,12 @@
+package dev.base.workflow.service.execution.cron;
+
+/**
+ * What to do with a cron fire that is overdue by more than the misfire threshold
+ * (e.g. after a long GC pause or while the engine thread was starved).
+ */
+public enum MisfirePolicy {
+    /** Fire once now, then resume the normal schedule. */
+    FIRE_ONCE,
+    /** Skip the missed fire and wait for the next scheduled time. */
+    SKIP
+}
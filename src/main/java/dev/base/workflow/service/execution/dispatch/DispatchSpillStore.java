@@ -0,0 +1,90 @@
+package dev.base.workflow.service.execution.dispatch;
+
+import dev.base.workflow.mongo.collection.SpilledTrigger;
+import dev.base.workflow.mongo.repository.SpilledTriggerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static dev.base.workflow.constant.WorkflowConstants.FIELD_SPILLED_AT;
+import static dev.base.workflow.constant.WorkflowConstants.FIELD_WORKFLOW_ID;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Mongo overflow for dispatch queues under the SPILL rejection policy.
+ */
+@Component
+@RequiredArgsConstructor
+class DispatchSpillStore {
+
+    private final SpilledTriggerRepository spillRepository;
+    private final MongoTemplate mongoTemplate;
+
+    void spill(DispatchTask task) {
+        SpilledTrigger spilled = SpilledTrigger.builder()
+                .workflowId(task.getWorkflowId())
+                .runId(task.getRunId())
+                .input(task.getInput())
+                .triggerType(task.getTriggerType())
+                .executionId(task.getExecutionId())
+                .spilledAt(LocalDateTime.now())
+                .build();
+        spillRepository.save(spilled);
+    }
+
+    /**
+     * Move up to {@code limit} of the oldest spilled tasks to {@code offer},
+     * oldest first. Each task is claimed with an atomic find-and-remove, so
+     * two reloaders never get the same one; a task the offer refuses is put
+     * back unchanged (same id and spill time) and ends the reload.
+     */
+    Reload reload(String workflowId, int limit, Predicate<DispatchTask> offer) {
+        Query oldest = new Query(where(FIELD_WORKFLOW_ID).is(workflowId))
+                .with(Sort.by(Sort.Direction.ASC, FIELD_SPILLED_AT));
+        int moved = 0;
+        while (moved < limit) {
+            SpilledTrigger spilled = mongoTemplate.findAndRemove(oldest, SpilledTrigger.class);
+            if (spilled == null) {
+                return new Reload(moved, true);
+            }
+            if (!offer.test(toTask(spilled))) {
+                spillRepository.save(spilled);
+                return new Reload(moved, false);
+            }
+            moved++;
+        }
+        return new Reload(moved, false);
+    }
+
+    /**
+     * Pending spill counts per workflow, used to resume after a restart.
+     */
+    Map<String, Long> pendingCounts() {
+        return mongoTemplate.findDistinct(new Query(), FIELD_WORKFLOW_ID, SpilledTrigger.class, String.class)
+                .stream()
+                .collect(Collectors.toMap(id -> id, spillRepository::countByWorkflowId));
+    }
+
+    /**
+     * @param drained whether the store had no more tasks for the workflow
+     */
+    record Reload(int moved, boolean drained) {
+    }
+
+    private DispatchTask toTask(SpilledTrigger spilled) {
+        return DispatchTask.builder()
+                .workflowId(spilled.getWorkflowId())
+                .runId(spilled.getRunId())
+                .input(spilled.getInput())
+                .triggerType(spilled.getTriggerType())
+                .executionId(spilled.getExecutionId())
+                .build();
+    }
+}
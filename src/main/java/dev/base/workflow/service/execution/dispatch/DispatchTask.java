@@ -0,0 +1,38 @@
+package dev.base.workflow.service.execution.dispatch;
+
+import dev.base.workflow.mongo.collection.WorkflowRun;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A single queued workflow execution.
+ * Either {@code runId} (cron ticks within an existing run) or
+ * {@code triggerType} (external triggers) is set.
+ */
+@Getter
+@Builder
+public class DispatchTask {
+
+    private final String workflowId;
+    private final String runId;
+    private final Object input;
+    private final WorkflowRun.TriggerType triggerType;
+
+    /** Pre-assigned execution id, returned to webhook callers before the run starts. */
+    private final String executionId;
+
+    /** Caller-supplied idempotency key (e.g. webhook Idempotency-Key header). */
+    private final String idempotencyKey;
+
+    /** Run locally without dedup, and complete only when the execution finishes. */
+    private final boolean pinned;
+
+    /** Completed once the execution finishes, is durably spilled, or is rejected. */
+    @Builder.Default
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    @Builder.Default
+    private final long enqueuedAtNanos = System.nanoTime();
+}
@@ -0,0 +1,154 @@
+package dev.base.workflow.service.execution.dispatch;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.mongo.collection.QueuedExecution;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Mongo-backed execution queue shared by all instances.
+ *
+ * Producers insert PENDING documents. Workers lease them by flipping the
+ * status to CLAIMED with their id and a lease expiry, extend leases while
+ * the executions run and delete documents once done. Leases that expire
+ * (crashed or partitioned worker) are put back to PENDING by any instance,
+ * up to {@code max-attempts} times; after that the request is parked as
+ * FAILED so one that keeps crashing its worker cannot take down the next.
+ */
+@Component
+@RequiredArgsConstructor
+class DistributedExecutionQueue {
+
+    private final MongoTemplate mongoTemplate;
+    private final AppConfig appConfig;
+
+    void enqueue(DispatchTask task) {
+        mongoTemplate.insert(QueuedExecution.builder()
+                .workflowId(task.getWorkflowId())
+                .runId(task.getRunId())
+                .input(task.getInput())
+                .triggerType(task.getTriggerType())
+                .executionId(task.getExecutionId())
+                .status(QueuedExecution.Status.PENDING)
+                .enqueuedAt(new Date())
+                .build());
+    }
+
+    /**
+     * Lease the oldest pending request with a single {@code findAndModify}.
+     */
+    Optional<QueuedExecution> claimOne(String workerId) {
+        Query oldestPending = new Query(where(FIELD_STATUS).is(QueuedExecution.Status.PENDING))
+                .with(Sort.by(FIELD_ENQUEUED_AT));
+        return Optional.ofNullable(mongoTemplate.findAndModify(oldestPending, claimUpdate(workerId, null),
+                FindAndModifyOptions.options().returnNew(true), QueuedExecution.class));
+    }
+
+    /**
+     * Lease up to {@code limit} pending requests in three round-trips: read
+     * candidate ids, stamp the still-pending ones with a fresh claim token
+     * (the status filter keeps two workers from leasing the same document),
+     * then read back what this worker won.
+     */
+    List<QueuedExecution> claimBatch(String workerId, int limit) {
+        Query candidates = new Query(where(FIELD_STATUS).is(QueuedExecution.Status.PENDING))
+                .with(Sort.by(FIELD_ENQUEUED_AT)).limit(limit);
+        candidates.fields().include(FIELD_MONGO_ID);
+        List<String> ids = mongoTemplate.find(candidates, QueuedExecution.class).stream()
+                .map(QueuedExecution::getId).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String claimToken = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(
+                new Query(where(FIELD_MONGO_ID).in(ids).and(FIELD_STATUS).is(QueuedExecution.Status.PENDING)),
+                claimUpdate(workerId, claimToken), QueuedExecution.class);
+        return mongoTemplate.find(new Query(where(FIELD_CLAIM_TOKEN).is(claimToken)), QueuedExecution.class);
+    }
+
+    /**
+     * Push the lease expiry of requests this worker still holds.
+     */
+    void extendLeases(String workerId, Collection<String> ids) {
+        mongoTemplate.updateMulti(
+                new Query(where(FIELD_MONGO_ID).in(ids).and(FIELD_CLAIMED_BY).is(workerId)),
+                new Update().set(FIELD_LEASE_EXPIRES_AT, leaseExpiry()), QueuedExecution.class);
+    }
+
+    void complete(String workerId, String id) {
+        mongoTemplate.remove(new Query(where(FIELD_MONGO_ID).is(id).and(FIELD_CLAIMED_BY).is(workerId)),
+                QueuedExecution.class);
+    }
+
+    /**
+     * Give a lease back without counting it as an attempt.
+     */
+    void release(String workerId, String id) {
+        mongoTemplate.updateFirst(new Query(where(FIELD_MONGO_ID).is(id).and(FIELD_CLAIMED_BY).is(workerId)),
+                pendingUpdate().inc(FIELD_ATTEMPTS, -1), QueuedExecution.class);
+    }
+
+    /**
+     * Park expired leases that used up their attempts as FAILED; returns how many were parked.
+     */
+    long parkExhausted() {
+        Query exhausted = new Query(where(FIELD_STATUS).is(QueuedExecution.Status.CLAIMED)
+                .and(FIELD_LEASE_EXPIRES_AT).lt(new Date())
+                .and(FIELD_ATTEMPTS).gte(appConfig.getDistributedQueue().getMaxAttempts()));
+        Update failed = new Update()
+                .set(FIELD_STATUS, QueuedExecution.Status.FAILED)
+                .unset(FIELD_CLAIMED_BY)
+                .unset(FIELD_CLAIM_TOKEN)
+                .unset(FIELD_LEASE_EXPIRES_AT);
+        return mongoTemplate.updateMulti(exhausted, failed, QueuedExecution.class).getModifiedCount();
+    }
+
+    /**
+     * Return the remaining expired leases to the queue; returns how many were requeued.
+     */
+    long requeueExpired() {
+        Query expired = new Query(where(FIELD_STATUS).is(QueuedExecution.Status.CLAIMED)
+                .and(FIELD_LEASE_EXPIRES_AT).lt(new Date()));
+        return mongoTemplate.updateMulti(expired, pendingUpdate(), QueuedExecution.class).getModifiedCount();
+    }
+
+    long pendingCount() {
+        return mongoTemplate.count(new Query(where(FIELD_STATUS).is(QueuedExecution.Status.PENDING)),
+                QueuedExecution.class);
+    }
+
+    private Update claimUpdate(String workerId, String claimToken) {
+        return new Update()
+                .set(FIELD_STATUS, QueuedExecution.Status.CLAIMED)
+                .set(FIELD_CLAIMED_BY, workerId)
+                .set(FIELD_CLAIM_TOKEN, claimToken)
+                .set(FIELD_LEASE_EXPIRES_AT, leaseExpiry())
+                .inc(FIELD_ATTEMPTS, 1);
+    }
+
+    private Update pendingUpdate() {
+        return new Update()
+                .set(FIELD_STATUS, QueuedExecution.Status.PENDING)
+                .unset(FIELD_CLAIMED_BY)
+                .unset(FIELD_CLAIM_TOKEN)
+                .unset(FIELD_LEASE_EXPIRES_AT);
+    }
+
+    private Date leaseExpiry() {
+        return new Date(System.currentTimeMillis() + appConfig.getDistributedQueue().getLeaseTtlMs());
+    }
+}
@@ -0,0 +1,291 @@
+package dev.base.workflow.service.execution.dispatch;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.exception.DispatchRejectedException;
+import dev.base.workflow.model.dto.DispatchStats;
+import dev.base.workflow.mongo.collection.WorkflowDefinition;
+import dev.base.workflow.service.execution.WorkflowExecutionService;
+import dev.base.workflow.service.management.WorkflowDefinitionCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static dev.base.workflow.constant.MetricConstants.*;
+import static dev.base.workflow.constant.WorkflowConstants.DEFAULT_OWNER_ID;
+
+/**
+ * Decouples trigger ingestion (cron ticks, Kafka polls) from execution.
+ *
+ * Each workflow has a bounded FIFO queue; a single dispatch loop asks the
+ * {@link FairShareScheduler} for the next task within the global, per-owner
+ * and per-workflow limits and runs it on a virtual thread. When a queue is
+ * full the configured {@link RejectionPolicy} applies.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionDispatcher {
+
+    private final WorkflowExecutionService executionService;
+    private final DispatchSpillStore spillStore;
+    private final DistributedExecutionQueue distributedQueue;
+    private final FairShareScheduler scheduler;
+    private final TriggerDeduplicator deduplicator;
+    private final WorkflowDefinitionCache definitionCache;
+    private final MeterRegistry meterRegistry;
+    private final AppConfig appConfig;
+
+    private final Map<String, WorkflowQueue> queues = new ConcurrentHashMap<>();
+    private final ExecutorService workerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private Thread dispatchThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        registerGauges();
+        dispatchThread = Thread.ofVirtual().name("workflow-dispatcher").start(this::dispatchLoop);
+        spillStore.pendingCounts().forEach((workflowId, count) -> {
+            queueFor(workflowId).spilled().set(count.intValue());
+            reloadSpilled(queueFor(workflowId));
+        });
+        log.info("Execution dispatcher started with max concurrency {}", appConfig.getDispatch().getMaxConcurrency());
+    }
+
+    /**
+     * Queue an execution. The returned future completes when the execution
+     * finishes, when the task has been durably spilled, handed to the
+     * distributed queue or recognised as a duplicate, or exceptionally when
+     * it is rejected or evicted. Pinned tasks always run here and complete
+     * only when the execution finishes.
+     */
+    public CompletableFuture<Void> submit(DispatchTask task) {
+        meterRegistry.counter(METRIC_DISPATCH_SUBMITTED).increment();
+        if (task.isPinned()) {
+            return dispatchLocal(task);
+        }
+        Optional<String> idempotencyKey = deduplicator.deriveKey(task);
+        if (idempotencyKey.isPresent() && !deduplicator.recordIfAbsent(task.getWorkflowId(), idempotencyKey.get())) {
+            log.info("Skipping duplicate trigger for workflow {} (key {})", task.getWorkflowId(), idempotencyKey.get());
+            task.getCompletion().complete(null);
+            return task.getCompletion();
+        }
+        idempotencyKey.ifPresent(key -> task.getCompletion().whenComplete((result, error) -> {
+            if (error instanceof DispatchRejectedException) {
+                deduplicator.forget(key);
+            }
+        }));
+
+        if (appConfig.getDistributedQueue().isEnabled()) {
+            distributedQueue.enqueue(task);
+            task.getCompletion().complete(null);
+            return task.getCompletion();
+        }
+        return dispatchLocal(task);
+    }
+
+    /**
+     * Queue an execution on this instance, bypassing dedup and the distributed queue.
+     */
+    CompletableFuture<Void> dispatchLocal(DispatchTask task) {
+        WorkflowQueue queue = queueFor(task.getWorkflowId());
+
+        switch (appConfig.getDispatch().getRejectionPolicy()) {
+            case DROP_OLDEST -> admitDroppingOldest(queue, task);
+            case BLOCK -> admitBlocking(queue, task);
+            case SPILL -> {
+                if (task.isPinned()) {
+                    admitBlocking(queue, task);
+                } else {
+                    admitSpilling(queue, task);
+                }
+            }
+        }
+        return task.getCompletion();
+    }
+
+    public DispatchStats getStats() {
+        return DispatchStats.builder()
+                .maxConcurrency(appConfig.getDispatch().getMaxConcurrency())
+                .maxPerOwner(appConfig.getDispatch().getMaxPerOwner())
+                .maxPerWorkflow(appConfig.getDispatch().getMaxPerWorkflow())
+                .inFlight(scheduler.inFlight())
+                .owners(scheduler.ownerStats())
+                .workflows(queues.values().stream().map(this::toStats).toList())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatchThread != null) {
+            dispatchThread.interrupt();
+        }
+        if (appConfig.getDispatch().getRejectionPolicy() == RejectionPolicy.SPILL) {
+            queues.values().forEach(queue -> queue.drainAll().forEach(spillStore::spill));
+        }
+        workerExecutor.shutdown();
+    }
+
+    private void admitDroppingOldest(WorkflowQueue queue, DispatchTask task) {
+        DispatchTask evicted = queue.offerEvictingOldest(task);
+        scheduler.signalWork(queue);
+        if (evicted != null) {
+            reject(evicted, "evicted by newer trigger");
+        }
+    }
+
+    private void admitBlocking(WorkflowQueue queue, DispatchTask task) {
+        try {
+            if (queue.offerBlocking(task, appConfig.getDispatch().getBlockTimeoutMs())) {
+                scheduler.signalWork(queue);
+            } else {
+                reject(task, "queue full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(task, "interrupted while waiting for queue space");
+        }
+    }
+
+    private void admitSpilling(WorkflowQueue queue, DispatchTask task) {
+        // Once anything is spilled, keep spilling so reloads preserve FIFO order
+        if (queue.spilled().get() == 0 && queue.tryOffer(task)) {
+            scheduler.signalWork(queue);
+            return;
+        }
+        spillStore.spill(task);
+        queue.spilled().incrementAndGet();
+        meterRegistry.counter(METRIC_DISPATCH_REJECTED, TAG_POLICY, RejectionPolicy.SPILL.name()).increment();
+        task.getCompletion().complete(null);
+        reloadSpilled(queue);
+    }
+
+    private void reject(DispatchTask task, String reason) {
+        RejectionPolicy policy = appConfig.getDispatch().getRejectionPolicy();
+        meterRegistry.counter(METRIC_DISPATCH_REJECTED, TAG_POLICY, policy.name()).increment();
+        log.warn("Dropping trigger for workflow {} ({}, policy {})", task.getWorkflowId(), reason, policy);
+        task.getCompletion().completeExceptionally(new DispatchRejectedException(task.getWorkflowId(), reason));
+    }
+
+    /**
+     * The only dispatch thread: an unexpected error is logged and the loop
+     * carries on, otherwise every trigger would queue up forever.
+     */
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            FairShareScheduler.Lease lease;
+            try {
+                lease = scheduler.next();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                continue;
+            } catch (RuntimeException e) {
+                log.error("Dispatch loop failed to pick the next task", e);
+                continue;
+            }
+            try {
+                workerExecutor.execute(() -> execute(lease));
+            } catch (RuntimeException e) {
+                log.error("Could not start dispatched execution for workflow: {}", lease.task().getWorkflowId(), e);
+                scheduler.release(lease);
+                lease.task().getCompletion().completeExceptionally(e);
+            }
+        }
+        log.info("Execution dispatcher stopped");
+    }
+
+    private void execute(FairShareScheduler.Lease lease) {
+        DispatchTask task = lease.task();
+        meterRegistry.timer(METRIC_DISPATCH_WAIT)
+                .record(Duration.ofNanos(System.nanoTime() - task.getEnqueuedAtNanos()));
+        try {
+            runTask(task);
+            task.getCompletion().complete(null);
+        } catch (Exception e) {
+            log.error("Dispatched execution failed for workflow: {}", task.getWorkflowId(), e);
+            task.getCompletion().completeExceptionally(e);
+        } finally {
+            scheduler.release(lease);
+            reloadSpilled(lease.queue());
+        }
+    }
+
+    private void runTask(DispatchTask task) {
+        if (task.getRunId() != null) {
+            executionService.executeWorkflowWithRun(task.getWorkflowId(), task.getInput(), task.getRunId());
+        } else {
+            executionService.executeWorkflowByTrigger(task.getWorkflowId(), task.getInput(), task.getTriggerType(),
+                    task.getExecutionId());
+        }
+    }
+
+    /**
+     * Move spilled tasks back into memory once the queue has drained to half capacity.
+     */
+    private void reloadSpilled(WorkflowQueue queue) {
+        if (queue.spilled().get() == 0 || queue.size() > queue.capacity() / 2
+                || !queue.reloading().compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int batch = Math.min(queue.capacity() - queue.size(), appConfig.getDispatch().getSpillReloadBatch());
+            DispatchSpillStore.Reload reload = spillStore.reload(queue.getWorkflowId(), batch, queue::tryOffer);
+            scheduler.signalWork(queue);
+            queue.spilled().updateAndGet(count -> reload.drained() ? 0 : Math.max(0, count - reload.moved()));
+        } catch (Exception e) {
+            log.error("Failed to reload spilled triggers for workflow: {}", queue.getWorkflowId(), e);
+        } finally {
+            queue.reloading().set(false);
+        }
+    }
+
+    private WorkflowQueue queueFor(String workflowId) {
+        WorkflowQueue queue = queues.get(workflowId);
+        if (queue != null) {
+            return queue;
+        }
+        String ownerId = resolveOwner(workflowId);
+        return queues.computeIfAbsent(workflowId,
+                id -> new WorkflowQueue(id, ownerId, appConfig.getDispatch().getQueueCapacity()));
+    }
+
+    private String resolveOwner(String workflowId) {
+        try {
+            return definitionCache.getActive(workflowId)
+                    .map(WorkflowDefinition::getOwnerId)
+                    .orElse(DEFAULT_OWNER_ID);
+        } catch (Exception e) {
+            log.warn("Could not resolve owner of workflow {}, using shared pool", workflowId, e);
+            return DEFAULT_OWNER_ID;
+        }
+    }
+
+    private DispatchStats.WorkflowStats toStats(WorkflowQueue queue) {
+        return DispatchStats.WorkflowStats.builder()
+                .workflowId(queue.getWorkflowId())
+                .ownerId(queue.getOwnerId())
+                .inFlight(queue.inFlight)
+                .queued(queue.size())
+                .spilled(queue.spilled().get())
+                .build();
+    }
+
+    private void registerGauges() {
+        Gauge.builder(METRIC_DISPATCH_QUEUED, queues,
+                q -> q.values().stream().mapToInt(WorkflowQueue::size).sum()).register(meterRegistry);
+        Gauge.builder(METRIC_DISPATCH_SPILLED_PENDING, queues,
+                q -> q.values().stream().mapToInt(queue -> queue.spilled().get()).sum()).register(meterRegistry);
+        Gauge.builder(METRIC_DISPATCH_IN_FLIGHT, scheduler, FairShareScheduler::inFlight).register(meterRegistry);
+    }
+}
@@ -0,0 +1,159 @@
+package dev.base.workflow.service.execution.dispatch;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.exception.DispatchRejectedException;
+import dev.base.workflow.mongo.collection.QueuedExecution;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static dev.base.workflow.constant.MetricConstants.*;
+
+/**
+ * Worker side of the {@link DistributedExecutionQueue}: leases queued
+ * requests in batches while this instance has room, runs them through the
+ * local {@link ExecutionDispatcher} and deletes them once finished.
+ * Held leases are extended by heartbeat; any instance requeues leases that
+ * expire, so work held by a dead worker is picked up elsewhere.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionQueueWorker {
+
+    private final DistributedExecutionQueue queue;
+    private final ExecutionDispatcher dispatcher;
+    private final MeterRegistry meterRegistry;
+    private final AppConfig appConfig;
+
+    private final String workerId = UUID.randomUUID().toString();
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+    private Thread workerThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        AppConfig.DistributedQueueConfig config = appConfig.getDistributedQueue();
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (config.isWorkerEnabled()) {
+            Gauge.builder(METRIC_QUEUE_HELD, held, Set::size).register(meterRegistry);
+            workerThread = Thread.ofVirtual().name("execution-queue-worker").start(this::pollLoop);
+            log.info("Execution queue worker {} started", workerId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.distributed-queue.heartbeat-interval-ms}")
+    public void heartbeat() {
+        if (!held.isEmpty()) {
+            queue.extendLeases(workerId, Set.copyOf(held));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.distributed-queue.reap-interval-ms}")
+    public void requeueExpired() {
+        if (!appConfig.getDistributedQueue().isEnabled()) {
+            return;
+        }
+        long parked = queue.parkExhausted();
+        if (parked > 0) {
+            meterRegistry.counter(METRIC_QUEUE_PARKED).increment(parked);
+            log.error("Parked {} executions as FAILED after {} expired leases", parked,
+                    appConfig.getDistributedQueue().getMaxAttempts());
+        }
+        long requeued = queue.requeueExpired();
+        if (requeued > 0) {
+            meterRegistry.counter(METRIC_QUEUE_REQUEUED).increment(requeued);
+            log.warn("Requeued {} executions with expired leases", requeued);
+        }
+    }
+
+    /**
+     * Leases still held are left to expire and be requeued elsewhere.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (workerThread != null) {
+            workerThread.interrupt();
+        }
+    }
+
+    private void pollLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<QueuedExecution> claimed = claim();
+                claimed.forEach(this::dispatch);
+                if (claimed.isEmpty()) {
+                    Thread.sleep(appConfig.getDistributedQueue().getPollIntervalMs());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Execution queue worker {} failed to claim work", workerId, e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private List<QueuedExecution> claim() {
+        int limit = Math.min(appConfig.getDistributedQueue().getMaxInFlight() - held.size(),
+                appConfig.getDistributedQueue().getClaimBatchSize());
+        if (limit <= 0) {
+            return List.of();
+        }
+        List<QueuedExecution> claimed = limit == 1
+                ? queue.claimOne(workerId).map(List::of).orElse(List.of())
+                : queue.claimBatch(workerId, limit);
+        meterRegistry.counter(METRIC_QUEUE_CLAIMED).increment(claimed.size());
+        return claimed;
+    }
+
+    private void dispatch(QueuedExecution request) {
+        held.add(request.getId());
+        DispatchTask task = DispatchTask.builder()
+                .workflowId(request.getWorkflowId())
+                .runId(request.getRunId())
+                .input(request.getInput())
+                .triggerType(request.getTriggerType())
+                .executionId(request.getExecutionId())
+                .build();
+        dispatcher.dispatchLocal(task).whenComplete((result, error) -> settle(request.getId(), error));
+    }
+
+    /**
+     * Delete the request once it ran (successfully or not); give it back if
+     * this instance rejected it.
+     */
+    private void settle(String id, Throwable error) {
+        try {
+            if (error instanceof DispatchRejectedException) {
+                queue.release(workerId, id);
+            } else {
+                queue.complete(workerId, id);
+            }
+        } catch (Exception e) {
+            log.error("Failed to settle queued execution {}, its lease will expire", id, e);
+        } finally {
+            held.remove(id);
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(appConfig.getDistributedQueue().getPollIntervalMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
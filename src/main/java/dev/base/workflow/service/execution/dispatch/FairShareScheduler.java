@@ -0,0 +1,198 @@
+package dev.base.workflow.service.execution.dispatch;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.model.dto.DispatchStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Picks the next task to run across all workflow queues.
+ *
+ * Enforces the global, per-owner and per-workflow concurrency limits and
+ * shares capacity between owners with weighted fair queuing: every dispatch
+ * advances the owner's virtual time by {@code 1 / weight} and the eligible
+ * owner with the lowest virtual time goes next. Owners returning from idle
+ * start at the current virtual clock, so idling does not bank credit.
+ * Within an owner, workflows are served round-robin.
+ */
+@Component
+@RequiredArgsConstructor
+public class FairShareScheduler {
+
+    private final AppConfig appConfig;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, OwnerShare> owners = new HashMap<>();
+    private double virtualClock;
+    private int inFlight;
+
+    /**
+     * A task selected for execution; hand it back via {@link #release(Lease)}.
+     */
+    record Lease(WorkflowQueue queue, DispatchTask task) {
+    }
+
+    /**
+     * Make a queue that just received work eligible for selection.
+     */
+    void signalWork(WorkflowQueue queue) {
+        lock.lock();
+        try {
+            if (!queue.linked) {
+                OwnerShare owner = owners.computeIfAbsent(queue.getOwnerId(), this::newOwner);
+                if (owner.isIdle()) {
+                    owner.virtualTime = Math.max(owner.virtualTime, virtualClock);
+                }
+                queue.linked = true;
+                owner.active.addLast(queue);
+            }
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until some task may run within all limits.
+     */
+    Lease next() throws InterruptedException {
+        lock.lock();
+        try {
+            Lease lease = selectFair();
+            while (lease == null) {
+                changed.await();
+                lease = selectFair();
+            }
+            return lease;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(Lease lease) {
+        lock.lock();
+        try {
+            inFlight--;
+            lease.queue().inFlight--;
+            owners.get(lease.queue().getOwnerId()).inFlight--;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<DispatchStats.OwnerStats> ownerStats() {
+        lock.lock();
+        try {
+            return owners.values().stream()
+                    .map(owner -> DispatchStats.OwnerStats.builder()
+                            .ownerId(owner.ownerId)
+                            .weight(owner.weight)
+                            .inFlight(owner.inFlight)
+                            .queued(owner.active.stream().mapToInt(WorkflowQueue::size).sum())
+                            .build())
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lease selectFair() {
+        if (inFlight >= appConfig.getDispatch().getMaxConcurrency()) {
+            return null;
+        }
+        OwnerShare best = null;
+        WorkflowQueue bestQueue = null;
+        for (OwnerShare owner : owners.values()) {
+            if (owner.inFlight >= appConfig.getDispatch().getMaxPerOwner()
+                    || (best != null && owner.virtualTime >= best.virtualTime)) {
+                continue;
+            }
+            WorkflowQueue queue = owner.eligibleQueue(appConfig.getDispatch().getMaxPerWorkflow());
+            if (queue != null) {
+                best = owner;
+                bestQueue = queue;
+            }
+        }
+        return best != null ? dispatch(best, bestQueue) : null;
+    }
+
+    private Lease dispatch(OwnerShare owner, WorkflowQueue queue) {
+        DispatchTask task = queue.poll();
+        owner.active.remove(queue);
+        if (queue.size() > 0) {
+            owner.active.addLast(queue);
+        } else {
+            queue.linked = false;
+        }
+        if (task == null) {
+            return null;
+        }
+        virtualClock = owner.virtualTime;
+        owner.virtualTime += 1.0 / owner.weight;
+        owner.inFlight++;
+        queue.inFlight++;
+        inFlight++;
+        return new Lease(queue, task);
+    }
+
+    private OwnerShare newOwner(String ownerId) {
+        int weight = appConfig.getDispatch().getOwnerWeights()
+                .getOrDefault(ownerId, appConfig.getDispatch().getDefaultOwnerWeight());
+        return new OwnerShare(ownerId, Math.max(1, weight));
+    }
+
+    private static class OwnerShare {
+        final String ownerId;
+        final int weight;
+        final Deque<WorkflowQueue> active = new ArrayDeque<>();
+        double virtualTime;
+        int inFlight;
+
+        OwnerShare(String ownerId, int weight) {
+            this.ownerId = ownerId;
+            this.weight = weight;
+        }
+
+        boolean isIdle() {
+            return active.isEmpty() && inFlight == 0;
+        }
+
+        /**
+         * First queue with pending work below the per-workflow limit;
+         * queues found empty are unlinked on the way.
+         */
+        WorkflowQueue eligibleQueue(int maxPerWorkflow) {
+            Iterator<WorkflowQueue> iterator = active.iterator();
+            while (iterator.hasNext()) {
+                WorkflowQueue queue = iterator.next();
+                if (queue.size() == 0) {
+                    queue.linked = false;
+                    iterator.remove();
+                } else if (queue.inFlight < maxPerWorkflow) {
+                    return queue;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.base.workflow.service.execution.dispatch;
+
+/**
+ * What the dispatcher does when a workflow's queue is full.
+ */
+public enum RejectionPolicy {
+    /** Evict the oldest queued task to make room for the new one. */
+    DROP_OLDEST,
+    /** Block the submitting thread until space frees up or the timeout expires. */
+    BLOCK,
+    /** Park the task in Mongo and reload it once the queue drains. */
+    SPILL
+}
@@ -0,0 +1,218 @@
+package dev.base.workflow.service.execution.dispatch;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.domain.engine.ExpressionEvaluator;
+import dev.base.workflow.model.nodetype.TriggerNodeType;
+import dev.base.workflow.mongo.collection.NodeDefinition;
+import dev.base.workflow.mongo.collection.TriggerKey;
+import dev.base.workflow.mongo.collection.WorkflowRun;
+import dev.base.workflow.service.management.WorkflowDefinitionCache;
+import dev.base.workflow.util.BloomFilter;
+import dev.base.workflow.util.StringUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static dev.base.workflow.constant.KafkaConstants.CFG_TOPIC;
+import static dev.base.workflow.constant.KafkaConstants.KEY_OFFSET;
+import static dev.base.workflow.constant.KafkaConstants.KEY_PARTITION;
+import static dev.base.workflow.constant.MetricConstants.*;
+import static dev.base.workflow.constant.WorkflowConstants.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Drops triggers whose idempotency key was already admitted within the
+ * dedup window.
+ *
+ * Keys come from an explicit idempotency key (webhook header), a
+ * {@code dedupKey} template on the trigger node, or Kafka coordinates
+ * (topic/partition/offset). A key is admitted by claiming its document in
+ * {@code trigger_keys} with a single upsert keyed on {@code _id}: the unique
+ * id makes the claim atomic across instances, and an expired document left
+ * for the TTL monitor is taken over. Every key this instance has not seen
+ * therefore costs one synchronous upsert on the caller's thread. A pair of
+ * rotating Bloom filters only speeds up repeats: a key this instance already
+ * admitted costs one indexed lookup instead of a failed write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TriggerDeduplicator {
+
+    private final MongoTemplate mongoTemplate;
+    private final WorkflowDefinitionCache definitionCache;
+    private final ExpressionEvaluator expressionEvaluator;
+    private final MeterRegistry meterRegistry;
+    private final AppConfig appConfig;
+
+    private final Object rotationLock = new Object();
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile long rotatedAt;
+
+    @PostConstruct
+    public void init() {
+        current = newFilter();
+        previous = newFilter();
+        rotatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Ensure the TTL index and load unexpired keys into the filter.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!appConfig.getDedup().isEnabled()) {
+            return;
+        }
+        mongoTemplate.indexOps(TriggerKey.class)
+                .createIndex(new Index().on(FIELD_EXPIRE_AT, Sort.Direction.ASC).expire(0, TimeUnit.SECONDS));
+
+        Query live = new Query(where(FIELD_EXPIRE_AT).gt(new Date()));
+        live.fields().include(FIELD_MONGO_ID);
+        AtomicLong loaded = new AtomicLong();
+        try (Stream<TriggerKey> keys = mongoTemplate.stream(live, TriggerKey.class)) {
+            keys.forEach(key -> {
+                current.put(key.getKey());
+                loaded.incrementAndGet();
+            });
+        }
+        log.info("Trigger dedup filter warmed up with {} keys", loaded.get());
+    }
+
+    /**
+     * Idempotency key for the task, or empty when the task is not deduplicated
+     * (dedup disabled, cron ticks, or no key source).
+     */
+    public Optional<String> deriveKey(DispatchTask task) {
+        if (!appConfig.getDedup().isEnabled() || task.getRunId() != null) {
+            return Optional.empty();
+        }
+        String key = task.getIdempotencyKey() != null
+                ? task.getIdempotencyKey()
+                : expressionKey(task).orElseGet(() -> kafkaKey(task));
+        return Optional.ofNullable(key)
+                .map(value -> StringUtils.concat(task.getWorkflowId(), DEDUP_KEY_SEPARATOR, value));
+    }
+
+    /**
+     * Record the key; returns false when it was already admitted here or on
+     * another instance.
+     */
+    public boolean recordIfAbsent(String workflowId, String key) {
+        rotateIfDue();
+        boolean maybeSeen = current.mightContain(key) || previous.mightContain(key);
+        if (maybeSeen && existsLive(key)) {
+            meterRegistry.counter(METRIC_DEDUP_DUPLICATES).increment();
+            return false;
+        }
+        if (maybeSeen) {
+            meterRegistry.counter(METRIC_DEDUP_FALSE_POSITIVES).increment();
+        }
+        if (!claim(workflowId, key)) {
+            meterRegistry.counter(METRIC_DEDUP_DUPLICATES).increment();
+            current.put(key);
+            return false;
+        }
+        current.put(key);
+        return true;
+    }
+
+    /**
+     * Release a key whose trigger never ran (e.g. rejected by the dispatcher)
+     * or is about to be redelivered after failing, so the redelivery is admitted.
+     */
+    public void forget(String key) {
+        mongoTemplate.remove(new Query(where(FIELD_MONGO_ID).is(key)), TriggerKey.class);
+    }
+
+    /**
+     * Upsert matching only a missing or expired key. A live key makes the
+     * upsert attempt an insert on an existing {@code _id}, which fails.
+     */
+    private boolean claim(String workflowId, String key) {
+        Date now = new Date();
+        Query unclaimed = new Query(where(FIELD_MONGO_ID).is(key).and(FIELD_EXPIRE_AT).lte(now));
+        Update update = new Update()
+                .set(FIELD_WORKFLOW_ID, workflowId)
+                .set(FIELD_EXPIRE_AT, new Date(now.getTime() + appConfig.getDedup().getTtlMs()));
+        try {
+            mongoTemplate.upsert(unclaimed, update, TriggerKey.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private boolean existsLive(String key) {
+        return mongoTemplate.exists(new Query(where(FIELD_MONGO_ID).is(key).and(FIELD_EXPIRE_AT).gt(new Date())),
+                TriggerKey.class);
+    }
+
+    /**
+     * Every key admitted within the last TTL is in {@code current} or {@code previous}.
+     */
+    private void rotateIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - rotatedAt < appConfig.getDedup().getTtlMs()) {
+            return;
+        }
+        synchronized (rotationLock) {
+            if (now - rotatedAt >= appConfig.getDedup().getTtlMs()) {
+                previous = current;
+                current = newFilter();
+                rotatedAt = now;
+            }
+        }
+    }
+
+    private Optional<String> expressionKey(DispatchTask task) {
+        String template = triggerNodeConfig(task).map(config -> (String) config.get(CFG_DEDUP_KEY)).orElse(null);
+        if (template == null || template.isBlank()) {
+            return Optional.empty();
+        }
+        String key = expressionEvaluator.parseTemplate(template, task.getInput(), null);
+        return key == null || key.isBlank() ? Optional.empty() : Optional.of(key);
+    }
+
+    private String kafkaKey(DispatchTask task) {
+        if (task.getTriggerType() != WorkflowRun.TriggerType.KAFKA || !(task.getInput() instanceof Map<?, ?> input)) {
+            return null;
+        }
+        return StringUtils.concat(input.get(CFG_TOPIC), DEDUP_KEY_SEPARATOR, input.get(KEY_PARTITION),
+                DEDUP_KEY_SEPARATOR, input.get(KEY_OFFSET));
+    }
+
+    private Optional<Map<String, Object>> triggerNodeConfig(DispatchTask task) {
+        if (task.getTriggerType() == null || task.getTriggerType() == WorkflowRun.TriggerType.MANUAL) {
+            return Optional.empty();
+        }
+        String nodeType = TriggerNodeType.valueOf(task.getTriggerType().name()).getName();
+        return definitionCache.getActive(task.getWorkflowId())
+                .flatMap(workflow -> workflow.getNodes().stream()
+                        .filter(node -> nodeType.equals(node.getNodeType()))
+                        .findFirst())
+                .map(NodeDefinition::getConfig);
+    }
+
+    private BloomFilter newFilter() {
+        return BloomFilter.create(appConfig.getDedup().getExpectedKeys(), appConfig.getDedup().getFalsePositiveRate());
+    }
+}
@@ -0,0 +1,132 @@
+package dev.base.workflow.service.execution.dispatch;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded FIFO of pending tasks for one workflow.
+ * Task storage is guarded by the queue's own lock; {@code linked} and
+ * {@code inFlight} belong to the {@link FairShareScheduler} and are only
+ * touched under its lock.
+ */
+class WorkflowQueue {
+
+    private final String workflowId;
+    private final String ownerId;
+    private final int capacity;
+    private final Deque<DispatchTask> tasks = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicInteger spilled = new AtomicInteger();
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    boolean linked;
+    int inFlight;
+
+    WorkflowQueue(String workflowId, String ownerId, int capacity) {
+        this.workflowId = workflowId;
+        this.ownerId = ownerId;
+        this.capacity = capacity;
+    }
+
+    String getWorkflowId() {
+        return workflowId;
+    }
+
+    String getOwnerId() {
+        return ownerId;
+    }
+
+    boolean tryOffer(DispatchTask task) {
+        lock.lock();
+        try {
+            if (tasks.size() >= capacity) {
+                return false;
+            }
+            tasks.addLast(task);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean offerBlocking(DispatchTask task, long timeoutMs) throws InterruptedException {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        lock.lock();
+        try {
+            while (tasks.size() >= capacity) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+            tasks.addLast(task);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append the task, evicting and returning the oldest one if the queue is full.
+     */
+    DispatchTask offerEvictingOldest(DispatchTask task) {
+        lock.lock();
+        try {
+            DispatchTask evicted = tasks.size() >= capacity ? tasks.pollFirst() : null;
+            tasks.addLast(task);
+            return evicted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    DispatchTask poll() {
+        lock.lock();
+        try {
+            DispatchTask task = tasks.pollFirst();
+            notFull.signal();
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Deque<DispatchTask> drainAll() {
+        lock.lock();
+        try {
+            Deque<DispatchTask> drained = new ArrayDeque<>(tasks);
+            tasks.clear();
+            notFull.signalAll();
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    AtomicInteger spilled() {
+        return spilled;
+    }
+
+    AtomicBoolean reloading() {
+        return reloading;
+    }
+}
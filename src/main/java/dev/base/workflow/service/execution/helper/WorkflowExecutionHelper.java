@@ -1,16 +1,21 @@
 package dev.base.workflow.service.execution.helper;
 
 import dev.base.workflow.domain.engine.WorkflowRunResult;
+import dev.base.workflow.domain.event.ExecutionStateChangedEvent;
 import dev.base.workflow.model.core.ExecutionStatus;
-import dev.base.workflow.mongo.collection.NodeExecutionResult;
+import dev.base.workflow.mongo.collection.WorkflowDefinition;
 import dev.base.workflow.mongo.collection.WorkflowExecution;
-import dev.base.workflow.mongo.repository.NodeExecutionResultRepository;
 import dev.base.workflow.mongo.repository.WorkflowExecutionRepository;
+import dev.base.workflow.service.retention.RetentionPolicy;
+import dev.base.workflow.service.storage.PayloadStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
 
 import static dev.base.workflow.constant.WorkflowErrorConstants.ERR_EXECUTION_CANCELLED;
@@ -24,30 +29,37 @@ import static dev.base.workflow.constant.WorkflowErrorConstants.ERR_EXECUTION_CA
 public class WorkflowExecutionHelper {
 
     private final WorkflowExecutionRepository executionRepository;
-    private final NodeExecutionResultRepository nodeResultRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PayloadStore payloadStore;
+    private final RetentionPolicy retentionPolicy;
 
-    public WorkflowExecution createExecution(String workflowId, String runId) {
+    /**
+     * Create the execution record, optionally under an id assigned upstream (e.g. at webhook ingestion).
+     * The input is stored encoded, like the result, and kept when the execution completes or fails.
+     */
+    public WorkflowExecution createExecution(WorkflowDefinition workflow, String runId, String executionId,
+                                             Object input) {
         WorkflowExecution execution = new WorkflowExecution();
-        execution.setWorkflowId(workflowId);
+        execution.setId(executionId);
+        execution.setWorkflowId(workflow.getId());
         execution.setRunId(runId);
         execution.setStatus(ExecutionStatus.RUNNING);
         execution.setStartedAt(LocalDateTime.now());
-        return executionRepository.save(execution);
+        execution.setExpireAt(retentionPolicy.expireAt(workflow, new Date()));
+        execution.setInput(payloadStore.encode(input, execution.getExpireAt()));
+        WorkflowExecution saved = executionRepository.save(execution);
+        publishStateChange(saved);
+        return saved;
     }
 
     public void completeExecution(WorkflowExecution execution, WorkflowRunResult result) {
         execution.setStatus(ExecutionStatus.COMPLETED);
         execution.setCompletedAt(LocalDateTime.now());
-        execution.setResult(result.getOutput());
+        execution.setResult(payloadStore.encode(result.getOutput(), execution.getExpireAt()));
         execution.setExecutedNodes(result.getExecutedNodeIds());
+        execution.setExecutedNodeCount(result.getExecutedNodeCount());
         executionRepository.save(execution);
-
-        // Save detailed node execution results
-        if (result.getNodeResults() != null) {
-            List<NodeExecutionResult> nodeResults = result.getNodeResults();
-            nodeResults.forEach(resultItem -> resultItem.setExecutionId(execution.getId()));
-            nodeResultRepository.saveAll(nodeResults);
-        }
+        publishStateChange(execution);
     }
 
     public void failExecution(WorkflowExecution execution, Exception e, boolean isInterrupted) {
@@ -60,6 +72,7 @@ public class WorkflowExecutionHelper {
         }
         execution.setCompletedAt(LocalDateTime.now());
         executionRepository.save(execution);
+        publishStateChange(execution);
     }
 
     public List<WorkflowExecution> findRunningExecutions(String workflowId) {
@@ -71,5 +84,19 @@ public class WorkflowExecutionHelper {
         execution.setCompletedAt(LocalDateTime.now());
         execution.setError(error);
         executionRepository.save(execution);
+        publishStateChange(execution);
+    }
+
+    private void publishStateChange(WorkflowExecution execution) {
+        eventPublisher.publishEvent(new ExecutionStateChangedEvent(this, execution.getWorkflowId(),
+                execution.getRunId(), execution.getId(), execution.getStatus(), execution.getError(),
+                durationOf(execution)));
+    }
+
+    private Long durationOf(WorkflowExecution execution) {
+        if (execution.getStartedAt() == null || execution.getCompletedAt() == null) {
+            return null;
+        }
+        return Duration.between(execution.getStartedAt(), execution.getCompletedAt()).toMillis();
     }
 }
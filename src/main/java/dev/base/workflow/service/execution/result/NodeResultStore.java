@@ -0,0 +1,91 @@
+package dev.base.workflow.service.execution.result;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.domain.engine.NodeResultSink;
+import dev.base.workflow.mongo.collection.NodeExecutionResult;
+import dev.base.workflow.mongo.collection.WorkflowExecution;
+import dev.base.workflow.service.storage.PayloadStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persists node results while a run is in progress.
+ *
+ * Each execution gets a sink that buffers at most {@code batch-size}
+ * results and bulk-inserts them, so heap use per run is bounded regardless
+ * of step count. What is stored follows {@link ResultRetention}; payloads
+ * are encoded by the {@link PayloadStore}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NodeResultStore {
+
+    private final MongoTemplate mongoTemplate;
+    private final PayloadStore payloadStore;
+    private final AppConfig appConfig;
+
+    public NodeResultSink open(WorkflowExecution execution) {
+        ResultRetention retention = appConfig.getNodeResults().getRetention();
+        return retention == ResultRetention.NONE ? NodeResultSink.DISCARD : new BufferedSink(execution, retention);
+    }
+
+    private NodeExecutionResult toStored(NodeExecutionResult result, WorkflowExecution execution,
+            ResultRetention retention) {
+        NodeExecutionResult stored = new NodeExecutionResult();
+        stored.setRunId(result.getRunId());
+        stored.setExecutionId(execution.getId());
+        stored.setExpireAt(execution.getExpireAt());
+        stored.setNodeId(result.getNodeId());
+        stored.setStatus(result.getStatus());
+        stored.setNextNodes(result.getNextNodes());
+        stored.setErrorMessage(result.getErrorMessage());
+        stored.setStartedAt(result.getStartedAt());
+        stored.setCompletedAt(result.getCompletedAt());
+        stored.setDuration(result.getDuration());
+        if (retention == ResultRetention.FULL) {
+            stored.setExecutionDetails(payloadStore.encode(result.getExecutionDetails(), execution.getExpireAt()));
+        }
+        return stored;
+    }
+
+    private void insert(List<NodeExecutionResult> batch) {
+        try {
+            mongoTemplate.insert(batch, NodeExecutionResult.class);
+        } catch (Exception e) {
+            log.error("Failed to persist {} node results", batch.size(), e);
+        }
+    }
+
+    private final class BufferedSink implements NodeResultSink {
+        private final WorkflowExecution execution;
+        private final ResultRetention retention;
+        private final List<NodeExecutionResult> buffer = new ArrayList<>();
+
+        BufferedSink(WorkflowExecution execution, ResultRetention retention) {
+            this.execution = execution;
+            this.retention = retention;
+        }
+
+        @Override
+        public void accept(NodeExecutionResult result) {
+            buffer.add(toStored(result, execution, retention));
+            if (buffer.size() >= appConfig.getNodeResults().getBatchSize()) {
+                flush();
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (!buffer.isEmpty()) {
+                insert(List.copyOf(buffer));
+                buffer.clear();
+            }
+        }
+    }
+}
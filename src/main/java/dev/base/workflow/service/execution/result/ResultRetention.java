@@ -0,0 +1,10 @@
+package dev.base.workflow.service.execution.result;
+
+/**
+ * How much of each node result is persisted.
+ */
+public enum ResultRetention {
+    NONE,    // Nothing; only the execution record is kept
+    SUMMARY, // Status, errors, routing and timings without the payload
+    FULL     // Everything, with payloads truncated above the configured size
+}
@@ -0,0 +1,89 @@
+package dev.base.workflow.service.execution.trigger;
+
+import dev.base.workflow.domain.executor.integration.kafka.KafkaProducerPool;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static dev.base.workflow.constant.KafkaConstants.*;
+
+/**
+ * Parks trigger records that kept failing on a dead-letter topic.
+ *
+ * The record keeps its key, value and headers; the source coordinates, the
+ * workflow, the attempt count and the last error are added as
+ * {@code x-dlt-*} headers so the record can be inspected and replayed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaDeadLetterPublisher {
+
+    private final KafkaProducerPool producerPool;
+
+    /**
+     * Completes once the broker has acknowledged the dead-letter record.
+     */
+    public CompletableFuture<Void> publish(Map<String, Object> config, String deadLetterTopic, String workflowId,
+                                           ConsumerRecord<String, String> record, Throwable error, int attempts) {
+        ProducerRecord<String, String> deadLetter = deadLetterRecord(deadLetterTopic, workflowId, record, error,
+                attempts);
+        CompletableFuture<Void> sent = new CompletableFuture<>();
+        try {
+            producerPool.producerFor(config).send(deadLetter, (metadata, sendError) -> {
+                if (sendError != null) {
+                    sent.completeExceptionally(sendError);
+                    return;
+                }
+                log.warn("Dead-lettered record {}-{}@{} of workflow {} to {} after {} attempts", record.topic(),
+                        record.partition(), record.offset(), workflowId, deadLetterTopic, attempts);
+                sent.complete(null);
+            });
+        } catch (Exception e) {
+            sent.completeExceptionally(e);
+        }
+        return sent;
+    }
+
+    /**
+     * The dead-letter copy of a record, for callers sending it themselves
+     * (e.g. inside a transaction).
+     */
+    public ProducerRecord<String, String> deadLetterRecord(String deadLetterTopic, String workflowId,
+                                                           ConsumerRecord<String, String> record, Throwable error,
+                                                           int attempts) {
+        return new ProducerRecord<>(deadLetterTopic, null, record.key(), record.value(),
+                headers(workflowId, record, error, attempts));
+    }
+
+    private List<Header> headers(String workflowId, ConsumerRecord<String, String> record, Throwable error,
+                                 int attempts) {
+        List<Header> headers = new ArrayList<>();
+        record.headers().forEach(headers::add);
+        headers.add(header(HEADER_DLT_WORKFLOW_ID, workflowId));
+        headers.add(header(HEADER_DLT_ORIGINAL_TOPIC, record.topic()));
+        headers.add(header(HEADER_DLT_ORIGINAL_PARTITION, String.valueOf(record.partition())));
+        headers.add(header(HEADER_DLT_ORIGINAL_OFFSET, String.valueOf(record.offset())));
+        headers.add(header(HEADER_DLT_ORIGINAL_TIMESTAMP, String.valueOf(record.timestamp())));
+        headers.add(header(HEADER_DLT_ATTEMPTS, String.valueOf(attempts)));
+        headers.add(header(HEADER_DLT_EXCEPTION_CLASS, error.getClass().getName()));
+        headers.add(header(HEADER_DLT_EXCEPTION_MESSAGE, String.valueOf(error.getMessage())));
+        headers.add(header(HEADER_DLT_FAILED_AT, Instant.now().toString()));
+        return headers;
+    }
+
+    private Header header(String name, String value) {
+        return new RecordHeader(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
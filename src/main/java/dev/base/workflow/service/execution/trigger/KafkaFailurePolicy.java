@@ -0,0 +1,12 @@
+package dev.base.workflow.service.execution.trigger;
+
+/**
+ * What a Kafka trigger does with a record whose execution still fails after
+ * the configured retries.
+ */
+public enum KafkaFailurePolicy {
+    /** Log the failure and commit past the record. */
+    COMMIT,
+    /** Produce the record with error metadata to the dead-letter topic, then commit. */
+    DEAD_LETTER
+}
@@ -0,0 +1,324 @@
+package dev.base.workflow.service.execution.trigger;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.domain.event.WorkflowTriggerEvent;
+import dev.base.workflow.domain.executor.integration.kafka.KafkaTransaction;
+import dev.base.workflow.domain.executor.integration.kafka.KafkaTransactionManager;
+import dev.base.workflow.mongo.collection.WorkflowRun;
+import dev.base.workflow.service.execution.dispatch.DispatchTask;
+import dev.base.workflow.service.execution.dispatch.TriggerDeduplicator;
+import dev.base.workflow.util.StringUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static dev.base.workflow.constant.KafkaConstants.*;
+import static dev.base.workflow.constant.WorkflowConstants.*;
+
+/**
+ * Turns polled trigger records into workflow executions.
+ *
+ * A workflow's records are published in order from a virtual thread. A
+ * failed execution is retried with exponential backoff, each attempt under
+ * its own idempotency key so the dedup store does not swallow it. Once the
+ * retries are used up the {@link KafkaFailurePolicy} either commits past the
+ * record or parks it on the dead-letter topic. Retries run asynchronously,
+ * so later records of the partition keep executing; only the partition's
+ * commit waits for them. When the dead-letter topic cannot be written after
+ * {@code dead-letter-max-attempts} sends, the dispatch fails and the
+ * consumer redelivers the partition from its committed offset; the record's
+ * attempt keys are released first, so the redelivery runs again instead of
+ * being skipped as a duplicate.
+ *
+ * Exactly-once triggers instead run each record inside a Kafka transaction
+ * (see {@link KafkaTransactionManager}): the execution's Kafka output, any
+ * dead-letter copy and the record's offset commit atomically, so a
+ * redelivery after a crash or rebalance re-runs the record without leaving
+ * duplicate output behind.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaTriggerDispatcher {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final KafkaDeadLetterPublisher deadLetterPublisher;
+    private final KafkaTransactionManager transactionManager;
+    private final TriggerDeduplicator deduplicator;
+    private final AppConfig appConfig;
+
+    private final ExecutorService handlerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Delivery settings of a trigger node; node settings override the defaults.
+     */
+    public DeliverySettings deliverySettings(Map<String, Object> config) {
+        AppConfig.KafkaTriggerConfig defaults = appConfig.getKafkaTriggers();
+        Object policy = config.get(CFG_FAILURE_POLICY);
+        Object maxRetries = config.get(CFG_MAX_RETRIES);
+        return new DeliverySettings(
+                policy != null ? KafkaFailurePolicy.valueOf(policy.toString()) : defaults.getFailurePolicy(),
+                maxRetries instanceof Number number ? number.intValue() : defaults.getMaxRetries(),
+                (String) config.get(CFG_DEAD_LETTER_TOPIC),
+                Boolean.TRUE.equals(config.get(CFG_EXACTLY_ONCE)),
+                config);
+    }
+
+    /**
+     * Completes once every record has executed, been committed past under
+     * the failure policy, or been dead-lettered.
+     */
+    public CompletableFuture<Void> dispatch(String workflowId, DeliverySettings failure,
+                                            List<ConsumerRecord<String, String>> records,
+                                            ConsumerGroupMetadata groupMetadata) {
+        if (failure.exactlyOnce()) {
+            return dispatchTransactional(workflowId, failure, records, groupMetadata);
+        }
+        return CompletableFuture
+                .supplyAsync(() -> records.stream().map(record -> deliver(workflowId, failure, record)).toList(),
+                        handlerExecutor)
+                .thenCompose(dispatched -> CompletableFuture.allOf(dispatched.toArray(new CompletableFuture<?>[0])));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        handlerExecutor.shutdownNow();
+    }
+
+    private CompletableFuture<Void> deliver(String workflowId, DeliverySettings failure,
+                                            ConsumerRecord<String, String> record) {
+        return attempt(workflowId, failure, record, 0).whenComplete((result, error) -> {
+            if (error != null) {
+                releaseAttemptKeys(workflowId, failure, record);
+            }
+        });
+    }
+
+    private CompletableFuture<Void> attempt(String workflowId, DeliverySettings failure,
+                                            ConsumerRecord<String, String> record, int attempt) {
+        return publish(workflowId, record, attempt, null).exceptionallyCompose(error -> attempt < failure.maxRetries()
+                ? after(retryDelayMs(attempt), () -> attempt(workflowId, failure, record, attempt + 1))
+                : exhausted(workflowId, failure, record, unwrap(error), attempt + 1));
+    }
+
+    private CompletableFuture<Void> exhausted(String workflowId, DeliverySettings failure,
+                                              ConsumerRecord<String, String> record, Throwable error, int attempts) {
+        if (failure.policy() == KafkaFailurePolicy.COMMIT) {
+            log.error("Kafka trigger for workflow {} failed {} times on {}-{}@{}, committing past it", workflowId,
+                    attempts, record.topic(), record.partition(), record.offset(), error);
+            return CompletableFuture.completedFuture(null);
+        }
+        return deadLetter(workflowId, failure, record, error, attempts, 0);
+    }
+
+    /**
+     * Retry the dead-letter send a few times, then fail so the record is
+     * redelivered rather than committed past.
+     */
+    private CompletableFuture<Void> deadLetter(String workflowId, DeliverySettings failure,
+                                               ConsumerRecord<String, String> record, Throwable error,
+                                               int attempts, int sendFailures) {
+        String topic = failure.deadLetterTopicFor(record.topic(), appConfig.getKafkaTriggers().getDeadLetterSuffix());
+        return deadLetterPublisher.publish(failure.connection(), topic, workflowId, record, error, attempts)
+                .exceptionallyCompose(sendError -> {
+                    if (sendFailures + 1 >= appConfig.getKafkaTriggers().getDeadLetterMaxAttempts()) {
+                        log.error("Could not dead-letter record {}-{}@{} to {} after {} attempts", record.topic(),
+                                record.partition(), record.offset(), topic, sendFailures + 1, unwrap(sendError));
+                        return CompletableFuture.failedFuture(unwrap(sendError));
+                    }
+                    long delayMs = retryDelayMs(sendFailures);
+                    log.error("Could not dead-letter record {}-{}@{} to {}, retrying in {} ms", record.topic(),
+                            record.partition(), record.offset(), topic, delayMs, unwrap(sendError));
+                    return after(delayMs,
+                            () -> deadLetter(workflowId, failure, record, error, attempts, sendFailures + 1));
+                });
+    }
+
+    /**
+     * Exactly-once: the records of a partition run one at a time, each in its
+     * own transaction that also commits the record's offset. Failures of the
+     * transaction itself fail the batch, which is then redelivered.
+     */
+    private CompletableFuture<Void> dispatchTransactional(String workflowId, DeliverySettings settings,
+                                                          List<ConsumerRecord<String, String>> records,
+                                                          ConsumerGroupMetadata groupMetadata) {
+        Map<TopicPartition, List<ConsumerRecord<String, String>>> byPartition = new LinkedHashMap<>();
+        records.forEach(record -> byPartition.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+                partition -> new ArrayList<>()).add(record));
+        List<CompletableFuture<Void>> partitions = byPartition.values().stream()
+                .map(batch -> CompletableFuture.runAsync(() -> batch.forEach(
+                        record -> deliverTransactional(workflowId, settings, record, groupMetadata)), handlerExecutor))
+                .toList();
+        return CompletableFuture.allOf(partitions.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private void deliverTransactional(String workflowId, DeliverySettings settings,
+                                      ConsumerRecord<String, String> record, ConsumerGroupMetadata groupMetadata) {
+        Throwable lastError = null;
+        for (int attempt = 0; attempt <= settings.maxRetries(); attempt++) {
+            if (attempt > 0) {
+                pause(retryDelayMs(attempt - 1));
+            }
+            KafkaTransaction transaction = begin(settings, record, groupMetadata);
+            try {
+                publish(workflowId, record, attempt, transaction.id()).join();
+            } catch (CompletionException e) {
+                transactionManager.abort(transaction);
+                lastError = unwrap(e);
+                continue;
+            }
+            transactionManager.commit(transaction, groupMetadata);
+            return;
+        }
+        settleTransactional(workflowId, settings, record, groupMetadata, lastError, settings.maxRetries() + 1);
+    }
+
+    /**
+     * Retries are used up: commit the offset alone (COMMIT) or together with
+     * the dead-letter copy (DEAD_LETTER), in one transaction.
+     */
+    private void settleTransactional(String workflowId, DeliverySettings settings,
+                                     ConsumerRecord<String, String> record, ConsumerGroupMetadata groupMetadata,
+                                     Throwable error, int attempts) {
+        KafkaTransaction transaction = begin(settings, record, groupMetadata);
+        try {
+            if (settings.policy() == KafkaFailurePolicy.DEAD_LETTER) {
+                String topic = settings.deadLetterTopicFor(record.topic(),
+                        appConfig.getKafkaTriggers().getDeadLetterSuffix());
+                transaction.producer().send(deadLetterPublisher.deadLetterRecord(topic, workflowId, record, error,
+                        attempts));
+            } else {
+                log.error("Kafka trigger for workflow {} failed {} times on {}-{}@{}, committing past it",
+                        workflowId, attempts, record.topic(), record.partition(), record.offset(), error);
+            }
+        } catch (RuntimeException e) {
+            transactionManager.abort(transaction);
+            throw e;
+        }
+        transactionManager.commit(transaction, groupMetadata);
+    }
+
+    private KafkaTransaction begin(DeliverySettings settings, ConsumerRecord<String, String> record,
+                                   ConsumerGroupMetadata groupMetadata) {
+        return transactionManager.begin(settings.connection(), groupMetadata.groupId(),
+                new TopicPartition(record.topic(), record.partition()), record.offset());
+    }
+
+    /**
+     * The record is about to be redelivered: drop the dedup keys its
+     * attempts claimed, derived exactly as the execution dispatcher derived
+     * them. Keys of attempts that never ran are simply absent.
+     */
+    private void releaseAttemptKeys(String workflowId, DeliverySettings failure,
+                                    ConsumerRecord<String, String> record) {
+        Map<String, Object> input = triggerInput(record, null);
+        for (int attempt = 0; attempt <= failure.maxRetries(); attempt++) {
+            DispatchTask task = DispatchTask.builder()
+                    .workflowId(workflowId)
+                    .input(input)
+                    .triggerType(WorkflowRun.TriggerType.KAFKA)
+                    .idempotencyKey(retryKey(record, attempt))
+                    .build();
+            try {
+                deduplicator.deriveKey(task).ifPresent(deduplicator::forget);
+            } catch (RuntimeException e) {
+                log.error("Could not release dedup key of attempt {} on {}-{}@{}", attempt, record.topic(),
+                        record.partition(), record.offset(), e);
+            }
+        }
+    }
+
+    /**
+     * @param transactionId open transaction of an exactly-once trigger; such
+     *                      runs are pinned to this instance and skip dedup
+     */
+    private CompletableFuture<Void> publish(String workflowId, ConsumerRecord<String, String> record, int attempt,
+                                            String transactionId) {
+        Map<String, Object> input = triggerInput(record, transactionId);
+        log.info("Kafka Trigger fired for workflow: {}. Offset: {}, attempt: {}", workflowId, record.offset(), attempt);
+        WorkflowTriggerEvent event = new WorkflowTriggerEvent(this, workflowId, input, WorkflowRun.TriggerType.KAFKA,
+                transactionId == null ? retryKey(record, attempt) : null, transactionId != null);
+        try {
+            eventPublisher.publishEvent(event);
+            return event.getCompletion();
+        } catch (Exception e) {
+            log.error("Failed to publish workflow trigger event: {}", workflowId, e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Map<String, Object> triggerInput(ConsumerRecord<String, String> record, String transactionId) {
+        Map<String, Object> input = new HashMap<>();
+        input.put(CFG_KEY, record.key());
+        input.put(CFG_VALUE, record.value());
+        input.put(KEY_PARTITION, record.partition());
+        input.put(KEY_OFFSET, record.offset());
+        input.put(KEY_TIMESTAMP, record.timestamp());
+        input.put(CFG_TOPIC, record.topic());
+        if (transactionId != null) {
+            input.put(KEY_TRANSACTION_ID, transactionId);
+        }
+        return input;
+    }
+
+    /**
+     * First attempts use the dedup key derived from the record coordinates.
+     */
+    private String retryKey(ConsumerRecord<String, String> record, int attempt) {
+        return attempt == 0 ? null : StringUtils.concat(record.topic(), DEDUP_KEY_SEPARATOR, record.partition(),
+                DEDUP_KEY_SEPARATOR, record.offset(), DEDUP_KEY_SEPARATOR, RETRY_KEY_PREFIX, attempt);
+    }
+
+    private void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+
+    private long retryDelayMs(int attempt) {
+        AppConfig.KafkaTriggerConfig config = appConfig.getKafkaTriggers();
+        return Math.min(config.getMaxBackoffMs(), config.getRetryBackoffMs() << Math.min(attempt, 20));
+    }
+
+    private CompletableFuture<Void> after(long delayMs, Supplier<CompletableFuture<Void>> next) {
+        Executor delayed = CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, handlerExecutor);
+        return CompletableFuture.supplyAsync(next, delayed).thenCompose(Function.identity());
+    }
+
+    private Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * @param connection trigger node config; dead letters go to the same cluster
+     */
+    public record DeliverySettings(KafkaFailurePolicy policy, int maxRetries, String deadLetterTopic,
+                                   boolean exactlyOnce, Map<String, Object> connection) {
+
+        String deadLetterTopicFor(String sourceTopic, String suffix) {
+            return deadLetterTopic != null && !deadLetterTopic.isBlank() ? deadLetterTopic : sourceTopic + suffix;
+        }
+    }
+}
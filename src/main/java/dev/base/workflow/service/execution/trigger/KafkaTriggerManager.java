@@ -1,33 +1,58 @@
 package dev.base.workflow.service.execution.trigger;
 
-import dev.base.workflow.domain.event.WorkflowTriggerEvent;
+import dev.base.workflow.config.AppConfig;
 import dev.base.workflow.domain.executor.integration.kafka.KafkaPropertiesBuilder;
-import dev.base.workflow.mongo.collection.WorkflowRun;
+import dev.base.workflow.exception.InvalidWorkflowException;
+import dev.base.workflow.exception.WorkflowNotFoundException;
+import dev.base.workflow.model.dto.KafkaTriggerLag;
+import dev.base.workflow.model.nodetype.TriggerNodeType;
+import dev.base.workflow.mongo.collection.NodeDefinition;
+import dev.base.workflow.service.cluster.ClusterMembershipService;
+import dev.base.workflow.service.integration.KafkaAdminService;
+import dev.base.workflow.service.management.WorkflowDefinitionCache;
+import dev.base.workflow.util.HashUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
-import java.util.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import static dev.base.workflow.constant.KafkaConstants.*;
-import static dev.base.workflow.constant.WorkflowConstants.*;
 
 /**
  * Manages the lifecycle of Kafka Consumers for Kafka Trigger nodes.
  * Analogous to WorkflowScheduler (which manages Cron tasks).
  * Handles Dynamic Updates and Cleanup (triggered by Execution or Management
  * service).
- * Note: Startup registration is NOT handled here, following the Cron pattern
- * (Requires kickoff).
+ * Startup registration is done by {@link TriggerBootstrapper}.
+ *
+ * Trigger workflows whose connection settings and consumer group match share
+ * one {@link KafkaTriggerRuntime}, so the number of consumers and poll threads
+ * follows the number of distinct (cluster, group) pairs rather than the
+ * number of workflows. Only workflows in a shared group (the node's
+ * consumerGroup or {@code app.kafka-triggers.shared-group}) can share; a
+ * workflow on its private {@code trigger-<workflowId>} group always gets a
+ * consumer of its own. Kafka splits a topic's partitions between the members
+ * of a group, so workflows in a shared group are owned per (group, topic)
+ * rather than per workflow: every workflow reading the topic through that
+ * group runs on the same instance and sees all of its records. Records become executions through
+ * {@link KafkaTriggerDispatcher}, which also applies the failure policy.
+ * Consumer-side lag and throughput are exported per workflow through
+ * Micrometer; {@link #getLag(String)} asks the broker for the group's backlog.
+ * Exactly-once triggers get a read_committed runtime of their own, whose
+ * offsets are committed by the dispatcher's transactions.
  */
 @Service
 @Slf4j
@@ -35,20 +60,30 @@ import static dev.base.workflow.constant.WorkflowConstants.*;
 public class KafkaTriggerManager {
 
     private final KafkaPropertiesBuilder propertiesBuilder;
-    private final ApplicationEventPublisher eventPublisher;
+    private final KafkaTriggerDispatcher triggerDispatcher;
+    private final ClusterMembershipService membershipService;
+    private final KafkaAdminService kafkaAdminService;
+    private final WorkflowDefinitionCache definitionCache;
+    private final MeterRegistry meterRegistry;
+    private final AppConfig appConfig;
 
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final Map<String, KafkaTriggerRuntime> runtimes = new ConcurrentHashMap<>();
     private final Map<String, ConsumerContainer> activeConsumers = new ConcurrentHashMap<>();
 
     /**
      * Start, Stop, or Restart consumer based on configuration state.
      */
     public synchronized void refreshConsumer(String workflowId, Map<String, Object> config) {
+        if (!isOwner(workflowId, config)) {
+            log.info("Workflow {} is owned by another instance, not consuming here", workflowId);
+            stopConsumer(workflowId);
+            return;
+        }
         ConsumerContainer container = activeConsumers.get(workflowId);
         int newConfigHash = config.hashCode();
 
         if (container != null) {
-            if (container.configHash == newConfigHash && container.loop.isRunning()) {
+            if (container.configHash == newConfigHash && isRuntimeRunning(container.runtimeKey)) {
                 log.debug("Kafka Consumer for workflow {} is up-to-date.", workflowId);
                 return;
             }
@@ -59,104 +94,166 @@ public class KafkaTriggerManager {
         startConsumer(workflowId, config, newConfigHash);
     }
 
-    private void startConsumer(String workflowId, Map<String, Object> config, int configHash) {
-        log.info("Starting Kafka Consumer for workflow: {}", workflowId);
-        KafkaConsumerLoop loop = new KafkaConsumerLoop(workflowId, config);
-        activeConsumers.put(workflowId, new ConsumerContainer(loop, configHash));
-        executorService.submit(loop);
-    }
-
     public synchronized void stopConsumer(String workflowId) {
         ConsumerContainer container = activeConsumers.remove(workflowId);
-        if (container != null) {
-            log.info("Stopping Kafka Consumer for workflow: {}", workflowId);
-            container.loop.shutdown();
+        if (container == null) {
+            return;
+        }
+        log.info("Stopping Kafka Consumer for workflow: {}", workflowId);
+        KafkaTriggerRuntime runtime = runtimes.get(container.runtimeKey);
+        if (runtime != null && runtime.unregister(workflowId)) {
+            runtimes.remove(container.runtimeKey);
+            runtime.shutdown();
         }
+        container.metrics.close();
     }
 
-    // --- Inner Classes ---
+    /**
+     * Whether this instance should consume for the workflow's trigger.
+     */
+    public boolean isOwner(String workflowId, Map<String, Object> config) {
+        String groupId = consumerGroupFor(workflowId, config);
+        String ownershipKey = groupId.equals(TRIGGER_GROUP_PREFIX + workflowId)
+                ? workflowId
+                : groupId + POOL_KEY_SEPARATOR + config.get(CFG_TOPIC);
+        return membershipService.isOwner(ownershipKey);
+    }
 
-    private static class ConsumerContainer {
-        final KafkaConsumerLoop loop;
-        final int configHash;
+    public Set<String> getActiveWorkflowIds() {
+        return Set.copyOf(activeConsumers.keySet());
+    }
 
-        ConsumerContainer(KafkaConsumerLoop loop, int configHash) {
-            this.loop = loop;
-            this.configHash = configHash;
-        }
+    /**
+     * Broker-side backlog of the workflow's trigger group on its topic.
+     */
+    public KafkaTriggerLag getLag(String workflowId) {
+        Map<String, Object> config = triggerConfig(workflowId);
+        String groupId = consumerGroupFor(workflowId, config);
+        String topic = (String) config.get(CFG_TOPIC);
+        List<KafkaTriggerLag.PartitionLag> partitions = kafkaAdminService.consumerGroupLag(config, groupId, topic);
+        return KafkaTriggerLag.builder()
+                .workflowId(workflowId)
+                .groupId(groupId)
+                .topic(topic)
+                .totalLag(partitions.stream().mapToLong(KafkaTriggerLag.PartitionLag::getLag).sum())
+                .partitions(partitions)
+                .build();
     }
 
-    private class KafkaConsumerLoop implements Runnable {
-        private final String workflowId;
-        private final AtomicBoolean running = new AtomicBoolean(true);
-        private final String topic;
-        private final Properties properties;
-        private final long pollTimeoutMs;
-
-        public KafkaConsumerLoop(String workflowId, Map<String, Object> config) {
-            this.workflowId = workflowId;
-            this.topic = (String) config.get(CFG_TOPIC);
-            String groupId = (String) config.getOrDefault(CFG_CONSUMER_GROUP, "trigger-" + workflowId);
-            this.properties = propertiesBuilder.buildConsumerProperties(config, groupId);
-            this.pollTimeoutMs = config.containsKey(CFG_POLL_TIMEOUT_MS)
-                    ? ((Number) config.get(CFG_POLL_TIMEOUT_MS)).longValue()
-                    : 1000L;
+    /**
+     * Backlog of every Kafka trigger consuming on this instance.
+     */
+    public List<KafkaTriggerLag> getLag() {
+        return getActiveWorkflowIds().stream().sorted().map(this::getLag).toList();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        runtimes.values().forEach(KafkaTriggerRuntime::shutdown);
+        try {
+            for (KafkaTriggerRuntime runtime : runtimes.values()) {
+                runtime.awaitTermination(appConfig.getKafkaTriggers().getCloseTimeoutMs());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        runtimes.clear();
+        activeConsumers.values().forEach(container -> container.metrics.close());
+        activeConsumers.clear();
+    }
 
-        public boolean isRunning() {
-            return running.get();
+    private void startConsumer(String workflowId, Map<String, Object> config, int configHash) {
+        String groupId = consumerGroupFor(workflowId, config);
+        KafkaTriggerDispatcher.DeliverySettings delivery = triggerDispatcher.deliverySettings(config);
+        Properties properties = propertiesBuilder.buildConsumerProperties(config, groupId);
+        String runtimeKey = runtimeKey(properties);
+        if (delivery.exactlyOnce()) {
+            // Transactions commit the offsets, so the consumer must skip aborted
+            // output and must not be shared with non-transactional workflows.
+            properties.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, VAL_READ_COMMITTED);
+            runtimeKey = runtimeKey(properties) + POOL_KEY_SEPARATOR + workflowId;
         }
+        KafkaTriggerRuntime runtime = runtimes.computeIfAbsent(runtimeKey,
+                key -> newRuntime(groupId, properties, delivery.exactlyOnce()));
 
-        @Override
-        public void run() {
-            log.info("Kafka Trigger Loop started for workflow: {} on topic: {}", workflowId, topic);
-            try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(properties)) {
-                consumer.subscribe(Collections.singletonList(topic));
-
-                while (running.get()) {
-                    try {
-                        ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(pollTimeoutMs));
-                        for (ConsumerRecord<String, String> record : records) {
-                            handleMessage(record);
-                        }
-                        if (!records.isEmpty())
-                            consumer.commitSync();
-                    } catch (Exception e) {
-                        log.error("Error in Kafka Trigger Loop for workflow: {}", workflowId, e);
-                        try {
-                            Thread.sleep(5000);
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Fatal error in Kafka Trigger Loop for workflow: {}", workflowId, e);
-            } finally {
-                log.info("Kafka Trigger Loop stopped for workflow: {}", workflowId);
-            }
+        log.info("Starting Kafka Consumer for workflow: {} (group {})", workflowId, groupId);
+        KafkaTriggerMetrics metrics = new KafkaTriggerMetrics(meterRegistry, workflowId);
+        activeConsumers.put(workflowId, new ConsumerContainer(runtimeKey, configHash, metrics, delivery));
+        runtime.register(workflowId, (String) config.get(CFG_TOPIC), pollTimeoutMs(config), metrics);
+    }
+
+    private Map<String, Object> triggerConfig(String workflowId) {
+        return definitionCache.getActive(workflowId)
+                .orElseThrow(() -> new WorkflowNotFoundException(workflowId))
+                .getNodes().stream()
+                .filter(node -> TriggerNodeType.KAFKA.getName().equals(node.getNodeType()))
+                .findFirst()
+                .map(NodeDefinition::getConfig)
+                .orElseThrow(() -> new InvalidWorkflowException(List.of("Workflow has no Kafka trigger")));
+    }
+
+    private KafkaTriggerRuntime newRuntime(String groupId, Properties properties, boolean transactional) {
+        String name = properties.getProperty(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG) + POOL_KEY_SEPARATOR + groupId;
+        KafkaTriggerRuntime runtime = new KafkaTriggerRuntime(name, properties, this::dispatch,
+                appConfig.getKafkaTriggers(), transactional);
+        runtime.start();
+        return runtime;
+    }
+
+    /**
+     * An explicit consumer group wins; otherwise the configured shared group,
+     * or a private per-workflow group when none is configured.
+     */
+    private String consumerGroupFor(String workflowId, Map<String, Object> config) {
+        String configured = (String) config.get(CFG_CONSUMER_GROUP);
+        if (configured != null && !configured.isBlank()) {
+            return configured;
         }
+        String shared = appConfig.getKafkaTriggers().getSharedGroup();
+        return shared != null && !shared.isBlank() ? shared : TRIGGER_GROUP_PREFIX + workflowId;
+    }
 
-        private void handleMessage(ConsumerRecord<String, String> record) {
-            Map<String, Object> input = new HashMap<>();
-            input.put(CFG_KEY, record.key());
-            input.put(CFG_VALUE, record.value());
-            input.put(KEY_PARTITION, record.partition());
-            input.put(KEY_OFFSET, record.offset());
-            input.put(KEY_TIMESTAMP, record.timestamp());
-            input.put(CFG_TOPIC, record.topic());
-
-            log.info("Kafka Trigger fired for workflow: {}. Offset: {}", workflowId, record.offset());
-            try {
-                eventPublisher
-                        .publishEvent(new WorkflowTriggerEvent(this, workflowId, input, WorkflowRun.TriggerType.KAFKA));
-            } catch (Exception e) {
-                log.error("Failed to publish workflow trigger event: {}", workflowId, e);
-            }
+    /**
+     * Identical consumer properties (cluster, credentials, group) share a runtime.
+     */
+    private String runtimeKey(Properties properties) {
+        return HashUtils.sha256Hex(new TreeMap<>(properties).toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long pollTimeoutMs(Map<String, Object> config) {
+        return config.containsKey(CFG_POLL_TIMEOUT_MS)
+                ? ((Number) config.get(CFG_POLL_TIMEOUT_MS)).longValue()
+                : appConfig.getKafkaTriggers().getPollTimeoutMs();
+    }
+
+    private boolean isRuntimeRunning(String runtimeKey) {
+        KafkaTriggerRuntime runtime = runtimes.get(runtimeKey);
+        return runtime != null && runtime.isRunning();
+    }
+
+    private CompletableFuture<Void> dispatch(String workflowId, List<ConsumerRecord<String, String>> records,
+                                             ConsumerGroupMetadata groupMetadata) {
+        ConsumerContainer container = activeConsumers.get(workflowId);
+        if (container == null) {
+            return CompletableFuture.completedFuture(null);
         }
+        return triggerDispatcher.dispatch(workflowId, container.delivery, records, groupMetadata);
+    }
 
-        public void shutdown() {
-            running.set(false);
+    // --- Inner Classes ---
+
+    private static class ConsumerContainer {
+        final String runtimeKey;
+        final int configHash;
+        final KafkaTriggerMetrics metrics;
+        final KafkaTriggerDispatcher.DeliverySettings delivery;
+
+        ConsumerContainer(String runtimeKey, int configHash, KafkaTriggerMetrics metrics,
+                          KafkaTriggerDispatcher.DeliverySettings delivery) {
+            this.runtimeKey = runtimeKey;
+            this.configHash = configHash;
+            this.metrics = metrics;
+            this.delivery = delivery;
         }
     }
 }
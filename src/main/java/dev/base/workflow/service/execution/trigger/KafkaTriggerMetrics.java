@@ -0,0 +1,108 @@
+package dev.base.workflow.service.execution.trigger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static dev.base.workflow.constant.MetricConstants.*;
+
+/**
+ * Meters of one Kafka trigger workflow: records consumed (rate via the
+ * counter), records published but not yet executed, poll-to-commit latency
+ * and per-partition lag as seen by the consumer's last fetch.
+ *
+ * Lag gauges follow the partition assignment, and {@link #close()} removes
+ * every meter once the workflow stops consuming here.
+ */
+class KafkaTriggerMetrics {
+
+    private final MeterRegistry registry;
+    private final String workflowId;
+    private final Counter records;
+    private final Timer pollToCommit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<TopicPartition, PartitionLag> lags = new ConcurrentHashMap<>();
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+
+    KafkaTriggerMetrics(MeterRegistry registry, String workflowId) {
+        this.registry = registry;
+        this.workflowId = workflowId;
+        this.records = track(Counter.builder(METRIC_KAFKA_TRIGGER_RECORDS)
+                .tag(TAG_WORKFLOW_ID, workflowId).register(registry));
+        this.pollToCommit = track(Timer.builder(METRIC_KAFKA_TRIGGER_POLL_TO_COMMIT)
+                .tag(TAG_WORKFLOW_ID, workflowId).publishPercentileHistogram().register(registry));
+        track(Gauge.builder(METRIC_KAFKA_TRIGGER_IN_FLIGHT, inFlight, AtomicInteger::get)
+                .tag(TAG_WORKFLOW_ID, workflowId).register(registry));
+    }
+
+    void recordDispatched(int count) {
+        records.increment(count);
+        inFlight.addAndGet(count);
+    }
+
+    void recordCompleted(int count) {
+        inFlight.addAndGet(-count);
+    }
+
+    void recordCommitted(long polledAtNanos) {
+        pollToCommit.record(System.nanoTime() - polledAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordLag(TopicPartition partition, long lag) {
+        lags.computeIfAbsent(partition, this::registerLag).value().set(lag);
+    }
+
+    /**
+     * Drop lag gauges of partitions this consumer no longer owns.
+     */
+    void retainPartitions(Set<TopicPartition> assigned) {
+        lags.entrySet().removeIf(entry -> {
+            if (assigned.contains(entry.getKey())) {
+                return false;
+            }
+            remove(entry.getValue().gauge());
+            return true;
+        });
+    }
+
+    void close() {
+        meters.forEach(registry::remove);
+        meters.clear();
+        lags.clear();
+    }
+
+    private PartitionLag registerLag(TopicPartition partition) {
+        AtomicLong value = new AtomicLong();
+        Gauge gauge = track(Gauge.builder(METRIC_KAFKA_TRIGGER_LAG, value, AtomicLong::get)
+                .tag(TAG_WORKFLOW_ID, workflowId)
+                .tag(TAG_TOPIC, partition.topic())
+                .tag(TAG_PARTITION, String.valueOf(partition.partition()))
+                .register(registry));
+        return new PartitionLag(value, gauge);
+    }
+
+    private <M extends Meter> M track(M meter) {
+        meters.add(meter);
+        return meter;
+    }
+
+    private void remove(Meter meter) {
+        meters.remove(meter);
+        registry.remove(meter);
+    }
+
+    private record PartitionLag(AtomicLong value, Gauge gauge) {
+    }
+}
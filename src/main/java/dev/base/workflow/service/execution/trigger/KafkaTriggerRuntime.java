@@ -0,0 +1,453 @@
+package dev.base.workflow.service.execution.trigger;
+
+import dev.base.workflow.config.AppConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.errors.WakeupException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * One Kafka consumer shared by every trigger workflow with the same
+ * connection settings and consumer group.
+ *
+ * The consumer subscribes to the union of the registered topics and routes
+ * each record to every workflow registered for its topic. The poll loop runs
+ * on its own virtual thread and is the only thread touching the consumer;
+ * registrations just flag a resubscribe that the loop applies before its next
+ * poll. A partition whose records are still being handled (including their
+ * retries and dead-lettering) is paused while the loop keeps polling the
+ * others; once its handlers complete, its offset is committed and it is
+ * resumed. A transactional runtime leaves the commit to the handlers'
+ * transactions. A failed partition is rewound to its committed offset and
+ * stays paused for an exponential backoff; other failures back off the whole
+ * consumer and rewind every partition.
+ * Lag, throughput, in-flight records and poll-to-commit latency are recorded
+ * per workflow in its {@link KafkaTriggerMetrics}.
+ */
+@Slf4j
+class KafkaTriggerRuntime {
+
+    /**
+     * Publishes one workflow's records, in order, and completes when all of
+     * them have been executed or durably queued.
+     */
+    @FunctionalInterface
+    interface RecordHandler {
+        CompletableFuture<Void> handle(String workflowId, List<ConsumerRecord<String, String>> records,
+                                       ConsumerGroupMetadata groupMetadata);
+    }
+
+    private final String name;
+    private final Properties properties;
+    private final RecordHandler handler;
+    private final AppConfig.KafkaTriggerConfig config;
+    private final boolean transactional;
+
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+    private final AtomicBoolean resubscribe = new AtomicBoolean(true);
+    private volatile boolean running = true;
+    private volatile KafkaConsumer<String, String> consumer;
+    private Thread loopThread;
+
+    // Touched only by the poll loop (rebalance callbacks run inside poll)
+    private final Map<TopicPartition, InFlight> inFlight = new HashMap<>();
+    private final Map<TopicPartition, Long> retryAt = new HashMap<>();
+    private final Map<TopicPartition, Long> partitionBackoffMs = new HashMap<>();
+
+    KafkaTriggerRuntime(String name, Properties properties, RecordHandler handler,
+                        AppConfig.KafkaTriggerConfig config, boolean transactional) {
+        this.name = name;
+        this.properties = properties;
+        this.handler = handler;
+        this.config = config;
+        this.transactional = transactional;
+    }
+
+    void start() {
+        loopThread = Thread.ofVirtual().name("kafka-trigger-" + name).start(this::runLoop);
+    }
+
+    void register(String workflowId, String topic, long pollTimeoutMs, KafkaTriggerMetrics metrics) {
+        registrations.put(workflowId, new Registration(topic, pollTimeoutMs, metrics));
+        resubscribe.set(true);
+    }
+
+    /**
+     * @return true when no workflow is left on this consumer
+     */
+    boolean unregister(String workflowId) {
+        if (registrations.remove(workflowId) != null) {
+            resubscribe.set(true);
+        }
+        return registrations.isEmpty();
+    }
+
+    boolean isRunning() {
+        return running && loopThread != null && loopThread.isAlive();
+    }
+
+    /**
+     * Stop polling; the loop closes the consumer on its way out.
+     */
+    void shutdown() {
+        running = false;
+        KafkaConsumer<String, String> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (loopThread != null) {
+            loopThread.interrupt();
+        }
+    }
+
+    void awaitTermination(long timeoutMs) throws InterruptedException {
+        if (loopThread != null) {
+            loopThread.join(Duration.ofMillis(timeoutMs));
+        }
+    }
+
+    private void runLoop() {
+        log.info("Kafka trigger consumer {} started", name);
+        long backoffMs = 0;
+        while (running) {
+            try {
+                consume();
+                backoffMs = 0;
+            } catch (Exception e) {
+                backoffMs = nextBackoff(backoffMs);
+                log.error("Kafka trigger consumer {} failed, reconnecting in {} ms", name, backoffMs, e);
+                sleep(backoffMs);
+            }
+        }
+        log.info("Kafka trigger consumer {} stopped", name);
+    }
+
+    private void consume() {
+        KafkaConsumer<String, String> kafkaConsumer = new KafkaConsumer<>(properties);
+        consumer = kafkaConsumer;
+        resubscribe.set(true);
+        clearPartitionState();
+        try {
+            long backoffMs = 0;
+            while (running) {
+                backoffMs = pollOnce(kafkaConsumer, backoffMs);
+            }
+        } finally {
+            consumer = null;
+            close(kafkaConsumer);
+        }
+    }
+
+    /**
+     * @return the backoff to build on if the next poll fails too
+     */
+    private long pollOnce(KafkaConsumer<String, String> kafkaConsumer, long backoffMs) {
+        try {
+            if (!applySubscription(kafkaConsumer)) {
+                sleep(config.getPollTimeoutMs());
+                return 0;
+            }
+            long timeoutMs = inFlight.isEmpty() && retryAt.isEmpty()
+                    ? pollTimeoutMs()
+                    : Math.min(pollTimeoutMs(), config.getInFlightPollMs());
+            ConsumerRecords<String, String> records = kafkaConsumer.poll(Duration.ofMillis(timeoutMs));
+            long polledAtNanos = System.nanoTime();
+            recordLag(kafkaConsumer);
+            if (!records.isEmpty()) {
+                dispatch(kafkaConsumer, records, polledAtNanos);
+            }
+            settle(kafkaConsumer);
+            resumeBackedOff(kafkaConsumer);
+            return 0;
+        } catch (WakeupException | InterruptException e) {
+            return 0;
+        } catch (Exception e) {
+            long nextMs = nextBackoff(backoffMs);
+            log.error("Error in Kafka trigger consumer {}, retrying in {} ms", name, nextMs, e);
+            rewindToCommitted(kafkaConsumer, kafkaConsumer.assignment());
+            abandonInFlight(kafkaConsumer);
+            sleep(nextMs);
+            return nextMs;
+        }
+    }
+
+    /**
+     * @return false when there is nothing to subscribe to
+     */
+    private boolean applySubscription(KafkaConsumer<String, String> kafkaConsumer) {
+        Set<String> topics = registrations.values().stream().map(Registration::topic).collect(Collectors.toSet());
+        if (resubscribe.getAndSet(false)) {
+            if (topics.isEmpty()) {
+                kafkaConsumer.unsubscribe();
+                clearPartitionState();
+            } else if (!topics.equals(kafkaConsumer.subscription())) {
+                log.info("Kafka trigger consumer {} subscribing to {}", name, topics);
+                kafkaConsumer.subscribe(topics, new SettleOnRevoke(kafkaConsumer));
+            }
+        }
+        return !topics.isEmpty();
+    }
+
+    /**
+     * Hand each partition's records to every workflow registered for its
+     * topic, then pause the partition until they are settled. Workflows and
+     * partitions run in parallel; records of a partition stay in order.
+     */
+    private void dispatch(KafkaConsumer<String, String> kafkaConsumer, ConsumerRecords<String, String> records,
+                          long polledAtNanos) {
+        Map<String, Registration> current = Map.copyOf(registrations);
+        ConsumerGroupMetadata groupMetadata = kafkaConsumer.groupMetadata();
+        for (TopicPartition partition : records.partitions()) {
+            List<ConsumerRecord<String, String>> batch = records.records(partition);
+            List<CompletableFuture<Void>> handled = new ArrayList<>();
+            Set<String> workflowIds = new HashSet<>();
+            current.forEach((workflowId, registration) -> {
+                if (registration.topic().equals(partition.topic())) {
+                    handled.add(handle(workflowId, registration.metrics(), batch, groupMetadata));
+                    workflowIds.add(workflowId);
+                }
+            });
+            OffsetAndMetadata next = new OffsetAndMetadata(batch.get(batch.size() - 1).offset() + 1);
+            inFlight.put(partition, new InFlight(CompletableFuture.allOf(handled.toArray(new CompletableFuture<?>[0])),
+                    next, polledAtNanos, workflowIds));
+        }
+        kafkaConsumer.pause(records.partitions());
+    }
+
+    private CompletableFuture<Void> handle(String workflowId, KafkaTriggerMetrics metrics,
+                                           List<ConsumerRecord<String, String>> batch,
+                                           ConsumerGroupMetadata groupMetadata) {
+        metrics.recordDispatched(batch.size());
+        return handler.handle(workflowId, batch, groupMetadata)
+                .whenComplete((result, error) -> metrics.recordCompleted(batch.size()));
+    }
+
+    /**
+     * Commit and resume every partition whose records have all been executed,
+     * dead-lettered or committed past by the failure policy. A partition whose
+     * handler failed outright is rewound to its committed offset and stays
+     * paused for a backoff, after which its records are redelivered.
+     */
+    private void settle(KafkaConsumer<String, String> kafkaConsumer) {
+        settle(kafkaConsumer, List.copyOf(inFlight.keySet()));
+    }
+
+    private void settle(KafkaConsumer<String, String> kafkaConsumer, Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        List<InFlight> committed = new ArrayList<>();
+        Set<TopicPartition> failed = new HashSet<>();
+        for (TopicPartition partition : partitions) {
+            InFlight batch = inFlight.get(partition);
+            if (batch == null || !batch.done().isDone()) {
+                continue;
+            }
+            inFlight.remove(partition);
+            if (batch.done().isCompletedExceptionally()) {
+                failed.add(partition);
+            } else {
+                offsets.put(partition, batch.next());
+                committed.add(batch);
+            }
+        }
+        if (!transactional && !offsets.isEmpty()) {
+            kafkaConsumer.commitSync(offsets);
+        }
+        offsets.keySet().forEach(partitionBackoffMs::remove);
+        kafkaConsumer.resume(offsets.keySet());
+        committed.forEach(batch -> batch.workflowIds().forEach(workflowId -> {
+            Registration registration = registrations.get(workflowId);
+            if (registration != null) {
+                registration.metrics().recordCommitted(batch.polledAtNanos());
+            }
+        }));
+        if (!failed.isEmpty()) {
+            backOff(kafkaConsumer, failed);
+        }
+    }
+
+    private void backOff(KafkaConsumer<String, String> kafkaConsumer, Set<TopicPartition> failed) {
+        rewindToCommitted(kafkaConsumer, failed);
+        long now = System.currentTimeMillis();
+        for (TopicPartition partition : failed) {
+            long delayMs = nextBackoff(partitionBackoffMs.getOrDefault(partition, 0L));
+            partitionBackoffMs.put(partition, delayMs);
+            retryAt.put(partition, now + delayMs);
+            log.error("Kafka trigger consumer {} failed to handle {}, redelivering in {} ms", name, partition,
+                    delayMs);
+        }
+    }
+
+    private void resumeBackedOff(KafkaConsumer<String, String> kafkaConsumer) {
+        long now = System.currentTimeMillis();
+        List<TopicPartition> due = new ArrayList<>();
+        retryAt.entrySet().removeIf(entry -> {
+            if (entry.getValue() <= now) {
+                due.add(entry.getKey());
+                return true;
+            }
+            return false;
+        });
+        kafkaConsumer.resume(due);
+    }
+
+    /**
+     * Forget unsettled work after a consumer-wide rewind; the handlers that
+     * are still running finish, and their records are redelivered.
+     */
+    private void abandonInFlight(KafkaConsumer<String, String> kafkaConsumer) {
+        try {
+            kafkaConsumer.resume(kafkaConsumer.paused());
+        } catch (Exception e) {
+            log.warn("Could not resume paused partitions of Kafka trigger consumer {}", name, e);
+        }
+        clearPartitionState();
+    }
+
+    private void clearPartitionState() {
+        inFlight.clear();
+        retryAt.clear();
+        partitionBackoffMs.clear();
+    }
+
+    /**
+     * Lag per assigned partition from the consumer's last fetch; no broker round-trip.
+     */
+    private void recordLag(KafkaConsumer<String, String> kafkaConsumer) {
+        Set<TopicPartition> assignment = kafkaConsumer.assignment();
+        registrations.values().forEach(registration -> {
+            registration.metrics().retainPartitions(assignment);
+            for (TopicPartition partition : assignment) {
+                if (partition.topic().equals(registration.topic())) {
+                    kafkaConsumer.currentLag(partition)
+                            .ifPresent(lag -> registration.metrics().recordLag(partition, lag));
+                }
+            }
+        });
+    }
+
+    /**
+     * Position the partitions back at their committed offsets so the
+     * uncommitted part of a failed batch is redelivered.
+     */
+    private void rewindToCommitted(KafkaConsumer<String, String> kafkaConsumer, Set<TopicPartition> partitions) {
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed = kafkaConsumer.committed(partitions);
+            List<TopicPartition> uncommitted = new ArrayList<>();
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata offset = committed.get(partition);
+                if (offset == null) {
+                    uncommitted.add(partition);
+                } else {
+                    kafkaConsumer.seek(partition, offset);
+                }
+            }
+            kafkaConsumer.seekToBeginning(uncommitted);
+        } catch (Exception e) {
+            log.warn("Could not rewind Kafka trigger consumer {} to committed offsets", name, e);
+        }
+    }
+
+    private long pollTimeoutMs() {
+        return registrations.values().stream()
+                .mapToLong(Registration::pollTimeoutMs)
+                .min()
+                .orElse(config.getPollTimeoutMs());
+    }
+
+    /**
+     * Exponential backoff capped at the maximum, with up to 20% jitter on top
+     * so consumers sharing a failed broker do not reconnect in lockstep.
+     */
+    private long nextBackoff(long previousMs) {
+        long base = previousMs == 0
+                ? config.getInitialBackoffMs()
+                : (long) Math.min(config.getMaxBackoffMs(), previousMs * config.getBackoffMultiplier());
+        return base + ThreadLocalRandom.current().nextLong(base / 5 + 1);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void close(KafkaConsumer<String, String> kafkaConsumer) {
+        // Clear a shutdown interrupt so close() can leave the group cleanly
+        Thread.interrupted();
+        try {
+            kafkaConsumer.close(Duration.ofMillis(config.getCloseTimeoutMs()));
+        } catch (Exception e) {
+            log.warn("Failed to close Kafka trigger consumer {}", name, e);
+        }
+    }
+
+    private record Registration(String topic, long pollTimeoutMs, KafkaTriggerMetrics metrics) {
+    }
+
+    /**
+     * Records of one partition handed out by one poll.
+     *
+     * @param next offset to commit once they are settled
+     */
+    private record InFlight(CompletableFuture<Void> done, OffsetAndMetadata next, long polledAtNanos,
+                            Set<String> workflowIds) {
+    }
+
+    /**
+     * Commit what has already settled on partitions being taken away; the
+     * rest is dropped and redelivered to the new owner.
+     */
+    private class SettleOnRevoke implements ConsumerRebalanceListener {
+        private final KafkaConsumer<String, String> kafkaConsumer;
+
+        SettleOnRevoke(KafkaConsumer<String, String> kafkaConsumer) {
+            this.kafkaConsumer = kafkaConsumer;
+        }
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            try {
+                settle(kafkaConsumer, partitions);
+            } catch (Exception e) {
+                log.warn("Could not commit settled offsets of revoked partitions on {}", name, e);
+            }
+            onPartitionsLost(partitions);
+        }
+
+        @Override
+        public void onPartitionsLost(Collection<TopicPartition> partitions) {
+            partitions.forEach(partition -> {
+                inFlight.remove(partition);
+                retryAt.remove(partition);
+                partitionBackoffMs.remove(partition);
+            });
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package dev.base.workflow.service.execution.trigger;
+
+import dev.base.workflow.model.nodetype.TriggerNodeType;
+import dev.base.workflow.mongo.collection.NodeDefinition;
+import dev.base.workflow.mongo.collection.WorkflowDefinition;
+import dev.base.workflow.service.cluster.ClusterMembershipService;
+import dev.base.workflow.service.execution.WorkflowScheduler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static dev.base.workflow.constant.WorkflowConstants.CFG_CRON;
+
+/**
+ * Starts and stops the long-lived triggers (cron schedules, Kafka consumers)
+ * of a workflow outside of an execution, e.g. on startup or rebalance.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TriggerActivator {
+
+    private final WorkflowScheduler workflowScheduler;
+    private final KafkaTriggerManager kafkaTriggerManager;
+    private final ClusterMembershipService membershipService;
+
+    /**
+     * Whether any cron or Kafka trigger of the workflow belongs on this
+     * instance. Cron follows the workflow; a Kafka trigger in a shared group
+     * follows its (group, topic).
+     */
+    public boolean ownsAnyTrigger(WorkflowDefinition workflow) {
+        for (NodeDefinition node : workflow.getNodes()) {
+            if (TriggerNodeType.CRON.getName().equals(node.getNodeType())
+                    && membershipService.isOwner(workflow.getId())) {
+                return true;
+            }
+            if (TriggerNodeType.KAFKA.getName().equals(node.getNodeType()) && node.getConfig() != null
+                    && kafkaTriggerManager.isOwner(workflow.getId(), node.getConfig())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Activate every cron and Kafka trigger node of the workflow within the given run.
+     */
+    public void activate(WorkflowDefinition workflow, String runId) {
+        for (NodeDefinition node : workflow.getNodes()) {
+            if (TriggerNodeType.CRON.getName().equals(node.getNodeType())) {
+                String cron = node.getConfig() != null ? (String) node.getConfig().get(CFG_CRON) : null;
+                if (cron != null && !cron.isBlank()) {
+                    workflowScheduler.scheduleCronTask(workflow.getId(), cron, runId);
+                }
+            } else if (TriggerNodeType.KAFKA.getName().equals(node.getNodeType()) && node.getConfig() != null) {
+                kafkaTriggerManager.refreshConsumer(workflow.getId(), node.getConfig());
+            }
+        }
+    }
+
+    public void deactivate(String workflowId) {
+        workflowScheduler.unscheduleWorkflow(workflowId);
+        kafkaTriggerManager.stopConsumer(workflowId);
+    }
+
+    /**
+     * Workflows with a cron schedule or Kafka consumer on this instance.
+     */
+    public Set<String> activeWorkflowIds() {
+        Set<String> active = new HashSet<>(workflowScheduler.getScheduledWorkflowIds());
+        active.addAll(kafkaTriggerManager.getActiveWorkflowIds());
+        return active;
+    }
+}
@@ -0,0 +1,41 @@
+package dev.base.workflow.service.execution.trigger;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import static dev.base.workflow.constant.WorkflowConstants.KEY_ACTIVATED;
+import static dev.base.workflow.constant.WorkflowConstants.KEY_BOOTSTRAP_ATTEMPTS;
+import static dev.base.workflow.constant.WorkflowConstants.KEY_ERROR;
+import static dev.base.workflow.constant.WorkflowConstants.KEY_FAILED;
+
+/**
+ * OUT_OF_SERVICE until startup trigger registration has finished, DOWN while
+ * its last attempt failed and it waits to retry; part of the readiness health
+ * group so traffic waits for cron/Kafka triggers to be live.
+ */
+@Component
+@RequiredArgsConstructor
+public class TriggerBootstrapHealthIndicator implements HealthIndicator {
+
+    private final TriggerBootstrapper bootstrapper;
+
+    @Override
+    public Health health() {
+        String error = bootstrapper.getLastError();
+        Health.Builder builder;
+        if (bootstrapper.isCompleted()) {
+            builder = Health.up();
+        } else if (error != null) {
+            builder = Health.down().withDetail(KEY_ERROR, error);
+        } else {
+            builder = Health.outOfService();
+        }
+        return builder
+                .withDetail(KEY_ACTIVATED, bootstrapper.getActivatedCount())
+                .withDetail(KEY_FAILED, bootstrapper.getFailedCount())
+                .withDetail(KEY_BOOTSTRAP_ATTEMPTS, bootstrapper.getAttemptCount())
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package dev.base.workflow.service.execution.trigger;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.model.nodetype.TriggerNodeType;
+import dev.base.workflow.mongo.collection.WorkflowDefinition;
+import dev.base.workflow.mongo.collection.WorkflowRun;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Re-registers cron schedules and Kafka consumers for every workflow with an
+ * ACTIVE run after a restart.
+ *
+ * Definitions are streamed with only their trigger nodes projected, and
+ * activation runs on virtual threads with bounded parallelism. A bootstrap
+ * that fails as a whole (e.g. Mongo unreachable) is retried with exponential
+ * backoff; failures of single workflows are counted and logged. Reports
+ * readiness through {@link TriggerBootstrapHealthIndicator}, which is UP only
+ * after a successful pass and DOWN while the last attempt failed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TriggerBootstrapper {
+
+    private static final List<String> TRIGGER_NODE_TYPES = List.of(
+            TriggerNodeType.CRON.getName(), TriggerNodeType.KAFKA.getName());
+
+    private final MongoTemplate mongoTemplate;
+    private final TriggerActivator triggerActivator;
+    private final AppConfig appConfig;
+
+    private volatile boolean completed;
+    private volatile String lastError;
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final AtomicInteger activated = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!appConfig.getTriggerBootstrap().isEnabled()) {
+            completed = true;
+            return;
+        }
+        Thread.ofVirtual().name("trigger-bootstrap").start(this::bootstrap);
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public int getActivatedCount() {
+        return activated.get();
+    }
+
+    public int getFailedCount() {
+        return failed.get();
+    }
+
+    public int getAttemptCount() {
+        return attempts.get();
+    }
+
+    /**
+     * Why the last attempt failed, or null when it has not failed.
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    private void bootstrap() {
+        long backoffMs = appConfig.getTriggerBootstrap().getInitialBackoffMs();
+        while (!completed && !Thread.currentThread().isInterrupted()) {
+            attempts.incrementAndGet();
+            try {
+                runOnce();
+                lastError = null;
+                completed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                lastError = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+                log.error("Trigger bootstrap attempt {} failed, retrying in {} ms", attempts.get(), backoffMs, e);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                backoffMs = Math.min(backoffMs * 2, appConfig.getTriggerBootstrap().getMaxBackoffMs());
+            }
+        }
+    }
+
+    /**
+     * Activation is idempotent, so a retry re-activates workflows the failed
+     * attempt already covered; the counters restart with it.
+     */
+    private void runOnce() throws InterruptedException {
+        long startedAt = System.currentTimeMillis();
+        activated.set(0);
+        failed.set(0);
+        Map<String, String> activeRuns = activeRunsByWorkflow();
+        if (!activeRuns.isEmpty()) {
+            activateAll(activeRuns);
+        }
+        log.info("Trigger bootstrap activated {} workflows ({} failed) in {} ms",
+                activated.get(), failed.get(), System.currentTimeMillis() - startedAt);
+    }
+
+    private void activateAll(Map<String, String> activeRuns) throws InterruptedException {
+        Semaphore permits = new Semaphore(appConfig.getTriggerBootstrap().getParallelism());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             Stream<WorkflowDefinition> workflows = streamTriggerNodes(activeRuns.keySet().stream().toList())) {
+            for (WorkflowDefinition workflow : (Iterable<WorkflowDefinition>) workflows::iterator) {
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        activate(workflow, activeRuns.get(workflow.getId()));
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void activate(WorkflowDefinition workflow, String runId) {
+        try {
+            triggerActivator.activate(workflow, runId);
+            activated.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.error("Failed to activate triggers for workflow {}", workflow.getId(), e);
+        }
+    }
+
+    /**
+     * One ACTIVE run per workflow; only ids are loaded.
+     */
+    private Map<String, String> activeRunsByWorkflow() {
+        Query query = new Query(where(FIELD_STATUS).is(WorkflowRun.RunStatus.ACTIVE));
+        query.fields().include(FIELD_WORKFLOW_ID);
+        Map<String, String> runs = new HashMap<>();
+        mongoTemplate.find(query, WorkflowRun.class)
+                .forEach(run -> runs.putIfAbsent(run.getWorkflowId(), run.getId()));
+        return runs;
+    }
+
+    /**
+     * Active definitions among the given ids with {@code nodes} reduced to trigger nodes.
+     */
+    private Stream<WorkflowDefinition> streamTriggerNodes(List<String> workflowIds) {
+        TypedAggregation<WorkflowDefinition> aggregation = Aggregation.newAggregation(WorkflowDefinition.class,
+                Aggregation.match(where(FIELD_MONGO_ID).in(workflowIds)
+                        .and(FIELD_ACTIVE).is(true)
+                        .and(FIELD_NODES_TYPE).in(TRIGGER_NODE_TYPES)),
+                Aggregation.project()
+                        .and(ArrayOperators.Filter.filter(FIELD_NODES).as(VAR_NODE)
+                                .by(ArrayOperators.In.arrayOf(TRIGGER_NODE_TYPES).containsValue(VAR_NODE_TYPE)))
+                        .as(FIELD_NODES));
+        return mongoTemplate.aggregateStream(aggregation, WorkflowDefinition.class);
+    }
+}
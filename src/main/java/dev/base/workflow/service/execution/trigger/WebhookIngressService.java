@@ -0,0 +1,210 @@
+package dev.base.workflow.service.execution.trigger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.exception.DispatchRejectedException;
+import dev.base.workflow.exception.PayloadTooLargeException;
+import dev.base.workflow.exception.WebhookAuthenticationException;
+import dev.base.workflow.exception.WorkflowNotFoundException;
+import dev.base.workflow.model.dto.WebhookAccepted;
+import dev.base.workflow.model.nodetype.TriggerNodeType;
+import dev.base.workflow.mongo.collection.NodeDefinition;
+import dev.base.workflow.mongo.collection.WorkflowRun;
+import dev.base.workflow.service.execution.dispatch.DispatchTask;
+import dev.base.workflow.service.execution.dispatch.ExecutionDispatcher;
+import dev.base.workflow.service.management.WorkflowDefinitionCache;
+import dev.base.workflow.util.StringUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+import static dev.base.workflow.constant.WorkflowErrorConstants.*;
+
+/**
+ * Webhook ingress: authenticates, validates and enqueues payloads for
+ * workflows with a WEBHOOK trigger, without waiting for the run.
+ *
+ * The definition comes from the cache and the event goes straight to the
+ * {@link ExecutionDispatcher} under a pre-assigned execution id. Unless the
+ * distributed queue is on, the only database round-trip is the dedup claim
+ * of an event sent with an {@code Idempotency-Key}: one upsert per event
+ * (see {@code TriggerDeduplicator}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookIngressService {
+
+    private final WorkflowDefinitionCache definitionCache;
+    private final ExecutionDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+    private final AppConfig appConfig;
+
+    public WebhookAccepted accept(String workflowId, HttpHeaders headers, InputStream body) {
+        byte[] payload = readBounded(headers, body);
+        authenticate(workflowId, headers, payload);
+        Object input = payload.length == 0 ? null : toValue(readTree(payload));
+        return enqueue(workflowId, input, headers.getFirst(HEADER_IDEMPOTENCY_KEY));
+    }
+
+    /**
+     * Accept a JSON array of events; each element becomes its own execution.
+     *
+     * Events are queued in order. Once the dispatcher rejects one, it and
+     * every later event are reported as not accepted (without queueing them,
+     * so a retry of that tail keeps the order); the whole request fails with
+     * 429 only when nothing was queued.
+     */
+    public List<WebhookAccepted> acceptBatch(String workflowId, HttpHeaders headers, InputStream body) {
+        byte[] payload = readBounded(headers, body);
+        authenticate(workflowId, headers, payload);
+        JsonNode events = readTree(payload);
+        if (!events.isArray()) {
+            throw new IllegalArgumentException(ERR_WEBHOOK_BATCH_NOT_ARRAY);
+        }
+        if (events.size() > appConfig.getWebhook().getMaxBatchSize()) {
+            throw new IllegalArgumentException(ERR_WEBHOOK_BATCH_TOO_LARGE + appConfig.getWebhook().getMaxBatchSize());
+        }
+        String idempotencyKey = headers.getFirst(HEADER_IDEMPOTENCY_KEY);
+        List<WebhookAccepted> results = new ArrayList<>(events.size());
+        DispatchRejectedException rejection = null;
+        for (int i = 0; i < events.size(); i++) {
+            if (rejection == null) {
+                String eventKey = idempotencyKey != null
+                        ? StringUtils.concat(idempotencyKey, DEDUP_KEY_SEPARATOR, i)
+                        : null;
+                try {
+                    results.add(enqueue(workflowId, toValue(events.get(i)), eventKey));
+                    continue;
+                } catch (DispatchRejectedException e) {
+                    if (i == 0) {
+                        throw e;
+                    }
+                    rejection = e;
+                    log.warn("Webhook batch for workflow {} rejected from event {} of {}: {}", workflowId, i,
+                            events.size(), e.getMessage());
+                }
+            }
+            results.add(WebhookAccepted.builder().workflowId(workflowId).accepted(false)
+                    .error(rejection.getMessage()).build());
+        }
+        return results;
+    }
+
+    private WebhookAccepted enqueue(String workflowId, Object input, String idempotencyKey) {
+        String executionId = new ObjectId().toHexString();
+        CompletableFuture<Void> completion = dispatcher.submit(DispatchTask.builder()
+                .workflowId(workflowId)
+                .input(input)
+                .triggerType(WorkflowRun.TriggerType.WEBHOOK)
+                .executionId(executionId)
+                .idempotencyKey(idempotencyKey)
+                .build());
+        if (completion.state() == Future.State.FAILED
+                && completion.exceptionNow() instanceof DispatchRejectedException rejected) {
+            throw rejected;
+        }
+        return WebhookAccepted.builder().workflowId(workflowId).executionId(executionId).accepted(true).build();
+    }
+
+    private byte[] readBounded(HttpHeaders headers, InputStream body) {
+        int limit = appConfig.getWebhook().getMaxBodyBytes();
+        if (headers.getContentLength() > limit) {
+            throw new PayloadTooLargeException(limit);
+        }
+        try {
+            byte[] payload = body.readNBytes(limit + 1);
+            if (payload.length > limit) {
+                throw new PayloadTooLargeException(limit);
+            }
+            return payload;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void authenticate(String workflowId, HttpHeaders headers, byte[] payload) {
+        Map<String, Object> config = webhookConfig(workflowId);
+        String secret = (String) config.get(CFG_WEBHOOK_SECRET);
+        String token = (String) config.get(CFG_WEBHOOK_TOKEN);
+
+        boolean authenticated;
+        if (secret != null) {
+            authenticated = signatureMatches(secret, headers.getFirst(HEADER_WEBHOOK_SIGNATURE), payload);
+        } else if (token != null) {
+            authenticated = constantTimeEquals(token, headers.getFirst(HEADER_WEBHOOK_TOKEN));
+        } else {
+            authenticated = appConfig.getWebhook().isAllowUnsigned();
+        }
+        if (!authenticated) {
+            throw new WebhookAuthenticationException(workflowId);
+        }
+    }
+
+    private Map<String, Object> webhookConfig(String workflowId) {
+        return definitionCache.getActive(workflowId)
+                .orElseThrow(() -> new WorkflowNotFoundException(workflowId))
+                .getNodes().stream()
+                .filter(node -> TriggerNodeType.WEBHOOK.getName().equals(node.getNodeType()))
+                .findFirst()
+                .map(NodeDefinition::getConfig)
+                .map(config -> config != null ? config : Map.<String, Object>of())
+                .orElseThrow(() -> new IllegalArgumentException(ERR_WEBHOOK_NOT_CONFIGURED + workflowId));
+    }
+
+    private boolean signatureMatches(String secret, String signatureHeader, byte[] payload) {
+        if (signatureHeader == null || !signatureHeader.startsWith(WEBHOOK_SIGNATURE_PREFIX)) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256));
+            String expected = HexFormat.of().formatHex(mac.doFinal(payload));
+            return constantTimeEquals(expected, signatureHeader.substring(WEBHOOK_SIGNATURE_PREFIX.length()));
+        } catch (GeneralSecurityException e) {
+            log.error("Failed to compute webhook signature", e);
+            return false;
+        }
+    }
+
+    private boolean constantTimeEquals(String expected, String actual) {
+        return actual != null && MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private JsonNode readTree(byte[] payload) {
+        try {
+            return objectMapper.readTree(payload);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ERR_WEBHOOK_INVALID_JSON, e);
+        }
+    }
+
+    private Object toValue(JsonNode node) {
+        try {
+            return objectMapper.treeToValue(node, Object.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(ERR_WEBHOOK_INVALID_JSON, e);
+        }
+    }
+}
@@ -1,15 +1,28 @@
 package dev.base.workflow.service.integration;
 
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.model.dto.KafkaTriggerLag;
+import dev.base.workflow.util.RefreshAheadCache;
 import dev.base.workflow.util.StringUtils;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.*;
-import org.apache.kafka.common.Node;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -18,45 +31,70 @@ import static dev.base.workflow.constant.WorkflowConstants.KEY_ERROR;
 import static dev.base.workflow.constant.WorkflowConstants.KEY_SUCCESS;
 
 /**
- * Service for Kafka admin operations: test connection, list/create topics.
- * Uses a connection cache to reuse AdminClient instances for the same
- * configuration.
+ * Service for Kafka admin operations: test connection, list/create topics,
+ * consumer group lag.
+ *
+ * AdminClients are cached per connection in a bounded LRU; the least
+ * recently used one makes room at {@code max-clients}, unused ones are
+ * closed after {@code client-idle-ms}, and closing happens on a background
+ * thread so no request waits for it. Cluster info, topic lists and topic
+ * descriptions are cached with refresh-ahead (see {@link RefreshAheadCache})
+ * so topic pickers and validation do not reach the cluster on every call.
+ * Describes and creates for several topics go out as one admin request.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class KafkaAdminService {
 
-    // Cache AdminClient instances by config hash to avoid recreating connections
-    private final Map<String, CachedAdminClient> adminClientCache = new ConcurrentHashMap<>();
+    private final AppConfig appConfig;
 
-    /**
-     * Get or create AdminClient for the given configuration.
-     * Cached clients are reused if config matches and TTL hasn't expired.
-     */
-    private AdminClient getOrCreateAdminClient(Map<String, Object> config) {
-        String cacheKey = buildCacheKey(config);
+    // Access-ordered for LRU eviction; guarded by itself
+    private final Map<String, CachedAdminClient> adminClientCache = new LinkedHashMap<>(16, 0.75f, true);
+    private final ExecutorService closer = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("kafka-admin-close-", 0).factory());
 
-        CachedAdminClient cached = adminClientCache.get(cacheKey);
-        if (cached != null && !cached.isExpired()) {
-            log.debug("Reusing cached AdminClient for: {}", config.get(CFG_BOOTSTRAP_SERVERS));
-            return cached.client;
-        }
+    private RefreshAheadCache<String, ClusterInfo> clusterCache;
+    private RefreshAheadCache<String, Set<String>> topicCache;
+    private RefreshAheadCache<TopicKey, TopicDescription> descriptionCache;
 
-        // Close expired client if exists
-        if (cached != null) {
-            log.debug("Closing expired AdminClient for: {}", config.get(CFG_BOOTSTRAP_SERVERS));
-            try {
-                cached.client.close();
-            } catch (Exception e) {
-                log.warn("Error closing expired AdminClient", e);
+    @PostConstruct
+    void initCaches() {
+        AppConfig.KafkaAdminConfig admin = appConfig.getKafkaAdmin();
+        clusterCache = new RefreshAheadCache<>(admin.getMetadataRefreshAfterMs(), admin.getMetadataTtlMs());
+        topicCache = new RefreshAheadCache<>(admin.getMetadataRefreshAfterMs(), admin.getMetadataTtlMs());
+        descriptionCache = new RefreshAheadCache<>(admin.getMetadataRefreshAfterMs(), admin.getMetadataTtlMs());
+    }
+
+    /**
+     * Get or create the AdminClient for a connection, evicting the least
+     * recently used one when the cache is full.
+     */
+    private AdminClient getOrCreateAdminClient(String cacheKey, Map<String, Object> config) {
+        List<AdminClient> evicted = new ArrayList<>();
+        AdminClient client;
+        synchronized (adminClientCache) {
+            CachedAdminClient cached = adminClientCache.get(cacheKey);
+            if (cached == null) {
+                log.info("Creating new AdminClient for: {}", config.get(CFG_BOOTSTRAP_SERVERS));
+                cached = new CachedAdminClient(AdminClient.create(buildAdminProperties(config)));
+                adminClientCache.put(cacheKey, cached);
+                evictOverflow(evicted);
             }
+            cached.touch();
+            client = cached.client;
         }
+        evicted.forEach(this::closeInBackground);
+        return client;
+    }
 
-        log.info("Creating new AdminClient for: {}", config.get(CFG_BOOTSTRAP_SERVERS));
-        AdminClient newClient = AdminClient.create(buildAdminProperties(config));
-        adminClientCache.put(cacheKey, new CachedAdminClient(newClient));
-
-        return newClient;
+    private void evictOverflow(List<AdminClient> evicted) {
+        int maxClients = appConfig.getKafkaAdmin().getMaxClients();
+        var iterator = adminClientCache.values().iterator();
+        while (adminClientCache.size() > maxClients && iterator.hasNext()) {
+            evicted.add(iterator.next().client);
+            iterator.remove();
+        }
     }
 
     /**
@@ -124,24 +162,18 @@ public class KafkaAdminService {
      */
     public Map<String, Object> testConnection(Map<String, Object> config) {
         Map<String, Object> result = new HashMap<>();
+        String cacheKey = buildCacheKey(config);
 
         try {
-            AdminClient adminClient = getOrCreateAdminClient(config);
-            DescribeClusterResult cluster = adminClient.describeCluster();
-
-            String clusterId = cluster.clusterId().get(KAFKA_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-            Collection<Node> nodes = cluster.nodes().get(KAFKA_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-
-            List<String> brokers = nodes.stream()
-                    .map(node -> StringUtils.concat(node.host(), ":", node.port()))
-                    .toList();
+            ClusterInfo cluster = await(clusterCache.get(cacheKey, () -> describeCluster(cacheKey, config)));
 
             result.put(KEY_SUCCESS, true);
-            result.put(KEY_CLUSTER_ID, clusterId);
-            result.put(KEY_BROKERS, brokers);
-            result.put(KEY_BROKER_COUNT, brokers.size());
+            result.put(KEY_CLUSTER_ID, cluster.clusterId());
+            result.put(KEY_BROKERS, cluster.brokers());
+            result.put(KEY_BROKER_COUNT, cluster.brokers().size());
 
-            log.info("Kafka connection test successful. Cluster: {}, Brokers: {}", clusterId, brokers);
+            log.info("Kafka connection test successful. Cluster: {}, Brokers: {}", cluster.clusterId(),
+                    cluster.brokers());
 
         } catch (ExecutionException | InterruptedException | TimeoutException e) {
             log.error("Kafka connection test failed", e);
@@ -159,10 +191,10 @@ public class KafkaAdminService {
      * List all topics in the Kafka cluster.
      */
     public Set<String> listTopics(Map<String, Object> config) {
+        String cacheKey = buildCacheKey(config);
         try {
-            AdminClient adminClient = getOrCreateAdminClient(config);
-            ListTopicsResult topicsResult = adminClient.listTopics();
-            Set<String> topics = topicsResult.names().get(KAFKA_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Set<String> topics = await(topicCache.get(cacheKey,
+                    () -> toFuture(getOrCreateAdminClient(cacheKey, config).listTopics().names())));
             log.debug("Listed {} topics from Kafka", topics.size());
             return topics;
         } catch (ExecutionException | InterruptedException | TimeoutException e) {
@@ -172,30 +204,72 @@ public class KafkaAdminService {
         }
     }
 
+    /**
+     * Describe several topics with one admin request for those not cached.
+     * Topics that do not exist are left out of the result.
+     */
+    public Map<String, TopicDescription> describeTopics(Map<String, Object> config, Collection<String> topics) {
+        Map<String, TopicDescription> descriptions = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<TopicKey, CompletableFuture<TopicDescription>> described
+                    : describe(buildCacheKey(config), config, topics).entrySet()) {
+                try {
+                    descriptions.put(described.getKey().topic(), await(described.getValue()));
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof UnknownTopicOrPartitionException)) {
+                        throw e;
+                    }
+                }
+            }
+            return descriptions;
+        } catch (ExecutionException | InterruptedException | TimeoutException e) {
+            log.error("Failed to describe Kafka topics {}", topics, e);
+            invalidateCache(config);
+            throw new RuntimeException(StringUtils.concat("Failed to describe topics: ", e.getMessage()), e);
+        }
+    }
+
     /**
      * Create a new topic in Kafka.
      */
     public Map<String, Object> createTopic(Map<String, Object> config, String topicName, int partitions,
             short replicationFactor) {
+        return createTopics(config, List.of(new NewTopic(topicName, partitions, replicationFactor))).get(0);
+    }
+
+    /**
+     * Create several topics with one admin request; one result per topic,
+     * in request order.
+     */
+    public List<Map<String, Object>> createTopics(Map<String, Object> config, List<NewTopic> topics) {
+        String cacheKey = buildCacheKey(config);
+        Map<String, KafkaFuture<Void>> created = getOrCreateAdminClient(cacheKey, config).createTopics(topics).values();
+        List<Map<String, Object>> results = topics.stream()
+                .map(topic -> createResult(topic, created.get(topic.name())))
+                .toList();
+        // Only now, so a concurrent listing cannot re-cache the old topic set
+        topicCache.invalidate(cacheKey);
+        descriptionCache.invalidateIf(key -> key.connection().equals(cacheKey));
+        return results;
+    }
+
+    private Map<String, Object> createResult(NewTopic topic, KafkaFuture<Void> created) {
         Map<String, Object> result = new HashMap<>();
 
         try {
-            AdminClient adminClient = getOrCreateAdminClient(config);
-            NewTopic newTopic = new NewTopic(topicName, partitions, replicationFactor);
-            adminClient.createTopics(Collections.singleton(newTopic))
-                    .all()
-                    .get(KAFKA_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            created.get(KAFKA_TIMEOUT_SECONDS, TimeUnit.SECONDS);
 
             result.put(KEY_SUCCESS, true);
-            result.put(CFG_TOPIC_NAME, topicName);
-            result.put(CFG_PARTITIONS, partitions);
-            result.put(CFG_REPLICATION_FACTOR, replicationFactor);
+            result.put(CFG_TOPIC_NAME, topic.name());
+            result.put(CFG_PARTITIONS, topic.numPartitions());
+            result.put(CFG_REPLICATION_FACTOR, topic.replicationFactor());
 
-            log.info("Created Kafka topic: {} with {} partitions", topicName, partitions);
+            log.info("Created Kafka topic: {} with {} partitions", topic.name(), topic.numPartitions());
 
         } catch (ExecutionException | InterruptedException | TimeoutException e) {
-            log.error("Failed to create Kafka topic: {}", topicName, e);
+            log.error("Failed to create Kafka topic: {}", topic.name(), e);
             result.put(KEY_SUCCESS, false);
+            result.put(CFG_TOPIC_NAME, topic.name());
             result.put(KEY_ERROR, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
         }
 
@@ -203,17 +277,142 @@ public class KafkaAdminService {
     }
 
     /**
-     * Invalidate cached client for a given configuration.
+     * Committed offsets of the group against log-end offsets for every
+     * partition of the topic. Partitions the group never committed count
+     * from the earliest retained offset, matching the trigger consumers'
+     * {@code auto.offset.reset}.
+     */
+    public List<KafkaTriggerLag.PartitionLag> consumerGroupLag(Map<String, Object> config, String groupId,
+            String topic) {
+        String cacheKey = buildCacheKey(config);
+        try {
+            AdminClient adminClient = getOrCreateAdminClient(cacheKey, config);
+            Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+                    .partitionsToOffsetAndMetadata()
+                    .get(KAFKA_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            List<TopicPartition> partitions = partitionsOf(cacheKey, config, topic);
+            Map<TopicPartition, Long> earliest = offsets(adminClient, partitions, OffsetSpec.earliest());
+            Map<TopicPartition, Long> latest = offsets(adminClient, partitions, OffsetSpec.latest());
+            return partitions.stream()
+                    .map(partition -> toLag(partition, committed.get(partition), earliest.get(partition),
+                            latest.get(partition)))
+                    .toList();
+        } catch (ExecutionException | InterruptedException | TimeoutException e) {
+            log.error("Failed to read lag of consumer group {} on topic {}", groupId, topic, e);
+            invalidateCache(config);
+            throw new RuntimeException(StringUtils.concat("Failed to read consumer lag: ", e.getMessage()), e);
+        }
+    }
+
+    private List<TopicPartition> partitionsOf(String cacheKey, Map<String, Object> config, String topic)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        TopicDescription description = await(describe(cacheKey, config, List.of(topic))
+                .get(new TopicKey(cacheKey, topic)));
+        return description.partitions().stream()
+                .map(info -> new TopicPartition(topic, info.partition()))
+                .toList();
+    }
+
+    private Map<TopicKey, CompletableFuture<TopicDescription>> describe(String cacheKey, Map<String, Object> config,
+            Collection<String> topics) {
+        List<TopicKey> keys = topics.stream().map(topic -> new TopicKey(cacheKey, topic)).toList();
+        return descriptionCache.getAll(keys, missing -> {
+            Map<String, KafkaFuture<TopicDescription>> described = getOrCreateAdminClient(cacheKey, config)
+                    .describeTopics(missing.stream().map(TopicKey::topic).toList())
+                    .topicNameValues();
+            Map<TopicKey, CompletableFuture<TopicDescription>> loaded = new HashMap<>();
+            missing.forEach(key -> loaded.put(key, toFuture(described.get(key.topic()))));
+            return loaded;
+        });
+    }
+
+    private CompletableFuture<ClusterInfo> describeCluster(String cacheKey, Map<String, Object> config) {
+        DescribeClusterResult cluster = getOrCreateAdminClient(cacheKey, config).describeCluster();
+        CompletableFuture<String> clusterId = toFuture(cluster.clusterId());
+        return toFuture(cluster.nodes()).thenCombine(clusterId, (nodes, id) -> new ClusterInfo(id, nodes.stream()
+                .map(node -> StringUtils.concat(node.host(), ":", node.port()))
+                .toList()));
+    }
+
+    private Map<TopicPartition, Long> offsets(AdminClient adminClient, List<TopicPartition> partitions,
+            OffsetSpec spec) throws ExecutionException, InterruptedException, TimeoutException {
+        Map<TopicPartition, OffsetSpec> request = new HashMap<>();
+        partitions.forEach(partition -> request.put(partition, spec));
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        adminClient.listOffsets(request).all().get(KAFKA_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .forEach((partition, info) -> offsets.put(partition, info.offset()));
+        return offsets;
+    }
+
+    private KafkaTriggerLag.PartitionLag toLag(TopicPartition partition, OffsetAndMetadata committed,
+            long earliestOffset, long logEndOffset) {
+        long position = committed != null ? committed.offset() : earliestOffset;
+        return KafkaTriggerLag.PartitionLag.builder()
+                .partition(partition.partition())
+                .committedOffset(committed != null ? committed.offset() : -1)
+                .logEndOffset(logEndOffset)
+                .lag(Math.max(0, logEndOffset - position))
+                .build();
+    }
+
+    /**
+     * Close clients unused for {@code client-idle-ms} and drop expired metadata.
+     */
+    @Scheduled(fixedDelayString = "${app.kafka-admin.maintenance-interval-ms}")
+    public void maintain() {
+        long idleCutoff = System.currentTimeMillis() - appConfig.getKafkaAdmin().getClientIdleMs();
+        List<AdminClient> idle = new ArrayList<>();
+        synchronized (adminClientCache) {
+            adminClientCache.values().removeIf(cached -> {
+                if (cached.lastUsedAt >= idleCutoff) {
+                    return false;
+                }
+                idle.add(cached.client);
+                return true;
+            });
+        }
+        if (!idle.isEmpty()) {
+            log.debug("Closing {} idle Kafka AdminClients", idle.size());
+        }
+        idle.forEach(this::closeInBackground);
+        clusterCache.evictExpired();
+        topicCache.evictExpired();
+        descriptionCache.evictExpired();
+    }
+
+    /**
+     * Invalidate cached client and metadata for a given configuration.
      */
     private void invalidateCache(Map<String, Object> config) {
         String cacheKey = buildCacheKey(config);
-        CachedAdminClient cached = adminClientCache.remove(cacheKey);
+        clusterCache.invalidate(cacheKey);
+        topicCache.invalidate(cacheKey);
+        descriptionCache.invalidateIf(key -> key.connection().equals(cacheKey));
+        CachedAdminClient cached;
+        synchronized (adminClientCache) {
+            cached = adminClientCache.remove(cacheKey);
+        }
         if (cached != null) {
-            try {
-                cached.client.close();
-            } catch (Exception e) {
-                log.warn("Error closing AdminClient during cache invalidation", e);
-            }
+            closeInBackground(cached.client);
+        }
+    }
+
+    /**
+     * Closing waits for in-flight requests, so it must not hold up the caller.
+     */
+    private void closeInBackground(AdminClient client) {
+        try {
+            closer.execute(() -> close(client));
+        } catch (RejectedExecutionException e) {
+            close(client);
+        }
+    }
+
+    private void close(AdminClient client) {
+        try {
+            client.close(Duration.ofSeconds(KAFKA_TIMEOUT_SECONDS));
+        } catch (Exception e) {
+            log.warn("Error closing AdminClient", e);
         }
     }
 
@@ -222,31 +421,50 @@ public class KafkaAdminService {
      */
     @PreDestroy
     public void cleanup() {
-        log.info("Cleaning up {} cached Kafka AdminClients", adminClientCache.size());
-        adminClientCache.values().forEach(cached -> {
-            try {
-                cached.client.close();
-            } catch (Exception e) {
-                log.warn("Error closing AdminClient during cleanup", e);
-            }
-        });
-        adminClientCache.clear();
+        List<AdminClient> clients;
+        synchronized (adminClientCache) {
+            clients = adminClientCache.values().stream().map(cached -> cached.client).toList();
+            adminClientCache.clear();
+        }
+        log.info("Cleaning up {} cached Kafka AdminClients", clients.size());
+        clients.forEach(this::closeInBackground);
+        closer.shutdown();
+        try {
+            closer.awaitTermination(KAFKA_TIMEOUT_SECONDS + 1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) throws ExecutionException, InterruptedException,
+            TimeoutException {
+        return future.get(KAFKA_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static <T> CompletableFuture<T> toFuture(KafkaFuture<T> future) {
+        return future.toCompletionStage().toCompletableFuture();
     }
 
     /**
-     * Wrapper class for cached AdminClient with creation timestamp.
+     * Wrapper class for cached AdminClient with last-use timestamp.
      */
     private static class CachedAdminClient {
         final AdminClient client;
-        final long createdAt;
+        volatile long lastUsedAt;
 
         CachedAdminClient(AdminClient client) {
             this.client = client;
-            this.createdAt = System.currentTimeMillis();
+            this.lastUsedAt = System.currentTimeMillis();
         }
 
-        boolean isExpired() {
-            return System.currentTimeMillis() - createdAt > KAFKA_CACHE_TTL_MS;
+        void touch() {
+            lastUsedAt = System.currentTimeMillis();
         }
     }
+
+    private record ClusterInfo(String clusterId, List<String> brokers) {
+    }
+
+    private record TopicKey(String connection, String topic) {
+    }
 }
@@ -0,0 +1,211 @@
+package dev.base.workflow.service.management;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.mongo.collection.NodeDefinition;
+import dev.base.workflow.mongo.collection.WorkflowDefinition;
+import dev.base.workflow.mongo.repository.WorkflowDefinitionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListener;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static dev.base.workflow.constant.WorkflowConstants.COLLECTION_WORKFLOWS;
+import static dev.base.workflow.constant.WorkflowConstants.FIELD_MONGO_ID;
+
+/**
+ * Bounded LRU cache of runtime workflow definitions in front of
+ * {@link WorkflowDefinitionRepository#findByIdAndActiveTrue(String)}.
+ *
+ * Cached copies have UI-only node metadata stripped and must be treated as
+ * read-only. Entries are invalidated on save/delete, expire after a TTL, and -
+ * when change streams are enabled - on writes made by other instances.
+ * A global invalidation counter keeps a slow load that raced with an
+ * invalidation from repopulating a stale entry, and an entry is never
+ * replaced by a copy with a lower definition version.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowDefinitionCache {
+
+    private final WorkflowDefinitionRepository workflowRepository;
+    private final MongoTemplate mongoTemplate;
+    private final AppConfig appConfig;
+
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Map<String, CachedDefinition> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private MessageListenerContainer changeStreamContainer;
+
+    /**
+     * Get the runtime copy of an active workflow, loading it on a miss.
+     */
+    public Optional<WorkflowDefinition> getActive(String workflowId) {
+        CachedDefinition cached = lookup(workflowId);
+        if (cached != null) {
+            return Optional.of(cached.definition);
+        }
+
+        long generation = invalidations.get();
+        Optional<WorkflowDefinition> loaded = workflowRepository.findByIdAndActiveTrue(workflowId)
+                .map(this::toRuntimeCopy);
+        loaded.ifPresent(definition -> store(definition, generation));
+        return loaded;
+    }
+
+    /**
+     * Write-through after a save so the next execution does not hit Mongo.
+     */
+    public void put(WorkflowDefinition saved) {
+        invalidate(saved.getId());
+        if (saved.isActive()) {
+            store(toRuntimeCopy(saved), invalidations.get());
+        }
+    }
+
+    public void invalidate(String workflowId) {
+        invalidations.incrementAndGet();
+        synchronized (entries) {
+            entries.remove(workflowId);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Subscribe to the workflows collection so writes from other instances
+     * evict local entries. Requires a replica set, hence opt-in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startChangeStream() {
+        if (!appConfig.getDefinitionCache().isChangeStreamEnabled()) {
+            return;
+        }
+        MessageListener<ChangeStreamDocument<Document>, Document> listener = this::onChange;
+        ChangeStreamRequest<Document> request = ChangeStreamRequest.<Document>builder(listener)
+                .collection(COLLECTION_WORKFLOWS)
+                .build();
+
+        changeStreamContainer = new DefaultMessageListenerContainer(mongoTemplate);
+        changeStreamContainer.register(request, Document.class);
+        changeStreamContainer.start();
+        log.info("Workflow definition cache listening for changes on '{}'", COLLECTION_WORKFLOWS);
+    }
+
+    @PreDestroy
+    public void stopChangeStream() {
+        if (changeStreamContainer != null) {
+            changeStreamContainer.stop();
+        }
+    }
+
+    private CachedDefinition lookup(String workflowId) {
+        synchronized (entries) {
+            CachedDefinition cached = entries.get(workflowId);
+            if (cached != null && cached.isExpired(appConfig.getDefinitionCache().getTtlMs())) {
+                entries.remove(workflowId);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void store(WorkflowDefinition definition, long generation) {
+        synchronized (entries) {
+            CachedDefinition current = entries.get(definition.getId());
+            boolean older = current != null && current.definition.getVersion() > definition.getVersion();
+            if (invalidations.get() != generation || older) {
+                return;
+            }
+            entries.put(definition.getId(), new CachedDefinition(definition));
+            evictOverflow();
+        }
+    }
+
+    private void evictOverflow() {
+        int maxEntries = appConfig.getDefinitionCache().getMaxEntries();
+        var iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private void onChange(Message<ChangeStreamDocument<Document>, Document> message) {
+        ChangeStreamDocument<Document> change = message.getRaw();
+        if (change == null || change.getDocumentKey() == null) {
+            invalidateAll();
+            return;
+        }
+        BsonValue id = change.getDocumentKey().get(FIELD_MONGO_ID);
+        if (id == null) {
+            invalidateAll();
+        } else if (id.isObjectId()) {
+            invalidate(id.asObjectId().getValue().toHexString());
+        } else if (id.isString()) {
+            invalidate(id.asString().getValue());
+        }
+    }
+
+    private WorkflowDefinition toRuntimeCopy(WorkflowDefinition source) {
+        WorkflowDefinition copy = new WorkflowDefinition();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setStartNodeId(source.getStartNodeId());
+        copy.setOwnerId(source.getOwnerId());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setActive(source.isActive());
+        copy.setVersion(source.getVersion());
+        copy.setBudget(source.getBudget());
+        copy.setRetentionDays(source.getRetentionDays());
+        copy.setEdges(source.getEdges() != null ? source.getEdges().stream().toList() : List.of());
+        copy.setNodes(source.getNodes() != null
+                ? source.getNodes().stream().map(this::withoutMetadata).toList()
+                : List.of());
+        return copy;
+    }
+
+    private NodeDefinition withoutMetadata(NodeDefinition node) {
+        NodeDefinition copy = new NodeDefinition();
+        copy.setId(node.getId());
+        copy.setNodeType(node.getNodeType());
+        copy.setConfig(node.getConfig());
+        return copy;
+    }
+
+    private static class CachedDefinition {
+        final WorkflowDefinition definition;
+        final long loadedAt;
+
+        CachedDefinition(WorkflowDefinition definition) {
+            this.definition = definition;
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        boolean isExpired(long ttlMs) {
+            return System.currentTimeMillis() - loadedAt > ttlMs;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package dev.base.workflow.service.management;
 
+import dev.base.workflow.domain.engine.WorkflowGraphAnalyzer;
 import dev.base.workflow.exception.WorkflowNotFoundException;
 import dev.base.workflow.mongo.collection.WorkflowDefinition;
 import dev.base.workflow.mongo.repository.WorkflowDefinitionRepository;
@@ -25,18 +26,25 @@ public class WorkflowManagementService {
     private final WorkflowDefinitionMapper workflowMapper;
     private final WorkflowScheduler workflowScheduler;
     private final KafkaTriggerManager kafkaTriggerManager;
+    private final WorkflowDefinitionCache definitionCache;
+    private final WorkflowGraphAnalyzer graphAnalyzer;
 
     /**
-     * Create or update a workflow
+     * Create or update a workflow; rejects graphs that fail static analysis
      */
     public WorkflowDefinition saveWorkflow(WorkflowDefinition workflow) {
         workflow = workflowMapper.mapFromJsonFormat(workflow);
+        graphAnalyzer.validate(workflow);
 
         if (workflow.getId() == null) {
             workflow.setCreatedAt(LocalDateTime.now());
+        } else {
+            workflow.setVersion(workflow.getVersion() + 1);
         }
         workflow.setUpdatedAt(LocalDateTime.now());
-        return workflowRepository.save(workflow);
+        WorkflowDefinition saved = workflowRepository.save(workflow);
+        definitionCache.put(saved);
+        return saved;
     }
 
     /**
@@ -62,6 +70,7 @@ public class WorkflowManagementService {
                 .orElseThrow(() -> new WorkflowNotFoundException(id));
         workflow.setActive(false);
         workflowRepository.save(workflow);
+        definitionCache.invalidate(id);
         workflowScheduler.unscheduleWorkflow(id);
         kafkaTriggerManager.stopConsumer(id);
     }
@@ -0,0 +1,145 @@
+package dev.base.workflow.service.monitoring;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.domain.event.ExecutionStateChangedEvent;
+import dev.base.workflow.domain.event.NodeCompletedEvent;
+import dev.base.workflow.model.dto.RunStreamEvent;
+import dev.base.workflow.mongo.collection.NodeExecutionResult;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes node-completion and execution-state deltas to SSE subscribers of a run.
+ * Publishing is O(1) when a run has no subscribers; each subscriber has its own
+ * bounded buffer drained on a virtual thread, so a slow client never blocks the
+ * engine or other clients.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RunStreamService {
+
+    private final AppConfig appConfig;
+
+    private final Map<String, Set<RunStreamSubscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService senderExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Opens a new stream for the given run.
+     */
+    public SseEmitter subscribe(String runId) {
+        var config = appConfig.getStream();
+        SseEmitter emitter = new SseEmitter(config.getEmitterTimeoutMs());
+        RunStreamSubscription subscription = new RunStreamSubscription(runId, emitter, config.getBufferSize());
+
+        subscriptions.computeIfAbsent(runId, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+
+        log.debug("Opened run stream for run {}", runId);
+        return emitter;
+    }
+
+    @EventListener
+    public void onNodeCompleted(NodeCompletedEvent event) {
+        if (!subscriptions.containsKey(event.getRunId())) {
+            return;
+        }
+        publish(event.getRunId(), toStreamEvent(event.getRunId(), event.getResult()));
+    }
+
+    @EventListener
+    public void onExecutionStateChanged(ExecutionStateChangedEvent event) {
+        if (!subscriptions.containsKey(event.getRunId())) {
+            return;
+        }
+        publish(event.getRunId(), RunStreamEvent.builder()
+                .type(RunStreamEvent.Type.EXECUTION_STATE)
+                .runId(event.getRunId())
+                .executionId(event.getExecutionId())
+                .status(event.getStatus().name())
+                .error(event.getError())
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(subs -> subs.forEach(sub -> sub.getEmitter().complete()));
+        subscriptions.clear();
+        senderExecutor.shutdownNow();
+    }
+
+    private void publish(String runId, RunStreamEvent streamEvent) {
+        Set<RunStreamSubscription> subs = subscriptions.get(runId);
+        if (subs == null) {
+            return;
+        }
+        for (RunStreamSubscription subscription : subs) {
+            if (subscription.offer(streamEvent)) {
+                senderExecutor.execute(() -> drain(subscription));
+            }
+        }
+    }
+
+    private void drain(RunStreamSubscription subscription) {
+        List<RunStreamEvent> batch = subscription.takeBatch();
+        while (!batch.isEmpty() && !subscription.isClosed()) {
+            if (!send(subscription, batch)) {
+                return;
+            }
+            batch = subscription.takeBatch();
+        }
+    }
+
+    private boolean send(RunStreamSubscription subscription, List<RunStreamEvent> batch) {
+        try {
+            for (RunStreamEvent streamEvent : batch) {
+                subscription.getEmitter().send(SseEmitter.event()
+                        .name(streamEvent.getType().name())
+                        .data(streamEvent, MediaType.APPLICATION_JSON));
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Run stream for run {} closed by client: {}", subscription.getRunId(), e.getMessage());
+            unsubscribe(subscription);
+            return false;
+        }
+    }
+
+    private void unsubscribe(RunStreamSubscription subscription) {
+        subscription.close();
+        subscriptions.computeIfPresent(subscription.getRunId(), (runId, subs) -> {
+            subs.remove(subscription);
+            return subs.isEmpty() ? null : subs;
+        });
+    }
+
+    private RunStreamEvent toStreamEvent(String runId, NodeExecutionResult result) {
+        return RunStreamEvent.builder()
+                .type(RunStreamEvent.Type.NODE_COMPLETED)
+                .runId(runId)
+                .executionId(result.getExecutionId())
+                .nodeId(result.getNodeId())
+                .status(result.getStatus() != null ? result.getStatus().name() : null)
+                .durationMs(result.getDuration())
+                .error(result.getErrorMessage())
+                .timestamp(result.getCompletedAt())
+                .build();
+    }
+}
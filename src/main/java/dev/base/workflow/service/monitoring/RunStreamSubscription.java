@@ -0,0 +1,108 @@
+package dev.base.workflow.service.monitoring;
+
+import dev.base.workflow.model.dto.RunStreamEvent;
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One SSE client of a run.
+ * Node events are kept in a bounded FIFO (oldest dropped when full), execution
+ * states are coalesced per execution so a slow client only sees the latest one.
+ */
+class RunStreamSubscription {
+
+    @Getter
+    private final String runId;
+    @Getter
+    private final SseEmitter emitter;
+    private final int capacity;
+
+    private final Deque<RunStreamEvent> nodeEvents = new ArrayDeque<>();
+    private final Map<String, RunStreamEvent> executionStates = new LinkedHashMap<>();
+    private long droppedEvents;
+    private boolean draining;
+    private volatile boolean closed;
+
+    RunStreamSubscription(String runId, SseEmitter emitter, int capacity) {
+        this.runId = runId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Buffers an event.
+     *
+     * @return true if the caller must schedule a drain for this subscription
+     */
+    synchronized boolean offer(RunStreamEvent event) {
+        if (closed) {
+            return false;
+        }
+        if (event.getType() == RunStreamEvent.Type.EXECUTION_STATE) {
+            executionStates.remove(event.getExecutionId());
+            executionStates.put(event.getExecutionId(), event);
+        } else {
+            if (nodeEvents.size() >= capacity) {
+                nodeEvents.pollFirst();
+                droppedEvents++;
+            }
+            nodeEvents.addLast(event);
+        }
+        return markDraining();
+    }
+
+    /**
+     * Takes everything buffered so far. Returns an empty list (and releases the
+     * drain flag) once the buffer is empty.
+     */
+    synchronized List<RunStreamEvent> takeBatch() {
+        List<RunStreamEvent> batch = new ArrayList<>(nodeEvents.size() + executionStates.size() + 1);
+        if (droppedEvents > 0) {
+            batch.add(droppedNotice());
+            droppedEvents = 0;
+        }
+        batch.addAll(nodeEvents);
+        batch.addAll(executionStates.values());
+        nodeEvents.clear();
+        executionStates.clear();
+        if (batch.isEmpty()) {
+            draining = false;
+        }
+        return batch;
+    }
+
+    synchronized void close() {
+        closed = true;
+        nodeEvents.clear();
+        executionStates.clear();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private boolean markDraining() {
+        if (draining) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+
+    private RunStreamEvent droppedNotice() {
+        return RunStreamEvent.builder()
+                .type(RunStreamEvent.Type.EVENTS_DROPPED)
+                .runId(runId)
+                .droppedEvents(droppedEvents)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
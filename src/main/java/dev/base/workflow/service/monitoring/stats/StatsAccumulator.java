@@ -0,0 +1,36 @@
+package dev.base.workflow.service.monitoring.stats;
+
+import dev.base.workflow.util.LatencyHistogram;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory counters for one workflow or node between flushes.
+ */
+class StatsAccumulator {
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong totalDurationMs = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    record Snapshot(long count, long errors, long totalDurationMs, Map<Integer, Long> latency) {
+    }
+
+    void record(long durationMs, boolean failed) {
+        count.incrementAndGet();
+        totalDurationMs.addAndGet(durationMs);
+        latency.record(durationMs);
+        if (failed) {
+            errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * Take and reset everything recorded since the previous drain.
+     */
+    Snapshot drain() {
+        return new Snapshot(count.getAndSet(0), errors.getAndSet(0), totalDurationMs.getAndSet(0), latency.drain());
+    }
+}
@@ -0,0 +1,136 @@
+package dev.base.workflow.service.monitoring.stats;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.domain.event.ExecutionStateChangedEvent;
+import dev.base.workflow.domain.event.NodeCompletedEvent;
+import dev.base.workflow.model.core.ExecutionStatus;
+import dev.base.workflow.mongo.collection.NodeExecutionResult;
+import dev.base.workflow.mongo.collection.WorkflowStatsBucket;
+import dev.base.workflow.util.StringUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Maintains per-workflow and per-node rollups from engine events.
+ *
+ * Events update in-memory accumulators (atomic counters plus a latency
+ * histogram). Every flush interval the deltas are added to the current time
+ * bucket in {@code workflow_stats} with one unordered bulk of {@code $inc}
+ * upserts, which also merges the deltas of all instances. Deltas go to the
+ * bucket open at flush time, and a failed flush drops them: these numbers
+ * feed dashboards, not accounting.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowStatsCollector {
+
+    private final MongoTemplate mongoTemplate;
+    private final AppConfig appConfig;
+
+    private final Map<StatsKey, StatsAccumulator> accumulators = new ConcurrentHashMap<>();
+
+    /**
+     * A null node id stands for the workflow as a whole.
+     */
+    private record StatsKey(String workflowId, String nodeId) {
+    }
+
+    @EventListener
+    public void onNodeCompleted(NodeCompletedEvent event) {
+        if (!appConfig.getStats().isEnabled()) {
+            return;
+        }
+        NodeExecutionResult result = event.getResult();
+        accumulatorFor(event.getWorkflowId(), result.getNodeId())
+                .record(result.getDuration(), result.getStatus() == NodeExecutionResult.Status.FAILURE);
+    }
+
+    @EventListener
+    public void onExecutionStateChanged(ExecutionStateChangedEvent event) {
+        if (!appConfig.getStats().isEnabled() || event.getDurationMs() == null) {
+            return;
+        }
+        accumulatorFor(event.getWorkflowId(), null)
+                .record(event.getDurationMs(), event.getStatus() == ExecutionStatus.FAILED);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval-ms}")
+    public void flush() {
+        if (accumulators.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WorkflowStatsBucket.class);
+        int upserts = addUpserts(bulk, currentBucketStart());
+        if (upserts == 0) {
+            return;
+        }
+        try {
+            bulk.execute();
+        } catch (Exception e) {
+            log.error("Failed to flush {} workflow stats rollups", upserts, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private int addUpserts(BulkOperations bulk, Date bucketStart) {
+        int upserts = 0;
+        for (Map.Entry<StatsKey, StatsAccumulator> entry : accumulators.entrySet()) {
+            StatsAccumulator.Snapshot snapshot = entry.getValue().drain();
+            if (snapshot.count() > 0) {
+                bulk.upsert(new Query(where(FIELD_MONGO_ID).is(bucketId(entry.getKey(), bucketStart))),
+                        toUpdate(entry.getKey(), snapshot, bucketStart));
+                upserts++;
+            }
+        }
+        return upserts;
+    }
+
+    private Update toUpdate(StatsKey key, StatsAccumulator.Snapshot snapshot, Date bucketStart) {
+        long retentionMs = Duration.ofDays(appConfig.getStats().getRetentionDays()).toMillis();
+        Update update = new Update()
+                .setOnInsert(FIELD_WORKFLOW_ID, key.workflowId())
+                .setOnInsert(FIELD_NODE_ID, key.nodeId())
+                .setOnInsert(FIELD_BUCKET_START, bucketStart)
+                .setOnInsert(FIELD_EXPIRE_AT, new Date(bucketStart.getTime() + retentionMs))
+                .inc(FIELD_COUNT, snapshot.count())
+                .inc(FIELD_ERRORS, snapshot.errors())
+                .inc(FIELD_TOTAL_DURATION_MS, snapshot.totalDurationMs());
+        snapshot.latency().forEach((bucket, count) -> update.inc(FIELD_LATENCY + FIELD_PATH_SEPARATOR + bucket, count));
+        return update;
+    }
+
+    private StatsAccumulator accumulatorFor(String workflowId, String nodeId) {
+        return accumulators.computeIfAbsent(new StatsKey(workflowId, nodeId), key -> new StatsAccumulator());
+    }
+
+    private Date currentBucketStart() {
+        long bucketSizeMs = appConfig.getStats().getBucketSizeMs();
+        return new Date(System.currentTimeMillis() / bucketSizeMs * bucketSizeMs);
+    }
+
+    private String bucketId(StatsKey key, Date bucketStart) {
+        return StringUtils.concat(key.workflowId(), SUMMARY_ID_SEPARATOR, key.nodeId() != null ? key.nodeId() : "",
+                SUMMARY_ID_SEPARATOR, bucketStart.getTime());
+    }
+}
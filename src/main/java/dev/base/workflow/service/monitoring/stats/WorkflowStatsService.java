@@ -0,0 +1,101 @@
+package dev.base.workflow.service.monitoring.stats;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.model.dto.WorkflowStats;
+import dev.base.workflow.mongo.collection.WorkflowStatsBucket;
+import dev.base.workflow.util.LatencyHistogram;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Serves workflow statistics by merging the time-bucketed rollups written by
+ * {@link WorkflowStatsCollector}, so dashboards never scan execution history.
+ * Figures lag by at most one flush interval.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkflowStatsService {
+
+    private final MongoTemplate mongoTemplate;
+    private final AppConfig appConfig;
+
+    public WorkflowStats getStats(String workflowId, Integer windowMinutes) {
+        int minutes = windowMinutes != null && windowMinutes > 0
+                ? windowMinutes
+                : appConfig.getStats().getDefaultWindowMinutes();
+        Date from = windowStart(minutes);
+        Map<String, MergedStats> byNode = mergeBuckets(workflowId, from);
+        MergedStats overall = byNode.containsKey(null) ? byNode.remove(null) : new MergedStats();
+        return WorkflowStats.builder()
+                .workflowId(workflowId)
+                .windowMinutes(minutes)
+                .from(from)
+                .executions(overall.toSummary(null, minutes))
+                .nodes(byNode.entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(entry -> entry.getValue().toSummary(entry.getKey(), minutes))
+                        .toList())
+                .build();
+    }
+
+    /**
+     * Rollups per node id; the null key holds the workflow-level rollup.
+     */
+    private Map<String, MergedStats> mergeBuckets(String workflowId, Date from) {
+        Map<String, MergedStats> byNode = new HashMap<>();
+        Query query = new Query(where(FIELD_WORKFLOW_ID).is(workflowId).and(FIELD_BUCKET_START).gte(from));
+        for (WorkflowStatsBucket bucket : mongoTemplate.find(query, WorkflowStatsBucket.class)) {
+            byNode.computeIfAbsent(bucket.getNodeId(), id -> new MergedStats()).add(bucket);
+        }
+        return byNode;
+    }
+
+    /**
+     * Window start rounded down to a bucket boundary, so the oldest bucket is included whole.
+     */
+    private Date windowStart(int minutes) {
+        long bucketSizeMs = appConfig.getStats().getBucketSizeMs();
+        long start = System.currentTimeMillis() - Duration.ofMinutes(minutes).toMillis();
+        return new Date(start / bucketSizeMs * bucketSizeMs);
+    }
+
+    private static class MergedStats {
+        private long count;
+        private long errors;
+        private long totalDurationMs;
+        private final Map<Integer, Long> latency = new HashMap<>();
+
+        void add(WorkflowStatsBucket bucket) {
+            count += bucket.getCount();
+            errors += bucket.getErrors();
+            totalDurationMs += bucket.getTotalDurationMs();
+            if (bucket.getLatency() != null) {
+                bucket.getLatency().forEach((index, n) -> latency.merge(Integer.parseInt(index), n, Long::sum));
+            }
+        }
+
+        WorkflowStats.StatsSummary toSummary(String nodeId, int minutes) {
+            return WorkflowStats.StatsSummary.builder()
+                    .nodeId(nodeId)
+                    .count(count)
+                    .errors(errors)
+                    .errorRate(count == 0 ? 0 : (double) errors / count)
+                    .throughputPerMinute((double) count / minutes)
+                    .avgDurationMs(count == 0 ? 0 : totalDurationMs / count)
+                    .p50DurationMs(LatencyHistogram.percentile(latency, 0.50))
+                    .p95DurationMs(LatencyHistogram.percentile(latency, 0.95))
+                    .p99DurationMs(LatencyHistogram.percentile(latency, 0.99))
+                    .build();
+        }
+    }
+}
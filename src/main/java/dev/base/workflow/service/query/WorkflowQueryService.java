@@ -1,13 +1,16 @@
 package dev.base.workflow.service.query;
 
 import dev.base.workflow.model.core.ExecutionStatus;
+import dev.base.workflow.mongo.collection.ExecutionDailySummary;
 import dev.base.workflow.mongo.collection.NodeExecutionResult;
 import dev.base.workflow.mongo.collection.WorkflowExecution;
 import dev.base.workflow.mongo.collection.WorkflowRun;
+import dev.base.workflow.mongo.repository.ExecutionDailySummaryRepository;
 import dev.base.workflow.mongo.repository.NodeExecutionResultRepository;
 import dev.base.workflow.mongo.repository.WorkflowExecutionRepository;
 import dev.base.workflow.mongo.repository.WorkflowRunRepository;
 import dev.base.workflow.service.execution.WorkflowScheduler;
+import dev.base.workflow.service.storage.PayloadStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -26,20 +29,22 @@ public class WorkflowQueryService {
     private final WorkflowExecutionRepository executionRepository;
     private final WorkflowRunRepository runRepository;
     private final NodeExecutionResultRepository nodeResultRepository;
+    private final ExecutionDailySummaryRepository dailySummaryRepository;
     private final WorkflowScheduler workflowScheduler;
+    private final PayloadStore payloadStore;
 
     /**
      * Get execution history for a workflow
      */
     public List<WorkflowExecution> getExecutionHistory(String workflowId) {
-        return executionRepository.findByWorkflowIdOrderByStartedAtDesc(workflowId);
+        return decodePayloads(executionRepository.findByWorkflowIdOrderByStartedAtDesc(workflowId));
     }
 
     /**
      * Check if a workflow is currently running or scheduled
      */
     public boolean isWorkflowRunning(String workflowId) {
-        return runRepository.findFirstByWorkflowIdAndStatus(workflowId, WorkflowRun.RunStatus.ACTIVE).isPresent()
+        return runRepository.existsByWorkflowIdAndStatus(workflowId, WorkflowRun.RunStatus.ACTIVE)
                 || workflowScheduler.isScheduled(workflowId);
     }
 
@@ -48,9 +53,7 @@ public class WorkflowQueryService {
      */
     public ExecutionStatus getWorkflowExecutionStatus(String workflowId) {
         // Check for running executions
-        List<WorkflowExecution> runningExecs = executionRepository.findByWorkflowIdAndStatus(workflowId,
-                ExecutionStatus.RUNNING);
-        if (!runningExecs.isEmpty()) {
+        if (executionRepository.existsByWorkflowIdAndStatus(workflowId, ExecutionStatus.RUNNING)) {
             return ExecutionStatus.RUNNING;
         }
 
@@ -59,14 +62,10 @@ public class WorkflowQueryService {
             return ExecutionStatus.SCHEDULED;
         }
 
-        // Check last execution status
-        List<WorkflowExecution> history = executionRepository.findByWorkflowIdOrderByStartedAtDesc(workflowId);
-        if (!history.isEmpty()) {
-            return history.get(0).getStatus();
-        }
-
-        // No executions yet
-        return ExecutionStatus.IDLE;
+        // Last execution status, or idle when there are no executions yet
+        return executionRepository.findFirstByWorkflowIdOrderByStartedAtDesc(workflowId)
+                .map(WorkflowExecution::getStatus)
+                .orElse(ExecutionStatus.IDLE);
     }
 
     /**
@@ -80,13 +79,37 @@ public class WorkflowQueryService {
      * Get executions for a specific run
      */
     public List<WorkflowExecution> getExecutionsForRun(String runId) {
-        return executionRepository.findByRunIdOrderByStartedAtDesc(runId);
+        return decodePayloads(executionRepository.findByRunIdOrderByStartedAtDesc(runId));
     }
 
     /**
      * Get node execution results for a run
      */
     public List<NodeExecutionResult> getNodeExecutionResults(String runId) {
-        return nodeResultRepository.findByRunId(runId);
+        List<NodeExecutionResult> results = nodeResultRepository.findByRunId(runId);
+        results.forEach(result -> result.setExecutionDetails(payloadStore.decode(result.getExecutionDetails())));
+        return results;
+    }
+
+    /**
+     * Get archived per-day execution summaries for a workflow, newest first
+     */
+    public List<ExecutionDailySummary> getDailySummaries(String workflowId) {
+        return dailySummaryRepository.findByWorkflowIdOrderByDayDesc(workflowId);
+    }
+
+    /**
+     * Get the full content of a payload offloaded to GridFS
+     */
+    public Object getPayload(String payloadId) {
+        return payloadStore.fetch(payloadId);
+    }
+
+    private List<WorkflowExecution> decodePayloads(List<WorkflowExecution> executions) {
+        executions.forEach(execution -> {
+            execution.setInput(payloadStore.decode(execution.getInput()));
+            execution.setResult(payloadStore.decode(execution.getResult()));
+        });
+        return executions;
     }
 }
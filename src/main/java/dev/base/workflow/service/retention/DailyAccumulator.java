@@ -0,0 +1,101 @@
+package dev.base.workflow.service.retention;
+
+import dev.base.workflow.mongo.collection.ExecutionDailySummary;
+import dev.base.workflow.mongo.collection.WorkflowExecution;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+
+/**
+ * Folds one workflow's executions for one day into an {@link ExecutionDailySummary}.
+ * Durations are kept exactly, so percentiles are exact.
+ */
+class DailyAccumulator {
+
+    private long total;
+    private long completed;
+    private long failed;
+    private long cancelled;
+    private long[] durations = new long[16];
+    private int durationCount;
+    private final Map<String, Long> failureReasons = new HashMap<>();
+
+    void add(WorkflowExecution execution) {
+        total++;
+        if (execution.getStatus() != null) {
+            switch (execution.getStatus()) {
+                case COMPLETED -> completed++;
+                case FAILED -> failed++;
+                case CANCELLED -> cancelled++;
+                default -> { }
+            }
+        }
+        if (execution.getStartedAt() != null && execution.getCompletedAt() != null) {
+            addDuration(Duration.between(execution.getStartedAt(), execution.getCompletedAt()).toMillis());
+        }
+        if (execution.getError() != null) {
+            failureReasons.merge(reasonKey(execution.getError()), 1L, Long::sum);
+        }
+    }
+
+    ExecutionDailySummary toSummary(String workflowId, LocalDate day, int topFailureReasons, Date archivedAt) {
+        long[] sorted = Arrays.copyOf(durations, durationCount);
+        Arrays.sort(sorted);
+        return ExecutionDailySummary.builder()
+                .id(workflowId + SUMMARY_ID_SEPARATOR + day)
+                .workflowId(workflowId)
+                .day(day.toString())
+                .total(total).completed(completed).failed(failed).cancelled(cancelled)
+                .avgDurationMs(sorted.length == 0 ? 0 : Arrays.stream(sorted).sum() / sorted.length)
+                .p50DurationMs(percentile(sorted, 0.50))
+                .p95DurationMs(percentile(sorted, 0.95))
+                .p99DurationMs(percentile(sorted, 0.99))
+                .maxDurationMs(sorted.length == 0 ? 0 : sorted[sorted.length - 1])
+                .failureReasons(topReasons(topFailureReasons))
+                .archivedAt(archivedAt)
+                .build();
+    }
+
+    private void addDuration(long durationMs) {
+        if (durationCount == durations.length) {
+            durations = Arrays.copyOf(durations, durations.length * 2);
+        }
+        durations[durationCount++] = durationMs;
+    }
+
+    /**
+     * Distinct messages beyond the tracking limit (e.g. ones embedding ids) share one bucket.
+     */
+    private String reasonKey(String error) {
+        String reason = error.length() > MAX_FAILURE_REASON_LENGTH
+                ? error.substring(0, MAX_FAILURE_REASON_LENGTH)
+                : error;
+        return failureReasons.containsKey(reason) || failureReasons.size() < MAX_TRACKED_FAILURE_REASONS
+                ? reason
+                : REASON_OTHER;
+    }
+
+    private List<ExecutionDailySummary.FailureReason> topReasons(int limit) {
+        return failureReasons.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> new ExecutionDailySummary.FailureReason(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+}
@@ -0,0 +1,149 @@
+package dev.base.workflow.service.retention;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.mongo.collection.NodeExecutionResult;
+import dev.base.workflow.mongo.collection.WorkflowExecution;
+import dev.base.workflow.service.cluster.ClusterMembershipService;
+import dev.base.workflow.service.storage.PayloadStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Keeps the execution history collections small.
+ *
+ * Executions and node results carry an {@code expireAt} set from the
+ * {@link RetentionPolicy}; a TTL index on it lets MongoDB delete them.
+ * Before that happens this job rolls every finished day into one
+ * {@link ExecutionDailySummary} per workflow. Days are archived in order
+ * behind a watermark in {@code archive_state}, and summaries are keyed by
+ * workflow and day, so re-running a day after a crash is harmless. GridFS
+ * payloads have no TTL index; {@link #sweepPayloads()} deletes the ones past
+ * the expiry of their last reference. In a cluster only the ring owner of the
+ * archiver key runs these jobs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionArchiver {
+
+    private final MongoTemplate mongoTemplate;
+    private final ClusterMembershipService clusterMembership;
+    private final RetentionPolicy retentionPolicy;
+    private final PayloadStore payloadStore;
+    private final AppConfig appConfig;
+
+    /**
+     * Documents written before retention existed never expire otherwise.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillExpiry() {
+        List.of(WorkflowExecution.class, NodeExecutionResult.class).forEach(this::backfillExpiryOf);
+        try {
+            payloadStore.ensureExpiryIndex();
+            long updated = payloadStore.backfillExpiry(retentionPolicy.defaultExpireAt(new Date()));
+            if (updated > 0) {
+                log.info("Set default expiry on {} offloaded payloads", updated);
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill expiry of offloaded payloads", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.retention.payload-sweep-interval-ms}")
+    public void sweepPayloads() {
+        if (!clusterMembership.isOwner(ARCHIVER_OWNER_KEY)) {
+            return;
+        }
+        try {
+            long deleted = payloadStore.deleteExpired();
+            if (deleted > 0) {
+                log.info("Deleted {} expired offloaded payloads", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Offloaded payload sweep failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.retention.archive-interval-ms}")
+    public void archive() {
+        if (!clusterMembership.isOwner(ARCHIVER_OWNER_KEY)) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate day = nextDayToArchive();
+            for (int archived = 0; day != null && day.isBefore(today)
+                    && archived < appConfig.getRetention().getMaxDaysPerRun(); archived++) {
+                archiveDay(day);
+                markArchived(day);
+                day = day.plusDays(1);
+            }
+        } catch (Exception e) {
+            log.error("Execution archival failed, will resume from the last archived day", e);
+        }
+    }
+
+    private void backfillExpiryOf(Class<?> type) {
+        long updated = mongoTemplate.updateMulti(new Query(where(FIELD_EXPIRE_AT).exists(false)),
+                new Update().set(FIELD_EXPIRE_AT, retentionPolicy.defaultExpireAt(new Date())), type)
+                .getModifiedCount();
+        if (updated > 0) {
+            log.info("Set default expiry on {} {} documents", updated, type.getSimpleName());
+        }
+    }
+
+    private void archiveDay(LocalDate day) {
+        Query query = new Query(where(FIELD_COMPLETED_AT).gte(day.atStartOfDay()).lt(day.plusDays(1).atStartOfDay()));
+        query.fields().include(FIELD_WORKFLOW_ID, FIELD_STATUS, FIELD_STARTED_AT, FIELD_COMPLETED_AT, FIELD_ERROR);
+        Map<String, DailyAccumulator> byWorkflow = new HashMap<>();
+        try (Stream<WorkflowExecution> executions = mongoTemplate.stream(query, WorkflowExecution.class)) {
+            executions.forEach(execution -> byWorkflow
+                    .computeIfAbsent(execution.getWorkflowId(), id -> new DailyAccumulator()).add(execution));
+        }
+        Date archivedAt = new Date();
+        int topReasons = appConfig.getRetention().getTopFailureReasons();
+        byWorkflow.forEach((workflowId, accumulator) ->
+                mongoTemplate.save(accumulator.toSummary(workflowId, day, topReasons, archivedAt)));
+        log.info("Archived executions of {} for {} workflows", day, byWorkflow.size());
+    }
+
+    /**
+     * The day after the watermark, or the day of the oldest finished execution on first run.
+     */
+    private LocalDate nextDayToArchive() {
+        Document state = mongoTemplate.findById(ARCHIVE_STATE_EXECUTIONS, Document.class, COLLECTION_ARCHIVE_STATE);
+        if (state != null) {
+            return LocalDate.parse(state.getString(FIELD_ARCHIVED_THROUGH)).plusDays(1);
+        }
+        Query oldest = new Query(where(FIELD_COMPLETED_AT).ne(null))
+                .with(Sort.by(Sort.Direction.ASC, FIELD_COMPLETED_AT))
+                .limit(1);
+        oldest.fields().include(FIELD_COMPLETED_AT);
+        WorkflowExecution first = mongoTemplate.findOne(oldest, WorkflowExecution.class);
+        return first != null ? first.getCompletedAt().toLocalDate() : null;
+    }
+
+    private void markArchived(LocalDate day) {
+        mongoTemplate.upsert(new Query(where(FIELD_MONGO_ID).is(ARCHIVE_STATE_EXECUTIONS)),
+                new Update().set(FIELD_ARCHIVED_THROUGH, day.toString()), COLLECTION_ARCHIVE_STATE);
+    }
+}
@@ -0,0 +1,39 @@
+package dev.base.workflow.service.retention;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.mongo.collection.WorkflowDefinition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static dev.base.workflow.constant.WorkflowConstants.MIN_RETENTION_DAYS;
+
+/**
+ * Resolves how long execution history is kept before the TTL index removes it.
+ *
+ * A workflow's {@code retentionDays} overrides {@code app.retention.default-days}.
+ * Retention never drops below {@link dev.base.workflow.constant.WorkflowConstants#MIN_RETENTION_DAYS},
+ * so an execution always outlives the archival of the day it completed in.
+ */
+@Component
+@RequiredArgsConstructor
+public class RetentionPolicy {
+
+    private final AppConfig appConfig;
+
+    public Date expireAt(WorkflowDefinition workflow, Date from) {
+        return new Date(from.getTime() + Duration.ofDays(retentionDays(workflow)).toMillis());
+    }
+
+    public Date defaultExpireAt(Date from) {
+        return expireAt(null, from);
+    }
+
+    private int retentionDays(WorkflowDefinition workflow) {
+        Integer override = workflow != null ? workflow.getRetentionDays() : null;
+        int days = override != null ? override : appConfig.getRetention().getDefaultDays();
+        return Math.max(MIN_RETENTION_DAYS, days);
+    }
+}
@@ -0,0 +1,121 @@
+package dev.base.workflow.service.storage;
+
+import dev.base.workflow.model.dto.IndexUsage;
+import dev.base.workflow.mongo.collection.ExecutionDailySummary;
+import dev.base.workflow.mongo.collection.NodeExecutionResult;
+import dev.base.workflow.mongo.collection.QueuedExecution;
+import dev.base.workflow.mongo.collection.SpilledTrigger;
+import dev.base.workflow.mongo.collection.User;
+import dev.base.workflow.mongo.collection.WorkflowExecution;
+import dev.base.workflow.mongo.collection.WorkflowRun;
+import dev.base.workflow.mongo.collection.WorkflowStatsBucket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+
+/**
+ * Creates the indexes declared on entity classes ({@code @Indexed},
+ * {@code @CompoundIndex}), since automatic index creation is off, and
+ * reports how often each index is used.
+ *
+ * Components that build their indexes programmatically (trigger dedup
+ * keys) are not listed here.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexManager {
+
+    private static final List<Class<?>> MANAGED_TYPES = List.of(
+            WorkflowExecution.class,
+            WorkflowRun.class,
+            NodeExecutionResult.class,
+            ExecutionDailySummary.class,
+            WorkflowStatsBucket.class,
+            SpilledTrigger.class,
+            QueuedExecution.class,
+            User.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void ensureIndexes() {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> type : MANAGED_TYPES) {
+            for (IndexDefinition index : resolver.resolveIndexFor(type)) {
+                if (!ensure(type, index)) {
+                    return;
+                }
+            }
+        }
+        log.info("Ensured indexes for {} collections", MANAGED_TYPES.size());
+    }
+
+    /**
+     * Index usage across all collections, least used first within each collection.
+     */
+    public List<IndexUsage> indexUsage() {
+        return mongoTemplate.getCollectionNames().stream()
+                .filter(collection -> !collection.startsWith(SYSTEM_COLLECTION_PREFIX))
+                .sorted()
+                .flatMap(collection -> indexStats(collection).stream())
+                .toList();
+    }
+
+    /**
+     * A bad index definition is logged and skipped; when Mongo cannot be
+     * reached the remaining indexes are skipped too (returns false) rather
+     * than waiting out the server selection timeout once per index.
+     */
+    private boolean ensure(Class<?> type, IndexDefinition index) {
+        try {
+            mongoTemplate.indexOps(type).createIndex(index);
+            return true;
+        } catch (DataAccessResourceFailureException e) {
+            log.error("MongoDB unreachable while ensuring indexes, skipping the rest until the next start", e);
+            return false;
+        } catch (Exception e) {
+            log.error("Failed to ensure index {} on {}", index.getIndexKeys(), type.getSimpleName(), e);
+            return true;
+        }
+    }
+
+    private List<IndexUsage> indexStats(String collection) {
+        AggregationOperation indexStats = context -> new Document(STAGE_INDEX_STATS, new Document());
+        return mongoTemplate.aggregate(Aggregation.newAggregation(indexStats), collection, Document.class)
+                .getMappedResults().stream()
+                .map(stats -> toUsage(collection, stats))
+                .sorted(Comparator.comparingLong(IndexUsage::getAccesses))
+                .toList();
+    }
+
+    private IndexUsage toUsage(String collection, Document stats) {
+        Document accesses = stats.get(FIELD_ACCESSES, Document.class);
+        Document spec = stats.get(FIELD_SPEC, Document.class);
+        return IndexUsage.builder()
+                .collection(collection)
+                .name(stats.getString(FIELD_NAME))
+                .key(stats.get(FIELD_KEY, Document.class))
+                .partial(spec != null && spec.containsKey(FIELD_PARTIAL_FILTER_EXPRESSION))
+                .accesses(((Number) accesses.get(FIELD_OPS)).longValue())
+                .since(accesses.getDate(FIELD_SINCE))
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package dev.base.workflow.service.storage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.exception.PayloadNotFoundException;
+import dev.base.workflow.exception.WorkflowException;
+import dev.base.workflow.model.core.PayloadRef;
+import dev.base.workflow.util.HashUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Storage encoding for execution payloads (node results, execution input and output).
+ *
+ * Small payloads stay inline as-is. Above {@code compress-threshold-bytes}
+ * the JSON is deflated into a {@link PayloadRef}; above
+ * {@code offload-threshold-bytes} the deflated bytes go to GridFS keyed by
+ * content hash, so repeated responses are stored once. Payloads above
+ * {@code max-payload-bytes} are replaced by a preview.
+ *
+ * Every writer passes the expiry of the document that will reference the
+ * payload. An offloaded file keeps the latest of those in
+ * {@code metadata.expireAt}, so it outlives every reference to it;
+ * {@link #deleteExpired()} then removes files no document can point to.
+ *
+ * Reads inflate inline payloads; offloaded ones are returned as a
+ * placeholder and fetched on demand via {@link #fetch(String)}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PayloadStore {
+
+    private final GridFsTemplate gridFsTemplate;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final AppConfig appConfig;
+
+    /**
+     * @param expireAt expiry of the document that will hold the encoded payload
+     */
+    public Object encode(Object payload, Date expireAt) {
+        AppConfig.PayloadConfig config = appConfig.getPayloads();
+        // A UTF-8 char is at most 3 bytes, so short strings skip serialization
+        if (payload == null
+                || (payload instanceof String text && text.length() < config.getCompressThresholdBytes() / 3)) {
+            return payload;
+        }
+        byte[] json = serialize(payload);
+        if (json.length > config.getMaxPayloadBytes()) {
+            return preview(json);
+        }
+        if (json.length < config.getCompressThresholdBytes()) {
+            return payload;
+        }
+        byte[] compressed = deflate(json);
+        if (json.length >= config.getOffloadThresholdBytes()) {
+            return offload(json, compressed, expireAt);
+        }
+        return compressed.length < json.length
+                ? PayloadRef.builder().encoding(PayloadRef.Encoding.DEFLATE).data(compressed)
+                        .originalBytes(json.length).storedBytes(compressed.length).build()
+                : payload;
+    }
+
+    /**
+     * Inflate inline payloads; offloaded payloads become a placeholder naming their id.
+     */
+    public Object decode(Object stored) {
+        if (!(stored instanceof PayloadRef ref)) {
+            return stored;
+        }
+        if (ref.getEncoding() == PayloadRef.Encoding.GRIDFS) {
+            return Map.of(KEY_OFFLOADED, true, KEY_PAYLOAD_ID, ref.getPayloadId(),
+                    KEY_ORIGINAL_BYTES, ref.getOriginalBytes());
+        }
+        return parse(inflate(new ByteArrayInputStream(ref.getData())));
+    }
+
+    public Object fetch(String payloadId) {
+        GridFSFile file = gridFsTemplate.findOne(byPayloadId(payloadId));
+        if (file == null) {
+            throw new PayloadNotFoundException(payloadId);
+        }
+        try (InputStream compressed = gridFsTemplate.getResource(file).getInputStream()) {
+            return parse(inflate(compressed));
+        } catch (IOException e) {
+            throw new WorkflowException(e.getMessage(), e);
+        }
+    }
+
+    public void ensureExpiryIndex() {
+        mongoTemplate.indexOps(COLLECTION_GRIDFS_FILES)
+                .createIndex(new Index().on(FIELD_METADATA_EXPIRE_AT, Sort.Direction.ASC));
+    }
+
+    /**
+     * Files offloaded before expiry tracking get the given expiry.
+     */
+    public long backfillExpiry(Date expireAt) {
+        return mongoTemplate.updateMulti(new Query(where(FIELD_METADATA_EXPIRE_AT).exists(false)),
+                new Update().set(FIELD_METADATA_EXPIRE_AT, expireAt), COLLECTION_GRIDFS_FILES).getModifiedCount();
+    }
+
+    /**
+     * Delete offloaded payloads that outlived every document referencing them.
+     *
+     * @return number of files deleted
+     */
+    public long deleteExpired() {
+        Query expired = new Query(where(FIELD_METADATA_EXPIRE_AT).lt(new Date()));
+        long count = mongoTemplate.count(expired, COLLECTION_GRIDFS_FILES);
+        if (count > 0) {
+            gridFsTemplate.delete(expired);
+        }
+        return count;
+    }
+
+    /**
+     * Store the file unless it exists; an existing file has its expiry
+     * raised to cover the new reference.
+     */
+    private PayloadRef offload(byte[] json, byte[] compressed, Date expireAt) {
+        String payloadId = HashUtils.sha256Hex(json);
+        boolean exists = mongoTemplate.updateMulti(byPayloadId(payloadId),
+                new Update().max(FIELD_METADATA_EXPIRE_AT, expireAt), COLLECTION_GRIDFS_FILES).getMatchedCount() > 0;
+        if (!exists) {
+            gridFsTemplate.store(new ByteArrayInputStream(compressed), payloadId,
+                    new Document(KEY_ORIGINAL_BYTES, json.length).append(FIELD_EXPIRE_AT, expireAt));
+        }
+        return PayloadRef.builder().encoding(PayloadRef.Encoding.GRIDFS).payloadId(payloadId)
+                .originalBytes(json.length).storedBytes(compressed.length).build();
+    }
+
+    private Map<String, Object> preview(byte[] json) {
+        int previewBytes = Math.min(json.length, appConfig.getPayloads().getPreviewBytes());
+        // Cut before a UTF-8 continuation byte so no character is split
+        while (previewBytes > 0 && previewBytes < json.length && (json[previewBytes] & 0xC0) == 0x80) {
+            previewBytes--;
+        }
+        return Map.of(
+                KEY_TRUNCATED, true,
+                KEY_ORIGINAL_BYTES, json.length,
+                KEY_PREVIEW, new String(json, 0, previewBytes, StandardCharsets.UTF_8));
+    }
+
+    private byte[] serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(payload).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private Object parse(byte[] json) {
+        try {
+            return objectMapper.readValue(json, Object.class);
+        } catch (IOException e) {
+            return new String(json, StandardCharsets.UTF_8);
+        }
+    }
+
+    private byte[] deflate(byte[] json) {
+        Deflater deflater = new Deflater(appConfig.getPayloads().getCompressionLevel());
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(out, deflater)) {
+            stream.write(json);
+        } catch (IOException e) {
+            throw new WorkflowException(e.getMessage(), e);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] inflate(InputStream compressed) {
+        try (InflaterInputStream stream = new InflaterInputStream(compressed)) {
+            return stream.readAllBytes();
+        } catch (IOException e) {
+            throw new WorkflowException(e.getMessage(), e);
+        }
+    }
+
+    private Query byPayloadId(String payloadId) {
+        return new Query(where(FIELD_FILENAME).is(payloadId));
+    }
+}
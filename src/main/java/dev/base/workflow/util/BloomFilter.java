@@ -0,0 +1,90 @@
+package dev.base.workflow.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over string keys.
+ * Never reports a false negative; false positives occur at roughly the rate
+ * it was sized for. Uses double hashing (h1 + i * h2) over a 64-bit hash.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Size a filter for the expected number of keys and false-positive probability.
+     */
+    public static BloomFilter create(long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing");
+        }
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2));
+        long bits = Math.min(Integer.MAX_VALUE, Math.max(64, optimalBits));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedKeys * ln2));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void put(String key) {
+        long hash = HashUtils.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            setBit(index(h1 + i * h2));
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = HashUtils.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            if (!getBit(index(h1 + i * h2))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0L);
+        }
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private long index(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+
+    private void setBit(long bit) {
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current, current | mask));
+    }
+
+    private boolean getBit(long bit) {
+        return (words.get((int) (bit >>> 6)) & (1L << bit)) != 0;
+    }
+}
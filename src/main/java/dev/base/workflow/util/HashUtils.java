@@ -0,0 +1,43 @@
+package dev.base.workflow.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hashing helpers: fast non-cryptographic hashes for in-memory structures
+ * (Bloom filters, hash rings) and SHA-256 for content addressing.
+ */
+public final class HashUtils {
+
+    private HashUtils() {
+        // Prevent instantiation
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes followed by the MurmurHash3 finalizer,
+     * which spreads FNV's weak low bits across the whole word.
+     */
+    public static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public static String sha256Hex(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
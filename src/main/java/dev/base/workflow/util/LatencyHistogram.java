@@ -0,0 +1,82 @@
+package dev.base.workflow.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe log-linear latency histogram in the style of HdrHistogram.
+ * Values are grouped by power of two and each power is split into 16 linear
+ * sub-buckets, so a percentile is reported within about 6% of the true value.
+ * Bucket indexes are stable, so histograms from different instances or time
+ * windows merge by adding counts per index.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final Map<Integer, AtomicLong> counts = new ConcurrentHashMap<>();
+
+    public void record(long value) {
+        counts.computeIfAbsent(bucketOf(value), bucket -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Counts recorded since the last drain, per bucket index; recording may continue concurrently.
+     */
+    public Map<Integer, Long> drain() {
+        Map<Integer, Long> drained = new HashMap<>();
+        counts.forEach((bucket, count) -> {
+            long value = count.getAndSet(0);
+            if (value > 0) {
+                drained.put(bucket, value);
+            }
+        });
+        return drained;
+    }
+
+    public static int bucketOf(long value) {
+        long clamped = Math.max(0, value);
+        if (clamped < SUB_BUCKETS) {
+            return (int) clamped;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(clamped) - SUB_BUCKET_BITS;
+        int subBucket = (int) (clamped >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Highest value that maps to the bucket.
+     */
+    public static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    /**
+     * Value at the given quantile (0..1) of merged bucket counts, or 0 when empty.
+     */
+    public static long percentile(Map<Integer, Long> bucketCounts, double quantile) {
+        long total = bucketCounts.values().stream().mapToLong(Long::longValue).sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        TreeMap<Integer, Long> sorted = new TreeMap<>(bucketCounts);
+        long seen = 0;
+        for (Map.Entry<Integer, Long> entry : sorted.entrySet()) {
+            seen += entry.getValue();
+            if (seen >= rank) {
+                return upperBoundOf(entry.getKey());
+            }
+        }
+        return upperBoundOf(sorted.lastKey());
+    }
+}
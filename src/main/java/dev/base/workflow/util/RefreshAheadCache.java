@@ -0,0 +1,171 @@
+package dev.base.workflow.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache of asynchronously loaded values with refresh-ahead.
+ *
+ * A value younger than {@code refreshAfterMs} is served as is. An older one
+ * is still served, but the first caller to see it starts a reload whose
+ * result replaces it, so callers do not wait for the source while it keeps
+ * answering. A failed reload drops the value; past {@code expireAfterMs}
+ * callers wait for a fresh load. Concurrent callers share one in-flight
+ * load, failed loads are not cached, and a load that raced with
+ * {@link #invalidate} does not repopulate the entry.
+ *
+ * {@link #getAll} hands every missing or stale key to a single loader call,
+ * so a source with batch operations is asked once per request.
+ */
+public class RefreshAheadCache<K, V> {
+
+    private final long refreshAfterMs;
+    private final long expireAfterMs;
+    private final LongSupplier clock;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    public RefreshAheadCache(long refreshAfterMs, long expireAfterMs) {
+        this(refreshAfterMs, expireAfterMs, System::currentTimeMillis);
+    }
+
+    public RefreshAheadCache(long refreshAfterMs, long expireAfterMs, LongSupplier clock) {
+        this.refreshAfterMs = refreshAfterMs;
+        this.expireAfterMs = expireAfterMs;
+        this.clock = clock;
+    }
+
+    public CompletableFuture<V> get(K key, Supplier<CompletableFuture<V>> loader) {
+        return getAll(Set.of(key), keys -> Map.of(key, loader.get())).get(key);
+    }
+
+    /**
+     * @param loader loads the given keys in one call; a key it leaves out fails
+     */
+    public Map<K, CompletableFuture<V>> getAll(Collection<K> keys,
+                                               Function<Set<K>, Map<K, CompletableFuture<V>>> loader) {
+        long now = clock.getAsLong();
+        Map<K, CompletableFuture<V>> values = new LinkedHashMap<>();
+        Map<K, Entry<V>> loading = new HashMap<>();
+        Map<K, Entry<V>> refreshing = new HashMap<>();
+        for (K key : keys) {
+            values.put(key, lookup(key, now, loading, refreshing).value);
+        }
+        if (!loading.isEmpty() || !refreshing.isEmpty()) {
+            Map<K, Entry<V>> requested = new HashMap<>(refreshing);
+            requested.putAll(loading);
+            Map<K, CompletableFuture<V>> loaded = load(loader, requested.keySet());
+            loading.forEach((key, entry) -> completeLoad(key, entry, loaded.get(key)));
+            refreshing.forEach((key, entry) -> completeRefresh(key, entry, loaded.get(key)));
+        }
+        return values;
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateIf(Predicate<K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    /**
+     * Drop values nobody asked for within their lifetime.
+     */
+    public void evictExpired() {
+        long now = clock.getAsLong();
+        entries.values().removeIf(entry -> entry.isExpired(now, expireAfterMs));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Entry<V> lookup(K key, long now, Map<K, Entry<V>> loading, Map<K, Entry<V>> refreshing) {
+        while (true) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !entry.isExpired(now, expireAfterMs)) {
+                if (entry.claimRefresh(now, refreshAfterMs)) {
+                    refreshing.put(key, entry);
+                }
+                return entry;
+            }
+            Entry<V> fresh = new Entry<>(new CompletableFuture<>(), now);
+            boolean won = entry == null ? entries.putIfAbsent(key, fresh) == null : entries.replace(key, entry, fresh);
+            if (won) {
+                loading.put(key, fresh);
+                return fresh;
+            }
+        }
+    }
+
+    private Map<K, CompletableFuture<V>> load(Function<Set<K>, Map<K, CompletableFuture<V>>> loader, Set<K> keys) {
+        try {
+            return loader.apply(keys);
+        } catch (RuntimeException e) {
+            Map<K, CompletableFuture<V>> failed = new HashMap<>();
+            keys.forEach(key -> failed.put(key, CompletableFuture.failedFuture(e)));
+            return failed;
+        }
+    }
+
+    private void completeLoad(K key, Entry<V> entry, CompletableFuture<V> loaded) {
+        orMissing(key, loaded).whenComplete((value, error) -> {
+            if (error != null) {
+                entries.remove(key, entry);
+                entry.value.completeExceptionally(error);
+            } else {
+                entry.value.complete(value);
+            }
+        });
+    }
+
+    private void completeRefresh(K key, Entry<V> entry, CompletableFuture<V> loaded) {
+        orMissing(key, loaded).whenComplete((value, error) -> {
+            if (error != null) {
+                entries.remove(key, entry);
+            } else {
+                entries.replace(key, entry, new Entry<>(CompletableFuture.completedFuture(value), clock.getAsLong()));
+            }
+        });
+    }
+
+    private CompletableFuture<V> orMissing(K key, CompletableFuture<V> loaded) {
+        return loaded != null ? loaded
+                : CompletableFuture.failedFuture(new IllegalStateException("Loader returned no value for " + key));
+    }
+
+    private static final class Entry<V> {
+        final CompletableFuture<V> value;
+        final long loadedAt;
+        private boolean refreshing;
+
+        Entry(CompletableFuture<V> value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+
+        /**
+         * In-flight loads never expire, so concurrent callers keep sharing them.
+         */
+        boolean isExpired(long now, long expireAfterMs) {
+            return value.isDone() && now - loadedAt >= expireAfterMs;
+        }
+
+        synchronized boolean claimRefresh(long now, long refreshAfterMs) {
+            if (refreshing || !value.isDone() || value.isCompletedExceptionally() || now - loadedAt < refreshAfterMs) {
+                return false;
+            }
+            refreshing = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package dev.base.workflow.domain.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionEvaluatorTest {
+
+    private final ExpressionEvaluator evaluator = new ExpressionEvaluator();
+
+    @Test
+    void parseTemplate_ShouldRenderLiteralsAndScalars() {
+        Map<String, Object> input = Map.of("id", 42, "name", "order");
+
+        assertEquals("plain text", evaluator.parseTemplate("plain text", input, null));
+        assertEquals("Order 42 (order)", evaluator.parseTemplate("Order ${#input.id} (${#input.name})", input, null));
+        assertEquals("missing: ", evaluator.parseTemplate("missing: ${#input['none']}", input, null));
+    }
+
+    @Test
+    void parseTemplate_ShouldWriteObjectsAsJson() {
+        Map<String, Object> input = new LinkedHashMap<>();
+        input.put("id", 7);
+        input.put("tags", List.of("a", "b"));
+
+        assertEquals("{\"id\":7,\"tags\":[\"a\",\"b\"]}", evaluator.parseTemplate("${#input}", input, null));
+        assertEquals("data {\"id\":7,\"tags\":[\"a\",\"b\"]} end",
+                evaluator.parseTemplate("data ${#input} end", input, null));
+        assertEquals("[\"a\",\"b\"]", evaluator.parseTemplate("${#input.tags}", input, null));
+    }
+
+    @Test
+    void parseTemplate_ShouldRenderRepeatedlyWithDifferentInputs() {
+        String template = "{\"id\": ${#input.id}, \"payload\": ${#input.payload}}";
+
+        for (int i = 0; i < 50; i++) {
+            Map<String, Object> input = Map.of("id", i, "payload", Map.of("n", i));
+            assertEquals("{\"id\": " + i + ", \"payload\": {\"n\":" + i + "}}",
+                    evaluator.parseTemplate(template, input, null));
+        }
+    }
+}
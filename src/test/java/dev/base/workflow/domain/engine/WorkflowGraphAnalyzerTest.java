@@ -0,0 +1,112 @@
+package dev.base.workflow.domain.engine;
+
+import dev.base.workflow.exception.InvalidWorkflowException;
+import dev.base.workflow.model.core.Edge;
+import dev.base.workflow.mongo.collection.NodeDefinition;
+import dev.base.workflow.mongo.collection.WorkflowDefinition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkflowGraphAnalyzerTest {
+
+    private static final String KNOWN_TYPE = "LogNotificationType_LOG";
+
+    @Mock
+    private NodeTypeRegistry registry;
+
+    private WorkflowGraphAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        analyzer = new WorkflowGraphAnalyzer(registry);
+        lenient().when(registry.isRegistered(anyString())).thenAnswer(call -> KNOWN_TYPE.equals(call.getArgument(0)));
+    }
+
+    @Test
+    void analyze_AcceptsLinearWorkflow() {
+        WorkflowDefinition workflow = workflow("a", List.of(node("a"), node("b"), node("c")),
+                List.of(edge("a", "b", null), edge("b", "c", null)));
+
+        assertTrue(analyzer.analyze(workflow).isEmpty());
+    }
+
+    @Test
+    void analyze_RejectsUnconditionalCycle() {
+        WorkflowDefinition workflow = workflow("a", List.of(node("a"), node("b"), node("c")),
+                List.of(edge("a", "b", null), edge("b", "c", null), edge("c", "b", null)));
+
+        List<String> problems = analyzer.analyze(workflow);
+
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).contains("cycle"));
+    }
+
+    @Test
+    void analyze_AllowsConditionalLoop() {
+        WorkflowDefinition workflow = workflow("a", List.of(node("a"), node("b")),
+                List.of(edge("a", "b", null), edge("b", "a", "#input.retry == true")));
+
+        assertTrue(analyzer.analyze(workflow).isEmpty());
+    }
+
+    @Test
+    void analyze_RejectsSelfLoop() {
+        WorkflowDefinition workflow = workflow("a", List.of(node("a")), List.of(edge("a", "a", null)));
+
+        assertEquals(1, analyzer.analyze(workflow).size());
+    }
+
+    @Test
+    void analyze_ReportsUnreachableNodesDanglingEdgesAndMissingExecutors() {
+        NodeDefinition unknownType = node("d");
+        unknownType.setNodeType("Unknown_TYPE");
+        WorkflowDefinition workflow = workflow("a", List.of(node("a"), node("b"), unknownType),
+                List.of(edge("a", "d", null), edge("a", "missing", null)));
+
+        List<String> problems = analyzer.analyze(workflow);
+
+        assertEquals(3, problems.size());
+        assertTrue(problems.stream().anyMatch(problem -> problem.contains("no executor")));
+        assertTrue(problems.stream().anyMatch(problem -> problem.contains("unknown node")));
+        assertTrue(problems.stream().anyMatch(problem -> problem.contains("Node b is unreachable")));
+    }
+
+    @Test
+    void validate_ThrowsWithAllProblems() {
+        WorkflowDefinition workflow = workflow("missing", List.of(node("a")), List.of());
+
+        InvalidWorkflowException exception = assertThrows(InvalidWorkflowException.class,
+                () -> analyzer.validate(workflow));
+
+        assertEquals(1, exception.getProblems().size());
+    }
+
+    private WorkflowDefinition workflow(String startNodeId, List<NodeDefinition> nodes, List<Edge> edges) {
+        WorkflowDefinition workflow = new WorkflowDefinition();
+        workflow.setStartNodeId(startNodeId);
+        workflow.setNodes(nodes);
+        workflow.setEdges(edges);
+        return workflow;
+    }
+
+    private NodeDefinition node(String id) {
+        NodeDefinition node = new NodeDefinition();
+        node.setId(id);
+        node.setNodeType(KNOWN_TYPE);
+        return node;
+    }
+
+    private Edge edge(String from, String to, String condition) {
+        return new Edge(from, to, condition, null);
+    }
+}
@@ -0,0 +1,167 @@
+package dev.base.workflow.domain.executor.integration.kafka;
+
+import dev.base.workflow.config.AppConfig;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static dev.base.workflow.constant.KafkaConstants.CFG_BOOTSTRAP_SERVERS;
+import static org.junit.jupiter.api.Assertions.*;
+
+class KafkaTransactionManagerTest {
+
+    private static final String GROUP = "trigger-group";
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    private final List<KafkaTransactionManager> managers = new ArrayList<>();
+    private final AppConfig appConfig = new AppConfig();
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, "commit-source", "commit-out", "abort-source", "abort-out",
+                "fence-source", "fence-out");
+        broker.brokerProperties(Map.of(
+                "transaction.state.log.replication.factor", "1",
+                "transaction.state.log.min.isr", "1"));
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        AppConfig.KafkaTriggerConfig config = new AppConfig.KafkaTriggerConfig();
+        config.setProducerCloseTimeoutMs(1000);
+        appConfig.setKafkaTriggers(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        managers.forEach(KafkaTransactionManager::shutdown);
+    }
+
+    @Test
+    void commit_ShouldPublishOutputTogetherWithTheOffset() {
+        KafkaTransactionManager manager = newManager();
+        TopicPartition source = new TopicPartition("commit-source", 0);
+
+        KafkaTransaction transaction = manager.begin(config(), GROUP, source, 4);
+        transaction.producer().send(new ProducerRecord<>("commit-out", "k", "v"));
+
+        assertEquals(List.of(), readCommitted("commit-out"));
+        assertNull(committedOffset(source));
+
+        manager.commit(transaction, new ConsumerGroupMetadata(GROUP));
+
+        assertEquals(List.of("v"), readCommitted("commit-out"));
+        assertEquals(5L, committedOffset(source));
+    }
+
+    @Test
+    void abort_ShouldDiscardOutputAndLeaveTheOffset() {
+        KafkaTransactionManager manager = newManager();
+        TopicPartition source = new TopicPartition("abort-source", 0);
+
+        KafkaTransaction failed = manager.begin(config(), GROUP, source, 0);
+        failed.producer().send(new ProducerRecord<>("abort-out", "k", "failed"));
+        manager.abort(failed);
+
+        assertEquals(List.of(), readCommitted("abort-out"));
+        assertNull(committedOffset(source));
+
+        KafkaTransaction retried = manager.begin(config(), GROUP, source, 0);
+        retried.producer().send(new ProducerRecord<>("abort-out", "k", "retried"));
+        manager.commit(retried, new ConsumerGroupMetadata(GROUP));
+
+        assertEquals(List.of("retried"), readCommitted("abort-out"));
+        assertEquals(1L, committedOffset(source));
+    }
+
+    @Test
+    void begin_ShouldFenceThePreviousOwnerOfThePartition() {
+        TopicPartition source = new TopicPartition("fence-source", 0);
+        KafkaTransactionManager zombie = newManager();
+        KafkaTransactionManager owner = newManager();
+
+        KafkaTransaction stale = zombie.begin(config(), GROUP, source, 0);
+        stale.producer().send(new ProducerRecord<>("fence-out", "k", "zombie"));
+
+        KafkaTransaction current = owner.begin(config(), GROUP, source, 0);
+        current.producer().send(new ProducerRecord<>("fence-out", "k", "owner"));
+        owner.commit(current, new ConsumerGroupMetadata(GROUP));
+
+        assertThrows(KafkaException.class, () -> zombie.commit(stale, new ConsumerGroupMetadata(GROUP)));
+        assertEquals(List.of("owner"), readCommitted("fence-out"));
+        assertEquals(1L, committedOffset(source));
+    }
+
+    private KafkaTransactionManager newManager() {
+        KafkaTransactionManager manager = new KafkaTransactionManager(new KafkaPropertiesBuilder(), appConfig);
+        managers.add(manager);
+        return manager;
+    }
+
+    private Map<String, Object> config() {
+        return Map.of(CFG_BOOTSTRAP_SERVERS, broker.getBrokersAsString());
+    }
+
+    /**
+     * Values on partition 0 of the topic visible to a read_committed consumer.
+     */
+    private List<String> readCommitted(String topic) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        TopicPartition partition = new TopicPartition(topic, 0);
+        List<String> values = new ArrayList<>();
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            consumer.assign(List.of(partition));
+            consumer.seekToBeginning(List.of(partition));
+            // Under read_committed the end offset is the last stable offset
+            long end = consumer.endOffsets(List.of(partition)).get(partition);
+            while (consumer.position(partition) < end) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(200))) {
+                    values.add(record.value());
+                }
+            }
+        }
+        return values;
+    }
+
+    private Long committedOffset(TopicPartition partition) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        try (AdminClient admin = AdminClient.create(props)) {
+            OffsetAndMetadata committed = admin.listConsumerGroupOffsets(GROUP)
+                    .partitionsToOffsetAndMetadata().get().get(partition);
+            return committed == null ? null : committed.offset();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not read committed offsets of " + GROUP, e);
+        }
+    }
+}
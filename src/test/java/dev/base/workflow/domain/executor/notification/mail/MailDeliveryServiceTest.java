@@ -0,0 +1,189 @@
+package dev.base.workflow.domain.executor.notification.mail;
+
+import dev.base.workflow.config.AppConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailDeliveryServiceTest {
+
+    private FakeSmtpServer server;
+    private MailDeliveryService delivery;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeSmtpServer();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (delivery != null) {
+            delivery.shutdown();
+        }
+        server.close();
+    }
+
+    @Test
+    void submit_ShouldSendManyMessagesOverOneConnection() throws Exception {
+        delivery = start(3);
+
+        List<CompletableFuture<Void>> sent = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sent.add(delivery.submit(message(i % 2 == 0 ? "a@example.com" : "b@example.com", "msg " + i)));
+        }
+        CompletableFuture.allOf(sent.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(10, server.messages.size());
+        assertEquals(1, server.connections.get());
+    }
+
+    @Test
+    void submit_ShouldRetryTransientFailureOnNewConnection() throws Exception {
+        delivery = start(3);
+        server.failNextData.set(1);
+
+        delivery.submit(message("a@example.com", "retried")).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, server.messages.size());
+        assertEquals(2, server.connections.get());
+    }
+
+    @Test
+    void submit_ShouldFailAfterMaxAttempts() {
+        delivery = start(2);
+        server.failNextData.set(5);
+
+        CompletableFuture<Void> sent = delivery.submit(message("a@example.com", "lost"));
+
+        assertThrows(ExecutionException.class, () -> sent.get(10, TimeUnit.SECONDS));
+        assertTrue(server.messages.isEmpty());
+    }
+
+    private MailDeliveryService start(int maxAttempts) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(server.port());
+
+        AppConfig.MailDeliveryConfig config = new AppConfig.MailDeliveryConfig();
+        config.setQueueCapacity(100);
+        config.setSessions(1);
+        config.setBatchSize(20);
+        config.setMaxAttempts(maxAttempts);
+        config.setRetryBackoffMs(10);
+        config.setSessionIdleMs(60_000);
+        config.setEnqueueTimeoutMs(1_000);
+        config.setSendTimeoutMs(10_000);
+        config.setCloseTimeoutMs(1_000);
+        config.setDefaultMode(MailDeliveryMode.SYNC);
+        AppConfig appConfig = new AppConfig();
+        appConfig.setMailDelivery(config);
+
+        MailDeliveryService service = new MailDeliveryService(sender, appConfig);
+        service.start();
+        return service;
+    }
+
+    private SimpleMailMessage message(String to, String text) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("workflow@example.com");
+        message.setTo(to);
+        message.setSubject("Test");
+        message.setText(text);
+        return message;
+    }
+
+    /**
+     * Just enough SMTP to accept mail; counts connections and can reject DATA with a 4xx.
+     */
+    private static class FakeSmtpServer implements AutoCloseable {
+        final AtomicInteger connections = new AtomicInteger();
+        final AtomicInteger failNextData = new AtomicInteger();
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        private final ServerSocket socket = new ServerSocket(0);
+
+        FakeSmtpServer() throws IOException {
+            Thread.ofVirtual().start(this::accept);
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket client = socket.accept();
+                    connections.incrementAndGet();
+                    Thread.ofVirtual().start(() -> serve(client));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket client) {
+            try (client;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(),
+                         StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(client.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                reply(out, "220 localhost ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    switch (command) {
+                        case "EHLO", "HELO" -> reply(out, "250 localhost");
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            StringBuilder data = new StringBuilder();
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                data.append(line).append('\n');
+                            }
+                            if (failNextData.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                                reply(out, "451 Try again later");
+                            } else {
+                                messages.add(data.toString());
+                                reply(out, "250 OK");
+                            }
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            }
+        }
+
+        private void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
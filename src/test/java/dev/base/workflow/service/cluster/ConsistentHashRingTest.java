@@ -0,0 +1,72 @@
+package dev.base.workflow.service.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 10_000;
+    private static final int VIRTUAL_NODES = 128;
+
+    @Test
+    void ownerOf_ShouldReturnNullForAnEmptyRing() {
+        assertNull(new ConsistentHashRing(Set.of(), VIRTUAL_NODES).ownerOf("wf-1"));
+    }
+
+    @Test
+    void ownerOf_ShouldBeStableAcrossInstancesWithTheSameMembers() {
+        ConsistentHashRing first = new ConsistentHashRing(Set.of("a", "b", "c"), VIRTUAL_NODES);
+        ConsistentHashRing second = new ConsistentHashRing(Set.of("c", "b", "a"), VIRTUAL_NODES);
+
+        IntStream.range(0, KEYS).mapToObj(i -> "wf-" + i)
+                .forEach(key -> assertEquals(first.ownerOf(key), second.ownerOf(key)));
+    }
+
+    @Test
+    void ownerOf_ShouldSpreadKeysEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(Set.of("a", "b", "c", "d"), VIRTUAL_NODES);
+
+        Map<String, Integer> load = new HashMap<>();
+        IntStream.range(0, KEYS).forEach(i -> load.merge(ring.ownerOf("wf-" + i), 1, Integer::sum));
+
+        assertEquals(Set.of("a", "b", "c", "d"), load.keySet());
+        load.values().forEach(keys -> assertTrue(keys > KEYS / 4 * 0.7 && keys < KEYS / 4 * 1.3,
+                "uneven share: " + load));
+    }
+
+    @Test
+    void ownerOf_ShouldMoveOnlyTheLeavingMembersKeys() {
+        ConsistentHashRing before = new ConsistentHashRing(Set.of("a", "b", "c", "d"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(Set.of("a", "b", "c"), VIRTUAL_NODES);
+
+        for (int i = 0; i < KEYS; i++) {
+            String key = "wf-" + i;
+            if (!"d".equals(before.ownerOf(key))) {
+                assertEquals(before.ownerOf(key), after.ownerOf(key), key);
+            }
+        }
+    }
+
+    @Test
+    void ownerOf_ShouldMoveAboutAFairShareToAJoiningMember() {
+        ConsistentHashRing before = new ConsistentHashRing(Set.of("a", "b", "c"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(Set.of("a", "b", "c", "d"), VIRTUAL_NODES);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "wf-" + i;
+            if (!before.ownerOf(key).equals(after.ownerOf(key))) {
+                assertEquals("d", after.ownerOf(key), key);
+                moved++;
+            }
+        }
+
+        assertTrue(moved > KEYS / 4 * 0.7 && moved < KEYS / 4 * 1.3, "moved " + moved + " of " + KEYS);
+    }
+}
@@ -1,10 +1,11 @@
 package dev.base.workflow.service.execution;
 
 import dev.base.workflow.domain.engine.WorkflowEngine;
-import dev.base.workflow.mongo.repository.WorkflowDefinitionRepository;
+import dev.base.workflow.mongo.collection.WorkflowExecution;
 import dev.base.workflow.service.execution.helper.WorkflowExecutionHelper;
 import dev.base.workflow.service.execution.helper.WorkflowRunHelper;
 import dev.base.workflow.service.execution.trigger.KafkaTriggerManager;
+import dev.base.workflow.service.management.WorkflowDefinitionCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,7 +14,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collections;
+import java.util.List;
 
+import static dev.base.workflow.constant.WorkflowErrorConstants.ERR_STOPPED_BY_USER;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,7 +26,7 @@ class WorkflowExecutionServiceTest {
     private WorkflowEngine workflowEngine;
 
     @Mock
-    private WorkflowDefinitionRepository workflowRepository;
+    private WorkflowDefinitionCache definitionCache;
 
     @Mock
     private WorkflowScheduler workflowScheduler;
@@ -37,6 +40,9 @@ class WorkflowExecutionServiceTest {
     @Mock
     private WorkflowExecutionHelper executionHelper;
 
+    @Mock
+    private ExecutionCancellationRegistry cancellationRegistry;
+
     @InjectMocks
     private WorkflowExecutionService workflowExecutionService;
 
@@ -62,4 +68,17 @@ class WorkflowExecutionServiceTest {
         // Verify Active runs are stopped
         verify(runHelper).stopActiveRuns(workflowId);
     }
+
+    @Test
+    void stopWorkflow_ShouldCancelRunningExecutions() {
+        String workflowId = "test-workflow-id";
+        WorkflowExecution execution = new WorkflowExecution();
+        execution.setId("execution-id");
+        when(executionHelper.findRunningExecutions(workflowId)).thenReturn(List.of(execution));
+
+        workflowExecutionService.stopWorkflow(workflowId);
+
+        verify(cancellationRegistry).cancel("execution-id", ERR_STOPPED_BY_USER);
+        verify(executionHelper).cancelExecutionRecord(execution, ERR_STOPPED_BY_USER);
+    }
 }
@@ -0,0 +1,135 @@
+package dev.base.workflow.service.execution.cron;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.domain.event.CronBatchEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives {@link CronEngine#popDue(long)} with explicit clock values; the
+ * expressions fire at most daily, so the engine thread itself stays idle.
+ */
+class CronEngineTest {
+
+    private static final String DAILY = "0 0 12 * * *";
+    private static final String YEARLY = "0 0 0 1 1 *";
+    private static final long THRESHOLD_MS = 5_000;
+
+    private final AppConfig appConfig = new AppConfig();
+    private CronEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        AppConfig.CronConfig config = new AppConfig.CronConfig();
+        config.setMisfireThresholdMs(THRESHOLD_MS);
+        config.setMisfirePolicy(MisfirePolicy.FIRE_ONCE);
+        config.setMaxJitterMs(0);
+        appConfig.setCron(config);
+        engine = new CronEngine(event -> fail("engine thread must not fire during the test"), appConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void popDue_ShouldFireEveryEntryDueAtTheTickOnce() {
+        engine.schedule("wf-1", DAILY, null);
+        engine.schedule("wf-2", DAILY, "run-2");
+        long due = nextFire(DAILY);
+
+        assertEquals(List.of(), engine.popDue(due - 1));
+        List<CronBatchEvent.CronFire> fires = engine.popDue(due);
+
+        assertEquals(2, fires.size());
+        assertTrue(fires.contains(new CronBatchEvent.CronFire("wf-1", null, due)));
+        assertTrue(fires.contains(new CronBatchEvent.CronFire("wf-2", "run-2", due)));
+        assertEquals(List.of(), engine.popDue(due));
+        assertEquals(2, engine.popDue(nextFire(DAILY, due)).size());
+    }
+
+    @Test
+    void popDue_ShouldFireMisfireOnceUnderFireOncePolicy() {
+        engine.schedule("wf-1", DAILY, null);
+        long due = nextFire(DAILY);
+        long threeDaysLate = due + TimeUnit.DAYS.toMillis(3);
+
+        List<CronBatchEvent.CronFire> fires = engine.popDue(threeDaysLate);
+
+        assertEquals(List.of(new CronBatchEvent.CronFire("wf-1", null, due)), fires);
+        assertEquals(List.of(), engine.popDue(threeDaysLate));
+        assertTrue(engine.isScheduled("wf-1"));
+    }
+
+    @Test
+    void popDue_ShouldSkipMisfireUnderSkipPolicy() {
+        appConfig.getCron().setMisfirePolicy(MisfirePolicy.SKIP);
+        engine.schedule("wf-1", DAILY, null);
+        long due = nextFire(DAILY);
+        long second = nextFire(DAILY, due);
+        long third = nextFire(DAILY, second);
+
+        assertEquals(List.of("wf-1"), workflowIds(engine.popDue(due + THRESHOLD_MS)));
+        assertEquals(List.of(), engine.popDue(second + THRESHOLD_MS + 1));
+        assertTrue(engine.isScheduled("wf-1"));
+        assertEquals(List.of("wf-1"), workflowIds(engine.popDue(third)));
+    }
+
+    @Test
+    void schedule_ShouldReplaceTheEntryOfARescheduledWorkflow() {
+        engine.schedule("wf-1", DAILY, "run-1");
+        engine.schedule("wf-1", YEARLY, "run-2");
+        long yearly = nextFire(YEARLY);
+
+        assertEquals(List.of(), engine.popDue(nextFire(DAILY)));
+        assertEquals(List.of(new CronBatchEvent.CronFire("wf-1", "run-2", yearly)), engine.popDue(yearly));
+        assertEquals(Set.of("wf-1"), engine.scheduledWorkflowIds());
+    }
+
+    @Test
+    void unschedule_ShouldDropPendingFires() {
+        engine.schedule("wf-1", DAILY, null);
+        engine.schedule("wf-2", DAILY, null);
+
+        assertTrue(engine.unschedule("wf-1"));
+        assertFalse(engine.unschedule("wf-1"));
+
+        assertEquals(List.of("wf-2"), workflowIds(engine.popDue(nextFire(DAILY))));
+        assertFalse(engine.isScheduled("wf-1"));
+    }
+
+    @Test
+    void schedule_ShouldSpreadFiresByAStablePerWorkflowJitter() {
+        appConfig.getCron().setMaxJitterMs(60_000);
+        engine.schedule("wf-1", DAILY, null);
+        long due = nextFire(DAILY);
+        long jitter = Math.floorMod("wf-1".hashCode(), 60_000L);
+
+        assertEquals(List.of(), engine.popDue(due + jitter - 1));
+        assertEquals(List.of(new CronBatchEvent.CronFire("wf-1", null, due + jitter)), engine.popDue(due + jitter));
+    }
+
+    private long nextFire(String cron) {
+        return nextFire(cron, System.currentTimeMillis());
+    }
+
+    private long nextFire(String cron, long afterMs) {
+        return CronExpression.parse(cron).next(Instant.ofEpochMilli(afterMs).atZone(ZoneId.systemDefault()))
+                .toInstant().toEpochMilli();
+    }
+
+    private List<String> workflowIds(List<CronBatchEvent.CronFire> fires) {
+        return fires.stream().map(CronBatchEvent.CronFire::workflowId).toList();
+    }
+}
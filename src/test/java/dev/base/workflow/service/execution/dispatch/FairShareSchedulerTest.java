@@ -0,0 +1,145 @@
+package dev.base.workflow.service.execution.dispatch;
+
+import dev.base.workflow.config.AppConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairShareSchedulerTest {
+
+    private final AppConfig appConfig = new AppConfig();
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+    private FairShareScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        AppConfig.DispatchConfig config = new AppConfig.DispatchConfig();
+        config.setMaxConcurrency(100);
+        config.setMaxPerOwner(100);
+        config.setMaxPerWorkflow(100);
+        config.setOwnerWeights(Map.of("heavy", 2));
+        config.setDefaultOwnerWeight(1);
+        appConfig.setDispatch(config);
+        scheduler = new FairShareScheduler(appConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void next_ShouldShareCapacityByOwnerWeight() throws Exception {
+        enqueue("wf-heavy", "heavy", 6);
+        enqueue("wf-light", "light", 6);
+
+        Map<String, Integer> dispatched = take(6);
+
+        assertEquals(4, dispatched.get("heavy"));
+        assertEquals(2, dispatched.get("light"));
+    }
+
+    @Test
+    void next_ShouldServeWorkflowsOfAnOwnerRoundRobin() throws Exception {
+        enqueue("wf-1", "owner", 2);
+        enqueue("wf-2", "owner", 2);
+
+        assertEquals("wf-1", scheduler.next().task().getWorkflowId());
+        assertEquals("wf-2", scheduler.next().task().getWorkflowId());
+        assertEquals("wf-1", scheduler.next().task().getWorkflowId());
+        assertEquals("wf-2", scheduler.next().task().getWorkflowId());
+    }
+
+    @Test
+    void next_ShouldNotBankCreditForIdleOwner() throws Exception {
+        enqueue("wf-busy", "busy", 10);
+        for (int i = 0; i < 5; i++) {
+            scheduler.release(scheduler.next());
+        }
+
+        enqueue("wf-idle", "idle", 10);
+        Map<String, Integer> dispatched = take(4);
+
+        assertTrue(dispatched.getOrDefault("busy", 0) >= 1, "returning owner must not monopolise capacity");
+        assertTrue(dispatched.get("idle") >= 2);
+    }
+
+    @Test
+    void next_ShouldWaitForCapacityUnderGlobalLimit() throws Exception {
+        appConfig.getDispatch().setMaxConcurrency(1);
+        enqueue("wf-1", "a", 1);
+        enqueue("wf-2", "b", 1);
+
+        FairShareScheduler.Lease first = scheduler.next();
+        Future<FairShareScheduler.Lease> second = callers.submit(scheduler::next);
+        assertBlocked(second);
+
+        scheduler.release(first);
+
+        assertNotEquals(first.queue(), second.get(5, TimeUnit.SECONDS).queue());
+        assertEquals(1, scheduler.inFlight());
+    }
+
+    @Test
+    void next_ShouldHoldBackOwnerAndWorkflowAtTheirLimits() throws Exception {
+        appConfig.getDispatch().setMaxPerOwner(2);
+        appConfig.getDispatch().setMaxPerWorkflow(1);
+        enqueue("wf-1", "owner", 3);
+        enqueue("wf-2", "owner", 3);
+        enqueue("wf-3", "other", 1);
+
+        Map<String, Integer> dispatched = take(3);
+        assertEquals(2, dispatched.get("owner"));
+        assertEquals(1, dispatched.get("other"));
+
+        Future<FairShareScheduler.Lease> blocked = callers.submit(scheduler::next);
+        assertBlocked(blocked);
+    }
+
+    @Test
+    void release_ShouldAdmitTheNextTaskOfTheSameWorkflow() throws Exception {
+        appConfig.getDispatch().setMaxPerWorkflow(1);
+        enqueue("wf-1", "owner", 2);
+
+        FairShareScheduler.Lease first = scheduler.next();
+        Future<FairShareScheduler.Lease> second = callers.submit(scheduler::next);
+        assertBlocked(second);
+
+        scheduler.release(first);
+
+        assertEquals("wf-1", second.get(5, TimeUnit.SECONDS).task().getWorkflowId());
+    }
+
+    private void enqueue(String workflowId, String ownerId, int tasks) {
+        WorkflowQueue queue = new WorkflowQueue(workflowId, ownerId, 100);
+        for (int i = 0; i < tasks; i++) {
+            queue.tryOffer(DispatchTask.builder().workflowId(workflowId).build());
+        }
+        scheduler.signalWork(queue);
+    }
+
+    /**
+     * Take leases without releasing them; counts per owner.
+     */
+    private Map<String, Integer> take(int leases) throws InterruptedException {
+        Map<String, Integer> byOwner = new HashMap<>();
+        for (int i = 0; i < leases; i++) {
+            byOwner.merge(scheduler.next().queue().getOwnerId(), 1, Integer::sum);
+        }
+        return byOwner;
+    }
+
+    private void assertBlocked(Future<?> future) {
+        assertThrows(TimeoutException.class, () -> future.get(200, TimeUnit.MILLISECONDS));
+    }
+}
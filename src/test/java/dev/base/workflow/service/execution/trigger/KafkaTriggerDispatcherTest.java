@@ -0,0 +1,271 @@
+package dev.base.workflow.service.execution.trigger;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.domain.event.WorkflowTriggerEvent;
+import dev.base.workflow.domain.executor.integration.kafka.KafkaPropertiesBuilder;
+import dev.base.workflow.domain.executor.integration.kafka.KafkaTransaction;
+import dev.base.workflow.domain.executor.integration.kafka.KafkaTransactionManager;
+import dev.base.workflow.model.core.ExecutionContext;
+import dev.base.workflow.service.execution.dispatch.DispatchTask;
+import dev.base.workflow.service.execution.dispatch.TriggerDeduplicator;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static dev.base.workflow.constant.KafkaConstants.*;
+import static dev.base.workflow.constant.WorkflowConstants.CFG_VALUE;
+import static dev.base.workflow.constant.WorkflowConstants.KEY_TRIGGER_INPUT;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Exactly-once dispatch against an embedded broker: the execution's output
+ * must become visible exactly when the source offset is committed. Also
+ * covers redelivery of a non-transactional record whose dead-letter send failed.
+ */
+class KafkaTriggerDispatcherTest {
+
+    private static final String GROUP = "trigger-group";
+    private static final String WORKFLOW_ID = "wf-1";
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    private final AppConfig appConfig = new AppConfig();
+    private final TriggerDeduplicator deduplicator = mock(TriggerDeduplicator.class);
+    private KafkaTransactionManager transactionManager;
+    private KafkaTriggerDispatcher dispatcher;
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, "batch-source", "batch-out", "retry-source", "retry-out",
+                "redelivery-source", "redelivery-out", "dlt-source", "dlt-out", "dlt-source.dlt");
+        broker.brokerProperties(Map.of(
+                "transaction.state.log.replication.factor", "1",
+                "transaction.state.log.min.isr", "1"));
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        AppConfig.KafkaTriggerConfig config = new AppConfig.KafkaTriggerConfig();
+        config.setRetryBackoffMs(10);
+        config.setMaxBackoffMs(100);
+        config.setDeadLetterSuffix(".dlt");
+        config.setDeadLetterMaxAttempts(3);
+        config.setProducerCloseTimeoutMs(1000);
+        appConfig.setKafkaTriggers(config);
+
+        transactionManager = new KafkaTransactionManager(new KafkaPropertiesBuilder(), appConfig);
+        // Stands in for the execution: sends its Kafka output through the record's transaction
+        dispatcher = new KafkaTriggerDispatcher(event -> execute((WorkflowTriggerEvent) event),
+                new KafkaDeadLetterPublisher(null), transactionManager, deduplicator, appConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+        transactionManager.shutdown();
+    }
+
+    @Test
+    void dispatch_ShouldCommitOutputTogetherWithOffsets() throws Exception {
+        dispatch(KafkaFailurePolicy.COMMIT, 0, record("batch-source", 0, "a"), record("batch-source", 1, "b"));
+
+        assertEquals(List.of("out-a", "out-b"), readCommitted("batch-out"));
+        assertEquals(2L, committedOffset("batch-source"));
+    }
+
+    @Test
+    void dispatch_ShouldDiscardOutputOfFailedAttempts() throws Exception {
+        failuresLeft.set(2);
+
+        dispatch(KafkaFailurePolicy.COMMIT, 3, record("retry-source", 0, "a"));
+
+        assertEquals(List.of("out-a"), readCommitted("retry-out"));
+        assertEquals(1L, committedOffset("retry-source"));
+    }
+
+    @Test
+    void dispatch_ShouldNotDuplicateOutputWhenRedelivered() throws Exception {
+        // A previous owner ran the record and crashed before committing
+        KafkaTransactionManager crashed = new KafkaTransactionManager(new KafkaPropertiesBuilder(), appConfig);
+        try {
+            KafkaTransaction stale = crashed.begin(connection(), GROUP, new TopicPartition("redelivery-source", 0), 0);
+            stale.producer().send(new ProducerRecord<>("redelivery-out", "k", "out-a"));
+            stale.producer().flush();
+
+            dispatch(KafkaFailurePolicy.COMMIT, 0, record("redelivery-source", 0, "a"));
+        } finally {
+            crashed.shutdown();
+        }
+
+        assertEquals(List.of("out-a"), readCommitted("redelivery-out"));
+        assertEquals(1L, committedOffset("redelivery-source"));
+    }
+
+    @Test
+    void dispatch_ShouldCommitDeadLetterInsteadOfOutputWhenRetriesRunOut() throws Exception {
+        failuresLeft.set(Integer.MAX_VALUE);
+
+        dispatch(KafkaFailurePolicy.DEAD_LETTER, 1, record("dlt-source", 0, "a"));
+
+        assertEquals(List.of(), readCommitted("dlt-out"));
+        assertEquals(List.of("a"), readCommitted("dlt-source.dlt"));
+        assertEquals(1L, committedOffset("dlt-source"));
+    }
+
+    @Test
+    void dispatch_ShouldRunRedeliveredRecordAgainAfterDeadLetterFailure() throws Exception {
+        // Stands in for the dedup store and the execution dispatcher: a claimed key completes without running
+        Set<String> claimed = ConcurrentHashMap.newKeySet();
+        when(deduplicator.deriveKey(any())).thenAnswer(invocation -> {
+            DispatchTask task = invocation.getArgument(0);
+            Map<?, ?> input = (Map<?, ?>) task.getInput();
+            String key = task.getIdempotencyKey() != null ? task.getIdempotencyKey()
+                    : input.get(CFG_TOPIC) + "|" + input.get(KEY_PARTITION) + "|" + input.get(KEY_OFFSET);
+            return Optional.of(task.getWorkflowId() + "|" + key);
+        });
+        doAnswer(invocation -> claimed.remove(invocation.<String>getArgument(0)))
+                .when(deduplicator).forget(anyString());
+        AtomicInteger executions = new AtomicInteger();
+        AtomicBoolean deadLetterAvailable = new AtomicBoolean();
+        KafkaDeadLetterPublisher deadLetters = mock(KafkaDeadLetterPublisher.class);
+        when(deadLetters.publish(any(), any(), any(), any(), any(), anyInt())).thenAnswer(invocation ->
+                deadLetterAvailable.get() ? CompletableFuture.completedFuture(null)
+                        : CompletableFuture.failedFuture(new IllegalStateException("Dead-letter topic unavailable")));
+
+        KafkaTriggerDispatcher plain = new KafkaTriggerDispatcher(event -> {
+            WorkflowTriggerEvent trigger = (WorkflowTriggerEvent) event;
+            assertFalse(trigger.isPinned());
+            DispatchTask task = DispatchTask.builder().workflowId(trigger.getWorkflowId()).input(trigger.getInput())
+                    .triggerType(trigger.getTriggerType()).idempotencyKey(trigger.getIdempotencyKey()).build();
+            if (!claimed.add(deduplicator.deriveKey(task).orElseThrow())) {
+                trigger.getCompletion().complete(null);
+                return;
+            }
+            executions.incrementAndGet();
+            trigger.getCompletion().completeExceptionally(new IllegalStateException("Poison record"));
+        }, deadLetters, transactionManager, deduplicator, appConfig);
+        KafkaTriggerDispatcher.DeliverySettings settings = new KafkaTriggerDispatcher.DeliverySettings(
+                KafkaFailurePolicy.DEAD_LETTER, 1, null, false, connection());
+        List<ConsumerRecord<String, String>> poison = List.of(record("poison-source", 0, "a"));
+
+        try {
+            for (int delivery = 1; delivery <= 2; delivery++) {
+                CompletableFuture<Void> dispatched = plain.dispatch(WORKFLOW_ID, settings, poison,
+                        new ConsumerGroupMetadata(GROUP));
+                assertThrows(ExecutionException.class, () -> dispatched.get(10, TimeUnit.SECONDS));
+                assertEquals(2 * delivery, executions.get());
+            }
+
+            deadLetterAvailable.set(true);
+            plain.dispatch(WORKFLOW_ID, settings, poison, new ConsumerGroupMetadata(GROUP)).get(10, TimeUnit.SECONDS);
+        } finally {
+            plain.shutdown();
+        }
+
+        assertEquals(6, executions.get());
+        verify(deadLetters, times(7)).publish(any(), eq("poison-source.dlt"), eq(WORKFLOW_ID), any(), any(), eq(2));
+    }
+
+    @SafeVarargs
+    private void dispatch(KafkaFailurePolicy policy, int maxRetries, ConsumerRecord<String, String>... records)
+            throws Exception {
+        KafkaTriggerDispatcher.DeliverySettings settings = new KafkaTriggerDispatcher.DeliverySettings(policy,
+                maxRetries, null, true, connection());
+        dispatcher.dispatch(WORKFLOW_ID, settings, List.of(records), new ConsumerGroupMetadata(GROUP))
+                .get(60, TimeUnit.SECONDS);
+    }
+
+    private void execute(WorkflowTriggerEvent event) {
+        assertTrue(event.isPinned());
+        Map<?, ?> input = (Map<?, ?>) event.getInput();
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.put(KEY_TRIGGER_INPUT, input);
+        KafkaTransaction transaction = transactionManager.current(ctx).orElseThrow();
+        String outputTopic = input.get(CFG_TOPIC).toString().replace("-source", "-out");
+        transaction.producer().send(new ProducerRecord<>(outputTopic, "k", "out-" + input.get(CFG_VALUE)));
+        if (failuresLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            event.getCompletion().completeExceptionally(new IllegalStateException("Node failed"));
+        } else {
+            event.getCompletion().complete(null);
+        }
+    }
+
+    private ConsumerRecord<String, String> record(String topic, long offset, String value) {
+        return new ConsumerRecord<>(topic, 0, offset, "k", value);
+    }
+
+    private Map<String, Object> connection() {
+        return Map.of(CFG_BOOTSTRAP_SERVERS, broker.getBrokersAsString());
+    }
+
+    /**
+     * Values on partition 0 of the topic visible to a read_committed consumer.
+     */
+    private List<String> readCommitted(String topic) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        TopicPartition partition = new TopicPartition(topic, 0);
+        List<String> values = new ArrayList<>();
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            consumer.assign(List.of(partition));
+            consumer.seekToBeginning(List.of(partition));
+            long end = consumer.endOffsets(List.of(partition)).get(partition);
+            while (consumer.position(partition) < end) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(200))) {
+                    values.add(record.value());
+                }
+            }
+        }
+        return values;
+    }
+
+    private Long committedOffset(String topic) throws Exception {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        try (AdminClient admin = AdminClient.create(props)) {
+            OffsetAndMetadata committed = admin.listConsumerGroupOffsets(GROUP).partitionsToOffsetAndMetadata()
+                    .get().get(new TopicPartition(topic, 0));
+            return committed == null ? null : committed.offset();
+        }
+    }
+}
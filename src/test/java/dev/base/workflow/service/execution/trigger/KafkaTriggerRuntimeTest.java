@@ -0,0 +1,161 @@
+package dev.base.workflow.service.execution.trigger;
+
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.domain.executor.integration.kafka.KafkaPropertiesBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static dev.base.workflow.constant.KafkaConstants.CFG_BOOTSTRAP_SERVERS;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Partition pause, commit and rewind of a shared trigger consumer against an
+ * embedded broker; the handler stands in for the dispatcher.
+ */
+class KafkaTriggerRuntimeTest {
+
+    private static final String GROUP = "runtime-group";
+    private static final String WORKFLOW_ID = "wf-1";
+    private static final long TIMEOUT_MS = 30_000;
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    private final List<String> handled = new CopyOnWriteArrayList<>();
+    private KafkaTriggerRuntime runtime;
+    private KafkaProducer<String, String> producer;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 2, "pause-source", "rewind-source");
+        broker.brokerProperties(Map.of("group.initial.rebalance.delay.ms", "0"));
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        producer = new KafkaProducer<>(props);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        producer.close();
+        if (runtime != null) {
+            runtime.shutdown();
+            runtime.awaitTermination(TIMEOUT_MS);
+        }
+    }
+
+    @Test
+    void runtime_ShouldPauseOnlyTheBusyPartitionUntilItsRecordsSettle() throws Exception {
+        CompletableFuture<Void> busy = new CompletableFuture<>();
+        start("pause-source", (workflowId, records, groupMetadata) -> {
+            record(records);
+            return records.get(0).partition() == 0 ? busy : CompletableFuture.completedFuture(null);
+        });
+
+        send("pause-source", 0, "a");
+        send("pause-source", 1, "b");
+        await(() -> handled.containsAll(List.of("0@0", "1@0")));
+        send("pause-source", 0, "c");
+        send("pause-source", 1, "d");
+        await(() -> handled.contains("1@1"));
+        await(() -> Long.valueOf(2).equals(committedOffset("pause-source", 1)));
+
+        assertFalse(handled.contains("0@1"));
+        assertNull(committedOffset("pause-source", 0));
+
+        busy.complete(null);
+        await(() -> Long.valueOf(2).equals(committedOffset("pause-source", 0)));
+        assertTrue(handled.contains("0@1"));
+    }
+
+    @Test
+    void runtime_ShouldRewindAFailedPartitionAndRedeliverItsRecords() throws Exception {
+        start("rewind-source", (workflowId, records, groupMetadata) -> {
+            boolean firstDelivery = !handled.contains("0@0");
+            record(records);
+            return firstDelivery
+                    ? CompletableFuture.failedFuture(new IllegalStateException("Dead-letter topic unavailable"))
+                    : CompletableFuture.completedFuture(null);
+        });
+
+        send("rewind-source", 0, "a");
+        await(() -> Long.valueOf(1).equals(committedOffset("rewind-source", 0)));
+
+        assertEquals(2, handled.stream().filter("0@0"::equals).count());
+    }
+
+    private void start(String topic, KafkaTriggerRuntime.RecordHandler handler) {
+        AppConfig.KafkaTriggerConfig config = new AppConfig.KafkaTriggerConfig();
+        config.setPollTimeoutMs(100);
+        config.setInFlightPollMs(20);
+        config.setInitialBackoffMs(50);
+        config.setMaxBackoffMs(200);
+        config.setBackoffMultiplier(2.0);
+        config.setCloseTimeoutMs(1000);
+        Properties properties = new KafkaPropertiesBuilder()
+                .buildConsumerProperties(Map.of(CFG_BOOTSTRAP_SERVERS, broker.getBrokersAsString()), GROUP);
+        runtime = new KafkaTriggerRuntime(topic, properties, handler, config, false);
+        runtime.register(WORKFLOW_ID, topic, 100, new KafkaTriggerMetrics(new SimpleMeterRegistry(), WORKFLOW_ID));
+        runtime.start();
+    }
+
+    private void record(List<ConsumerRecord<String, String>> records) {
+        records.forEach(record -> handled.add(record.partition() + "@" + record.offset()));
+    }
+
+    private void send(String topic, int partition, String value) throws Exception {
+        producer.send(new ProducerRecord<>(topic, partition, "k", value)).get();
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the consumer");
+            Thread.sleep(50);
+        }
+    }
+
+    private Long committedOffset(String topic, int partition) {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        try (AdminClient admin = AdminClient.create(props)) {
+            OffsetAndMetadata committed = admin.listConsumerGroupOffsets(GROUP).partitionsToOffsetAndMetadata()
+                    .get().get(new TopicPartition(topic, partition));
+            return committed == null ? null : committed.offset();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not read committed offsets of " + GROUP, e);
+        }
+    }
+}
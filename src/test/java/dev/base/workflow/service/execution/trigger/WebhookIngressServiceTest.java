@@ -0,0 +1,182 @@
+package dev.base.workflow.service.execution.trigger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.exception.DispatchRejectedException;
+import dev.base.workflow.exception.PayloadTooLargeException;
+import dev.base.workflow.exception.WebhookAuthenticationException;
+import dev.base.workflow.model.dto.WebhookAccepted;
+import dev.base.workflow.model.nodetype.TriggerNodeType;
+import dev.base.workflow.mongo.collection.NodeDefinition;
+import dev.base.workflow.mongo.collection.WorkflowDefinition;
+import dev.base.workflow.mongo.collection.WorkflowRun;
+import dev.base.workflow.service.execution.dispatch.DispatchTask;
+import dev.base.workflow.service.execution.dispatch.ExecutionDispatcher;
+import dev.base.workflow.service.management.WorkflowDefinitionCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookIngressServiceTest {
+
+    private static final String WORKFLOW_ID = "wf-1";
+    private static final String SECRET = "s3cret";
+    private static final String TOKEN = "t0ken";
+    private static final String BODY = "{\"order\":42}";
+
+    @Mock
+    private WorkflowDefinitionCache definitionCache;
+
+    @Mock
+    private ExecutionDispatcher dispatcher;
+
+    private final AppConfig appConfig = new AppConfig();
+    private WebhookIngressService service;
+
+    @BeforeEach
+    void setUp() {
+        AppConfig.WebhookConfig config = new AppConfig.WebhookConfig();
+        config.setMaxBodyBytes(1024);
+        config.setMaxBatchSize(10);
+        config.setAllowUnsigned(false);
+        appConfig.setWebhook(config);
+        service = new WebhookIngressService(definitionCache, dispatcher, new ObjectMapper(), appConfig);
+    }
+
+    @Test
+    void accept_ShouldEnqueuePayloadWithValidSignature() throws Exception {
+        webhookNode(Map.of(CFG_WEBHOOK_SECRET, SECRET));
+        when(dispatcher.submit(any())).thenReturn(new CompletableFuture<>());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HEADER_WEBHOOK_SIGNATURE, WEBHOOK_SIGNATURE_PREFIX + sign(SECRET, BODY));
+        headers.set(HEADER_IDEMPOTENCY_KEY, "delivery-1");
+
+        WebhookAccepted accepted = service.accept(WORKFLOW_ID, headers, body(BODY));
+
+        ArgumentCaptor<DispatchTask> task = ArgumentCaptor.forClass(DispatchTask.class);
+        verify(dispatcher).submit(task.capture());
+        assertTrue(accepted.isAccepted());
+        assertEquals(task.getValue().getExecutionId(), accepted.getExecutionId());
+        assertEquals(Map.of("order", 42), task.getValue().getInput());
+        assertEquals(WorkflowRun.TriggerType.WEBHOOK, task.getValue().getTriggerType());
+        assertEquals("delivery-1", task.getValue().getIdempotencyKey());
+    }
+
+    @Test
+    void accept_ShouldRejectSignatureOfAnotherPayload() throws Exception {
+        webhookNode(Map.of(CFG_WEBHOOK_SECRET, SECRET));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HEADER_WEBHOOK_SIGNATURE, WEBHOOK_SIGNATURE_PREFIX + sign(SECRET, "{\"order\":43}"));
+
+        assertThrows(WebhookAuthenticationException.class, () -> service.accept(WORKFLOW_ID, headers, body(BODY)));
+        verifyNoInteractions(dispatcher);
+    }
+
+    @Test
+    void accept_ShouldRejectSignatureWithoutPrefixOrWithWrongSecret() throws Exception {
+        webhookNode(Map.of(CFG_WEBHOOK_SECRET, SECRET));
+        HttpHeaders unprefixed = new HttpHeaders();
+        unprefixed.set(HEADER_WEBHOOK_SIGNATURE, sign(SECRET, BODY));
+        HttpHeaders wrongSecret = new HttpHeaders();
+        wrongSecret.set(HEADER_WEBHOOK_SIGNATURE, WEBHOOK_SIGNATURE_PREFIX + sign("other", BODY));
+
+        assertThrows(WebhookAuthenticationException.class, () -> service.accept(WORKFLOW_ID, unprefixed, body(BODY)));
+        assertThrows(WebhookAuthenticationException.class, () -> service.accept(WORKFLOW_ID, wrongSecret, body(BODY)));
+        assertThrows(WebhookAuthenticationException.class,
+                () -> service.accept(WORKFLOW_ID, new HttpHeaders(), body(BODY)));
+        verifyNoInteractions(dispatcher);
+    }
+
+    @Test
+    void accept_ShouldAuthenticateByToken() {
+        webhookNode(Map.of(CFG_WEBHOOK_TOKEN, TOKEN));
+        when(dispatcher.submit(any())).thenReturn(new CompletableFuture<>());
+        HttpHeaders valid = new HttpHeaders();
+        valid.set(HEADER_WEBHOOK_TOKEN, TOKEN);
+        HttpHeaders invalid = new HttpHeaders();
+        invalid.set(HEADER_WEBHOOK_TOKEN, TOKEN + "x");
+
+        assertTrue(service.accept(WORKFLOW_ID, valid, body(BODY)).isAccepted());
+        assertThrows(WebhookAuthenticationException.class, () -> service.accept(WORKFLOW_ID, invalid, body(BODY)));
+        verify(dispatcher, times(1)).submit(any());
+    }
+
+    @Test
+    void accept_ShouldRequireCredentialsUnlessUnsignedIsAllowed() {
+        webhookNode(Map.of());
+        when(dispatcher.submit(any())).thenReturn(new CompletableFuture<>());
+
+        assertThrows(WebhookAuthenticationException.class,
+                () -> service.accept(WORKFLOW_ID, new HttpHeaders(), body(BODY)));
+
+        appConfig.getWebhook().setAllowUnsigned(true);
+        assertTrue(service.accept(WORKFLOW_ID, new HttpHeaders(), body(BODY)).isAccepted());
+    }
+
+    @Test
+    void accept_ShouldRejectOversizedPayloadBeforeAuthenticating() {
+        appConfig.getWebhook().setMaxBodyBytes(4);
+
+        assertThrows(PayloadTooLargeException.class, () -> service.accept(WORKFLOW_ID, new HttpHeaders(), body(BODY)));
+        verifyNoInteractions(definitionCache, dispatcher);
+    }
+
+    @Test
+    void acceptBatch_ShouldReportTheRejectedTailWithoutQueueingIt() throws Exception {
+        webhookNode(Map.of(CFG_WEBHOOK_SECRET, SECRET));
+        when(dispatcher.submit(any())).thenReturn(new CompletableFuture<>(),
+                CompletableFuture.failedFuture(new DispatchRejectedException(WORKFLOW_ID, "queue full")));
+        String batch = "[{\"n\":1},{\"n\":2},{\"n\":3}]";
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HEADER_WEBHOOK_SIGNATURE, WEBHOOK_SIGNATURE_PREFIX + sign(SECRET, batch));
+        headers.set(HEADER_IDEMPOTENCY_KEY, "delivery-1");
+
+        List<WebhookAccepted> results = service.acceptBatch(WORKFLOW_ID, headers, body(batch));
+
+        assertEquals(List.of(true, false, false), results.stream().map(WebhookAccepted::isAccepted).toList());
+        assertNotNull(results.get(2).getError());
+        ArgumentCaptor<DispatchTask> tasks = ArgumentCaptor.forClass(DispatchTask.class);
+        verify(dispatcher, times(2)).submit(tasks.capture());
+        assertEquals(List.of("delivery-1|0", "delivery-1|1"),
+                tasks.getAllValues().stream().map(DispatchTask::getIdempotencyKey).toList());
+    }
+
+    private void webhookNode(Map<String, Object> config) {
+        NodeDefinition node = new NodeDefinition();
+        node.setNodeType(TriggerNodeType.WEBHOOK.getName());
+        node.setConfig(config);
+        WorkflowDefinition workflow = new WorkflowDefinition();
+        workflow.setNodes(List.of(node));
+        when(definitionCache.getActive(WORKFLOW_ID)).thenReturn(Optional.of(workflow));
+    }
+
+    private String sign(String secret, String payload) throws Exception {
+        Mac mac = Mac.getInstance(HMAC_SHA256);
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256));
+        return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ByteArrayInputStream body(String payload) {
+        return new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
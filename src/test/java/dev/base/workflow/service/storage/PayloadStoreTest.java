@@ -0,0 +1,110 @@
+package dev.base.workflow.service.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.result.UpdateResult;
+import dev.base.workflow.config.AppConfig;
+import dev.base.workflow.model.core.PayloadRef;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+
+import java.io.InputStream;
+import java.util.Date;
+import java.util.Map;
+
+import static dev.base.workflow.constant.WorkflowConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PayloadStoreTest {
+
+    @Mock
+    private GridFsTemplate gridFsTemplate;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final Date expireAt = new Date(System.currentTimeMillis() + 86_400_000L);
+
+    private PayloadStore payloadStore;
+
+    @BeforeEach
+    void setUp() {
+        AppConfig.PayloadConfig config = new AppConfig.PayloadConfig();
+        config.setCompressThresholdBytes(1024);
+        config.setOffloadThresholdBytes(4096);
+        config.setMaxPayloadBytes(65536);
+        config.setPreviewBytes(100);
+        config.setCompressionLevel(1);
+        AppConfig appConfig = new AppConfig();
+        appConfig.setPayloads(config);
+        payloadStore = new PayloadStore(gridFsTemplate, mongoTemplate, new ObjectMapper(), appConfig);
+    }
+
+    @Test
+    void encode_ShouldKeepSmallPayloadsInline() {
+        Map<String, Object> payload = Map.of("id", 1, "name", "small");
+
+        assertSame(payload, payloadStore.encode(payload, expireAt));
+        assertEquals("text", payloadStore.encode("text", expireAt));
+        assertNull(payloadStore.encode(null, expireAt));
+        assertEquals(payload, payloadStore.decode(payload));
+    }
+
+    @Test
+    void encode_ShouldDeflateAndDecodeRoundTrip() {
+        Map<String, Object> payload = Map.of("body", "a".repeat(2000));
+
+        Object stored = payloadStore.encode(payload, expireAt);
+
+        PayloadRef ref = assertInstanceOf(PayloadRef.class, stored);
+        assertEquals(PayloadRef.Encoding.DEFLATE, ref.getEncoding());
+        assertTrue(ref.getStoredBytes() < ref.getOriginalBytes());
+        assertEquals(payload, payloadStore.decode(stored));
+        verifyNoInteractions(gridFsTemplate);
+    }
+
+    @Test
+    void encode_ShouldOffloadLargePayloadsOnceAndExtendTheirExpiry() {
+        Map<String, Object> payload = Map.of("body", "b".repeat(5000));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(COLLECTION_GRIDFS_FILES)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        PayloadRef first = assertInstanceOf(PayloadRef.class, payloadStore.encode(payload, expireAt));
+
+        assertEquals(PayloadRef.Encoding.GRIDFS, first.getEncoding());
+        verify(gridFsTemplate).store(any(InputStream.class), eq(first.getPayloadId()),
+                eq(new Document(KEY_ORIGINAL_BYTES, first.getOriginalBytes()).append(FIELD_EXPIRE_AT, expireAt)));
+
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(COLLECTION_GRIDFS_FILES)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        PayloadRef second = assertInstanceOf(PayloadRef.class, payloadStore.encode(payload, expireAt));
+
+        assertEquals(first.getPayloadId(), second.getPayloadId());
+        verify(gridFsTemplate, times(1)).store(any(InputStream.class), anyString(), any(Document.class));
+        assertEquals(Map.of(KEY_OFFLOADED, true, KEY_PAYLOAD_ID, first.getPayloadId(),
+                KEY_ORIGINAL_BYTES, first.getOriginalBytes()), payloadStore.decode(second));
+    }
+
+    @Test
+    void encode_ShouldCutPreviewOnCharacterBoundary() {
+        // '"' then two-byte characters: byte 100 is the second half of one
+        String text = "é".repeat(40_000);
+
+        Object stored = payloadStore.encode(text, expireAt);
+
+        Map<?, ?> preview = assertInstanceOf(Map.class, stored);
+        assertEquals(true, preview.get(KEY_TRUNCATED));
+        assertEquals("\"" + "é".repeat(49), preview.get(KEY_PREVIEW));
+    }
+}
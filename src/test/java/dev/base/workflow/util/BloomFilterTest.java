@@ -0,0 +1,54 @@
+package dev.base.workflow.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverMissInsertedKeys() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("orders|0|" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("orders|0|" + i));
+        }
+    }
+
+    @Test
+    void mightContain_ShouldStayNearConfiguredFalsePositiveRate() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("seen-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("unseen-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void clear_ShouldForgetAllKeys() {
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+        filter.put("key");
+
+        filter.clear();
+
+        assertFalse(filter.mightContain("key"));
+    }
+
+    @Test
+    void create_ShouldRejectInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.0));
+    }
+}
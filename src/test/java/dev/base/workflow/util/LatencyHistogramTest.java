@@ -0,0 +1,50 @@
+package dev.base.workflow.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketOf_ShouldBoundEveryValueWithinRelativeError() {
+        for (long value = 0; value < 1_000_000; value += 7) {
+            long upperBound = LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(value));
+            assertTrue(upperBound >= value, "value " + value);
+            assertTrue(upperBound <= value + Math.max(1, value / 16), "value " + value + " -> " + upperBound);
+        }
+    }
+
+    @Test
+    void percentile_ShouldApproximateUniformDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        Map<Integer, Long> counts = histogram.drain();
+
+        assertEquals(5_000, LatencyHistogram.percentile(counts, 0.50), 5_000 * 0.07);
+        assertEquals(9_900, LatencyHistogram.percentile(counts, 0.99), 9_900 * 0.07);
+        assertEquals(0, LatencyHistogram.percentile(Map.of(), 0.50));
+    }
+
+    @Test
+    void drain_ShouldResetCountsAndMergeAcrossHistograms() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(10);
+        second.record(1_000);
+
+        Map<Integer, Long> merged = new HashMap<>(first.drain());
+        second.drain().forEach((bucket, count) -> merged.merge(bucket, count, Long::sum));
+
+        assertEquals(2L, merged.get(LatencyHistogram.bucketOf(10)));
+        assertEquals(1L, merged.get(LatencyHistogram.bucketOf(1_000)));
+        assertTrue(first.drain().isEmpty());
+    }
+}
@@ -0,0 +1,103 @@
+package dev.base.workflow.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshAheadCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final RefreshAheadCache<String, Integer> cache = new RefreshAheadCache<>(100, 1_000, now::get);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_ShouldServeCachedValueUntilRefreshAfter() {
+        assertEquals(1, cache.get("a", this::load).join());
+        now.set(99);
+
+        assertEquals(1, cache.get("a", this::load).join());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ShouldServeStaleValueWhileRefreshing() {
+        cache.get("a", this::load).join();
+        now.set(100);
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+
+        assertEquals(1, cache.get("a", () -> pending).join());
+        assertEquals(1, cache.get("a", this::load).join(), "one refresh at a time");
+        pending.complete(2);
+
+        assertEquals(2, cache.get("a", this::load).join());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ShouldReloadAfterExpiry() {
+        cache.get("a", this::load).join();
+        now.set(1_000);
+
+        assertEquals(2, cache.get("a", this::load).join());
+    }
+
+    @Test
+    void get_ShouldShareInFlightLoadAndNotCacheFailures() {
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        CompletableFuture<Integer> first = cache.get("a", () -> pending);
+        CompletableFuture<Integer> second = cache.get("a", this::load);
+        pending.completeExceptionally(new IllegalStateException("down"));
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.get("a", this::load).join());
+    }
+
+    @Test
+    void get_ShouldNotRepopulateInvalidatedEntryFromRacingLoad() {
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        cache.get("a", () -> pending);
+        cache.invalidate("a");
+        pending.complete(7);
+
+        assertEquals(1, cache.get("a", this::load).join());
+    }
+
+    @Test
+    void getAll_ShouldLoadMissingAndStaleKeysInOneCall() {
+        cache.get("a", this::load).join();
+        now.set(100);
+        AtomicInteger calls = new AtomicInteger();
+        Set<String> requested = new HashSet<>();
+
+        Map<String, CompletableFuture<Integer>> values = cache.getAll(List.of("a", "b", "c"), keys -> {
+            calls.incrementAndGet();
+            Map<String, CompletableFuture<Integer>> loaded = new HashMap<>();
+            keys.forEach(key -> {
+                requested.add(key);
+                loaded.put(key, CompletableFuture.completedFuture(10));
+            });
+            return loaded;
+        });
+
+        assertEquals(1, calls.get());
+        assertEquals(Set.of("a", "b", "c"), requested);
+        assertEquals(1, values.get("a").join(), "stale value served during refresh");
+        assertEquals(10, values.get("b").join());
+        assertEquals(10, cache.get("a", this::load).join());
+    }
+
+    private CompletableFuture<Integer> load() {
+        return CompletableFuture.completedFuture(loads.incrementAndGet());
+    }
+}